@@ -0,0 +1,116 @@
+package com.shf.benchmarks;
+
+import com.shf.rsocket.broadcast.BroadcastService;
+import com.shf.rsocket.broadcast.DropPolicy;
+import com.shf.rsocket.invalidation.InvalidationMessage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import io.rsocket.Payload;
+import io.rsocket.RSocket;
+import io.rsocket.util.ByteBufPayload;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * description :
+ * Push an {@link InvalidationMessage} to all the connections, an operation ends when every connection received it:
+ * `perConnection` encodes and pushes the message for each connection in the calling thread, like a loop over a map of the requesters,
+ * `broadcast` encodes it once and fans it out by a {@link BroadcastService}.
+ * The connections only release the pushed payloads.
+ * <p>
+ * {@code java -jar benchmarks/target/benchmarks.jar BroadcastBenchmark -prof gc}
+ *
+ * @author songhaifeng
+ * @date 2026/10/19 12:30
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class BroadcastBenchmark {
+
+    @Param({"perConnection", "broadcast"})
+    private String fanOut;
+
+    @Param({"100", "1000"})
+    private int connections;
+
+    private final InvalidationMessage message = InvalidationMessage.key("user", 42);
+    private final AtomicLong received = new AtomicLong();
+    private final List<RSocket> sockets = new ArrayList<>();
+    private BroadcastService broadcastService;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        broadcastService = new BroadcastService(1024, 128, DropPolicy.DROP_NEWEST, Runtime.getRuntime().availableProcessors(),
+                new SimpleMeterRegistry());
+        for (int i = 0; i < connections; i++) {
+            RSocket socket = new ReceivingRSocket(received);
+            sockets.add(socket);
+            broadcastService.register("client-" + i, socket);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        broadcastService.close();
+    }
+
+    @Benchmark
+    public long push() {
+        long expected = received.get() + connections;
+        if ("broadcast".equals(fanOut)) {
+            broadcastService.broadcast(message.encode(ByteBufAllocator.DEFAULT));
+        } else {
+            for (RSocket socket : sockets) {
+                socket.metadataPush(ByteBufPayload.create(Unpooled.EMPTY_BUFFER, message.encode(ByteBufAllocator.DEFAULT))).subscribe();
+            }
+        }
+        while (received.get() < expected) {
+            Thread.yield();
+        }
+        return expected;
+    }
+
+    private static final class ReceivingRSocket implements RSocket {
+        private final AtomicLong received;
+        private final MonoProcessor<Void> onClose = MonoProcessor.create();
+
+        private ReceivingRSocket(AtomicLong received) {
+            this.received = received;
+        }
+
+        @Override
+        public Mono<Void> metadataPush(Payload payload) {
+            payload.release();
+            received.incrementAndGet();
+            return Mono.empty();
+        }
+
+        @Override
+        public Mono<Void> onClose() {
+            return onClose;
+        }
+    }
+}
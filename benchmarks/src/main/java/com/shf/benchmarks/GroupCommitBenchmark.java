@@ -0,0 +1,85 @@
+package com.shf.benchmarks;
+
+import com.shf.entity.User;
+import com.shf.storage.DurableUserStorage;
+import com.shf.storage.GroupCommitUserStorage;
+import com.shf.storage.UserStorage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * description :
+ * Concurrent durable inserts of a {@link DurableUserStorage}, every operation waits for its {@link UserStorage#commit(User)}:
+ * `perRecord` flushes for every user, `group` shares the flushes by a {@link GroupCommitUserStorage}.
+ * <p>
+ * {@code java -jar benchmarks/target/benchmarks.jar GroupCommitBenchmark}
+ *
+ * @author songhaifeng
+ * @date 2026/10/19 0:20
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Threads(16)
+@Fork(1)
+public class GroupCommitBenchmark {
+
+    @Param({"perRecord", "group"})
+    private String commit;
+
+    /**
+     * Max delay of a group commit.
+     */
+    @Param({"0", "1000"})
+    private long maxDelayMicros;
+
+    private UserStorage userStorage;
+    private Path directory;
+    private final AtomicInteger nextId = new AtomicInteger();
+
+    @Setup(Level.Iteration)
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("group-commit-benchmark");
+        userStorage = new DurableUserStorage(directory, 64 << 20, 1 << 20, Duration.ZERO);
+        if ("group".equals(commit)) {
+            userStorage = new GroupCommitUserStorage(userStorage, Duration.of(maxDelayMicros, ChronoUnit.MICROS), 256,
+                    new SimpleMeterRegistry());
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void tearDown() throws IOException {
+        userStorage.close();
+        FileSystemUtils.deleteRecursively(directory);
+    }
+
+    @Benchmark
+    public boolean add() {
+        int id = nextId.getAndIncrement();
+        return userStorage.commit(User.builder().id(id).name("user" + id).age(id & 127).build()).join();
+    }
+}
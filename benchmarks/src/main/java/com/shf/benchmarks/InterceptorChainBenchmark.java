@@ -0,0 +1,132 @@
+package com.shf.benchmarks;
+
+import com.shf.benchmarks.support.BenchmarkPayloads;
+import com.shf.benchmarks.support.InMemoryRSocket;
+import com.shf.rsocket.interceptor.PayloadExtractFunction;
+import com.shf.rsocket.interceptor.context.DefaultResponderContextInterceptor;
+import com.shf.rsocket.interceptor.log.DefaultResponderLogInterceptor;
+import com.shf.rsocket.interceptor.log.policy.LogPolicy;
+import com.shf.rsocket.interceptor.log.sink.AsyncLogSink;
+import com.shf.rsocket.interceptor.log.sink.LogSink;
+import com.shf.rsocket.interceptor.metadata.DefaultMetadataPushReceiveInterceptor;
+import com.shf.rsocket.spring.PayloadHandler;
+import io.rsocket.Payload;
+import io.rsocket.RSocket;
+import io.rsocket.plugins.InitializingInterceptorRegistry;
+import io.rsocket.plugins.RSocketInterceptor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.shf.rsocket.interceptor.OrderRSocketInterceptor.DEFAULT_INTERCEPTOR_SORT;
+
+/**
+ * description :
+ * Measure what the responder {@link com.shf.rsocket.interceptor.OrderRSocketInterceptor} stack costs per request.
+ * The interceptors are registered and sorted like `RSocketServerConfiguration#rSocketServerCustomizer`,
+ * and wrap an {@link InMemoryRSocket}, so the transport and the frame codec are out of the picture.
+ * <p>
+ * Run with the gc profiler to get the allocation rate:
+ * {@code java -jar benchmarks/target/benchmarks.jar InterceptorChainBenchmark -prof gc}
+ *
+ * @author songhaifeng
+ * @date 2026/10/18 10:35
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-benchmark.xml")
+public class InterceptorChainBenchmark {
+    private static final String APP_NAME = "benchmark";
+
+    /**
+     * Interceptors registered for the responder, `all` is the same stack as the server.
+     */
+    @Param({"none", "log", "context", "metadataPush", "all"})
+    private String interceptors;
+
+    /**
+     * Where the log interceptor writes, `async` only measures the cost left on the calling thread.
+     */
+    @Param({"sync", "async"})
+    private String logSink;
+
+    @Param({"10"})
+    private int streamSize;
+
+    private BenchmarkPayloads payloads;
+    private RSocket rSocket;
+    private LogSink sink;
+
+    @Setup
+    public void setup() {
+        payloads = new BenchmarkPayloads();
+        PayloadExtractFunction payloadExtractFunction = PayloadHandler.payloadExtractFunction(payloads.strategies().metadataExtractor());
+        boolean all = "all".equals(interceptors);
+        sink = "async".equals(logSink) ? new AsyncLogSink(8192, AsyncLogSink.OverflowPolicy.DROP) : LogSink.SYNC;
+
+        InitializingInterceptorRegistry registry = new InitializingInterceptorRegistry();
+        if (all || "log".equals(interceptors)) {
+            registry.forResponder(new DefaultResponderLogInterceptor(APP_NAME, payloadExtractFunction, LogPolicy.LOG_ALL, sink));
+        }
+        if (all || "context".equals(interceptors)) {
+            registry.forResponder(new DefaultResponderContextInterceptor(payloadExtractFunction));
+        }
+        if (all || "metadataPush".equals(interceptors)) {
+            registry.forResponder(new DefaultMetadataPushReceiveInterceptor());
+        }
+        // sort must be set after the register operation.
+        registry.forResponder((List<RSocketInterceptor> list) -> list.sort(DEFAULT_INTERCEPTOR_SORT));
+
+        rSocket = registry.initResponder(new InMemoryRSocket(payloads::response, streamSize));
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (sink instanceof AsyncLogSink) {
+            ((AsyncLogSink) sink).close();
+        }
+    }
+
+    @Benchmark
+    public void fireAndForget(Blackhole blackhole) {
+        rSocket.fireAndForget(payloads.request()).subscribe(blackhole::consume);
+    }
+
+    @Benchmark
+    public void requestResponse(Blackhole blackhole) {
+        rSocket.requestResponse(payloads.request()).subscribe(blackhole::consume);
+    }
+
+    @Benchmark
+    public void requestStream(Blackhole blackhole) {
+        rSocket.requestStream(payloads.request()).subscribe(blackhole::consume);
+    }
+
+    @Benchmark
+    public void requestChannel(Blackhole blackhole) {
+        Flux<Payload> requests = Flux.range(0, streamSize).map(i -> payloads.request());
+        rSocket.requestChannel(requests).subscribe(blackhole::consume);
+    }
+
+    @Benchmark
+    public void metadataPush(Blackhole blackhole) {
+        rSocket.metadataPush(payloads.request()).subscribe(blackhole::consume);
+    }
+}
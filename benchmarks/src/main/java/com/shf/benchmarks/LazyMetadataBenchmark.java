@@ -0,0 +1,75 @@
+package com.shf.benchmarks;
+
+import com.shf.benchmarks.support.BenchmarkPayloads;
+import com.shf.rsocket.interceptor.trace.TraceConstant;
+import com.shf.rsocket.spring.metadata.LazyMetadataExtractor;
+import io.rsocket.Payload;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.messaging.rsocket.MetadataExtractor;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * description :
+ * Compare the eager `DefaultMetadataExtractor` with {@link LazyMetadataExtractor}, reading a single key
+ * like `TraceContextHolder` does, an optional key the request doesn't carry like `page`, and reading all the keys
+ * like the log interceptor does.
+ * <p>
+ * {@code java -jar benchmarks/target/benchmarks.jar LazyMetadataBenchmark -prof gc}
+ *
+ * @author songhaifeng
+ * @date 2026/10/18 15:30
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LazyMetadataBenchmark {
+
+    @Param({"false", "true"})
+    private boolean lazy;
+
+    private BenchmarkPayloads payloads;
+    private MetadataExtractor metadataExtractor;
+
+    @Setup
+    public void setup() {
+        payloads = new BenchmarkPayloads();
+        metadataExtractor = payloads.strategies().metadataExtractor();
+        if (lazy) {
+            metadataExtractor = LazyMetadataExtractor.of(metadataExtractor);
+        }
+    }
+
+    @Benchmark
+    public Object traceId() {
+        Payload payload = payloads.request();
+        return metadataExtractor.extract(payload, BenchmarkPayloads.COMPOSITE_METADATA).get(TraceConstant.TRACE_ID);
+    }
+
+    @Benchmark
+    public Object missingKey() {
+        Payload payload = payloads.request();
+        return metadataExtractor.extract(payload, BenchmarkPayloads.COMPOSITE_METADATA).get("page");
+    }
+
+    @Benchmark
+    public int allKeys() {
+        Payload payload = payloads.request();
+        Map<String, Object> metadata = metadataExtractor.extract(payload, BenchmarkPayloads.COMPOSITE_METADATA);
+        return metadata.entrySet().size();
+    }
+}
@@ -0,0 +1,91 @@
+package com.shf.benchmarks;
+
+import com.shf.benchmarks.support.BenchmarkPayloads;
+import com.shf.benchmarks.support.InMemoryRSocket;
+import com.shf.rsocket.lease.AdaptiveLeases;
+import com.shf.rsocket.lease.AimdLimit;
+import com.shf.rsocket.lease.ServerRoleEnum;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.rsocket.RSocket;
+import io.rsocket.SocketAcceptor;
+import io.rsocket.plugins.InitializingInterceptorRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * description :
+ * The cost per request of the statistics of {@link AdaptiveLeases}: the in-flight count and the latency sample of each request,
+ * with `adaptive` the responder is accepted through {@link AdaptiveLeases#statsInterceptor()} like a connection with leases.
+ * Run with several threads, as the requests of all the connections of a server share the statistics of their connection.
+ * <p>
+ * {@code java -jar benchmarks/target/benchmarks.jar LeaseStatsBenchmark -prof gc}
+ *
+ * @author songhaifeng
+ * @date 2026/10/19 15:30
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-benchmark.xml")
+public class LeaseStatsBenchmark {
+
+    @Param({"false", "true"})
+    private boolean adaptive;
+
+    private BenchmarkPayloads payloads;
+    private AdaptiveLeases adaptiveLeases;
+    private RSocket rSocket;
+
+    @Setup
+    public void setup() {
+        payloads = new BenchmarkPayloads();
+        RSocket responder = new InMemoryRSocket(payloads::response, 1, payloads.strategies().metadataExtractor());
+        if (!adaptive) {
+            rSocket = responder;
+            return;
+        }
+        adaptiveLeases = new AdaptiveLeases(ServerRoleEnum.SERVER, AimdLimit.defaults(), Duration.ofSeconds(1), new SimpleMeterRegistry());
+        InitializingInterceptorRegistry registry = new InitializingInterceptorRegistry();
+        registry.forSocketAcceptor(adaptiveLeases.statsInterceptor());
+        SocketAcceptor acceptor = registry.initSocketAcceptor((setupPayload, sendingSocket) -> Mono.just(responder));
+        // the leases of the connection are created right before its acceptor, as RSocketServer does
+        adaptiveLeases.newLeases();
+        rSocket = acceptor.accept(null, null).block();
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (null != adaptiveLeases) {
+            adaptiveLeases.close();
+        }
+    }
+
+    @Benchmark
+    public void requestResponse(Blackhole blackhole) {
+        rSocket.requestResponse(payloads.request()).subscribe(blackhole::consume);
+    }
+
+    @Benchmark
+    public void fireAndForget(Blackhole blackhole) {
+        rSocket.fireAndForget(payloads.request()).subscribe(blackhole::consume);
+    }
+}
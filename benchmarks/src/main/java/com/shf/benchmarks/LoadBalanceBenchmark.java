@@ -0,0 +1,93 @@
+package com.shf.benchmarks;
+
+import com.shf.benchmarks.support.BenchmarkPayloads;
+import com.shf.benchmarks.support.InMemoryRSocket;
+import com.shf.rsocket.loadbalance.LoadBalancedRSocket;
+import com.shf.rsocket.loadbalance.LoadBalancedTarget;
+import com.shf.rsocket.loadbalance.RSocketPool;
+import io.rsocket.RSocket;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * description :
+ * The cost per request of {@link LoadBalancedRSocket}: the choice of a target among `targets` in-memory connections,
+ * and the pending and latency bookkeeping, compared with `direct` requests to one connection.
+ * The `pool` is a {@link RSocketPool} of `targets` connections, by least outstanding requests.
+ * <p>
+ * {@code java -jar benchmarks/target/benchmarks.jar LoadBalanceBenchmark -prof gc}
+ *
+ * @author songhaifeng
+ * @date 2026/10/19 18:00
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-benchmark.xml")
+public class LoadBalanceBenchmark {
+
+    @Param({"direct", "loadBalanced", "pool"})
+    private String requester;
+
+    @Param({"2", "10"})
+    private int targets;
+
+    private BenchmarkPayloads payloads;
+    private RSocket rSocket;
+
+    @Setup
+    public void setup() {
+        payloads = new BenchmarkPayloads();
+        if ("direct".equals(requester)) {
+            rSocket = new InMemoryRSocket(payloads::response, 1);
+            return;
+        }
+        if ("pool".equals(requester)) {
+            RSocketPool pool = RSocketPool.create("pool", targets, () -> Mono.just(new InMemoryRSocket(payloads::response, 1)),
+                    Duration.ofSeconds(1), Duration.ofSeconds(30));
+            pool.connected().block();
+            rSocket = pool;
+            return;
+        }
+        List<LoadBalancedTarget> loadBalancedTargets = new ArrayList<>(targets);
+        for (int i = 0; i < targets; i++) {
+            RSocket connection = new InMemoryRSocket(payloads::response, 1);
+            loadBalancedTargets.add(new LoadBalancedTarget("target-" + i, onLease -> Mono.just(connection),
+                    Duration.ofSeconds(10), Duration.ofSeconds(1), Duration.ofSeconds(30)));
+        }
+        LoadBalancedRSocket loadBalancedRSocket = new LoadBalancedRSocket(loadBalancedTargets);
+        loadBalancedRSocket.connected().block();
+        rSocket = loadBalancedRSocket;
+    }
+
+    @TearDown
+    public void tearDown() {
+        rSocket.dispose();
+    }
+
+    @Benchmark
+    public void requestResponse(Blackhole blackhole) {
+        rSocket.requestResponse(payloads.request()).subscribe(blackhole::consume);
+    }
+}
@@ -0,0 +1,90 @@
+package com.shf.benchmarks;
+
+import com.shf.rsocket.interceptor.log.entity.CapturedData;
+import com.shf.rsocket.interceptor.log.policy.LogPolicy;
+import io.netty.util.CharsetUtil;
+import io.rsocket.Payload;
+import io.rsocket.util.DefaultPayload;
+import org.apache.commons.lang3.StringUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * description :
+ * What the log interceptor costs on the event loop to take the data of a request, with {@link LogPolicy.Capture#STRING}
+ * and {@link LogPolicy.Capture#BUFFER}. The data is a json list of `User`, the rendering of the captured data happens
+ * in the log writer and is not measured by `capture`, `captureAndRender` measures both for comparison.
+ * <p>
+ * {@code java -jar benchmarks/target/benchmarks.jar LogCaptureBenchmark -prof gc}
+ *
+ * @author songhaifeng
+ * @date 2026/10/18 18:30
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LogCaptureBenchmark {
+    private static final String USER = "{\"id\":1,\"name\":\"foo\",\"age\":18}";
+
+    @Param({"STRING", "BUFFER"})
+    private LogPolicy.Capture capture;
+
+    /**
+     * Number of `User` in the data, 100 is about 3KB.
+     */
+    @Param({"1", "100"})
+    private int users;
+
+    @Param({"0", "1024"})
+    private int maxBodyBytes;
+
+    private LogPolicy logPolicy;
+    private ByteBuffer data;
+
+    @Setup
+    public void setup() {
+        logPolicy = LogPolicy.builder().maxBodyBytes(maxBodyBytes).capture(capture).build();
+        String json = "[" + StringUtils.repeat(USER, ",", users) + "]";
+        data = ByteBuffer.wrap(json.getBytes(CharsetUtil.UTF_8)).asReadOnlyBuffer();
+    }
+
+    @Benchmark
+    public Object capture() {
+        Payload payload = DefaultPayload.create(data.duplicate());
+        CapturedData capturedData = logPolicy.capture(payload);
+        if (null == capturedData) {
+            return logPolicy.data(payload);
+        }
+        capturedData.release();
+        return capturedData;
+    }
+
+    @Benchmark
+    public String captureAndRender() {
+        Payload payload = DefaultPayload.create(data.duplicate());
+        CapturedData capturedData = logPolicy.capture(payload);
+        if (null == capturedData) {
+            return logPolicy.data(payload);
+        }
+        try {
+            return capturedData.render();
+        } finally {
+            capturedData.release();
+        }
+    }
+}
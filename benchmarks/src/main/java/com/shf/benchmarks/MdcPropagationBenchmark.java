@@ -0,0 +1,101 @@
+package com.shf.benchmarks;
+
+import com.shf.benchmarks.support.LegacyMdcContextLifter;
+import com.shf.entity.context.MetadataContextHolder;
+import com.shf.reactive.mdc.MdcContextLifter;
+import com.shf.reactive.mdc.MdcReactiveUtils;
+import com.shf.rsocket.interceptor.trace.TraceConstant;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.slf4j.MDC;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Hooks;
+import reactor.core.publisher.Operators;
+import reactor.util.context.Context;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * description :
+ * Compare the ways to propagate the MDC over a chain of operators, like a stream handled by a controller:
+ * <ul>
+ * <li>none: no propagation at all, the baseline.</li>
+ * <li>legacyHook: the previous `MdcContextLifter` on every operator.</li>
+ * <li>hook: the current {@link MdcContextLifter} on every operator, resolved once per subscription.</li>
+ * <li>boundary: no hook, the MDC is only restored by {@link MdcReactiveUtils#mdcOnNext} where the log is written.</li>
+ * </ul>
+ * {@code java -jar benchmarks/target/benchmarks.jar MdcPropagationBenchmark -prof gc}
+ *
+ * @author songhaifeng
+ * @date 2026/10/18 20:50
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MdcPropagationBenchmark {
+    private static final String HOOK_KEY = MdcPropagationBenchmark.class.getName();
+    private static final Set<String> KEYS = Collections.singleton(TraceConstant.TRACE_ID);
+
+    @Param({"none", "legacyHook", "hook", "boundary"})
+    private String mode;
+
+    @Param({"10"})
+    private int elements;
+
+    private Context context;
+
+    @Setup
+    public void setup() {
+        Map<String, Object> metadata = new HashMap<>(4);
+        metadata.put(TraceConstant.TRACE_ID, "TRACE_ID_BENCHMARK");
+        metadata.put("route", "list");
+        context = Context.of(MetadataContextHolder.METADATA_CONTEXT_KEY, metadata, "other", "value");
+        if ("legacyHook".equals(mode)) {
+            Hooks.onEachOperator(HOOK_KEY, Operators.lift((scannable, subscriber) -> new LegacyMdcContextLifter<>(subscriber, KEYS)));
+        } else if ("hook".equals(mode)) {
+            Hooks.onEachOperator(HOOK_KEY, Operators.lift((scannable, subscriber) -> new MdcContextLifter<>(subscriber, KEYS)));
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        Hooks.resetOnEachOperator(HOOK_KEY);
+        MDC.clear();
+    }
+
+    /**
+     * Four operators, the traceId is read from the MDC once per element like a log statement.
+     */
+    @Benchmark
+    public void stream(Blackhole blackhole) {
+        Flux<Integer> flux = Flux.range(0, elements)
+                .map(i -> i + 1)
+                .filter(i -> i > 0);
+        if ("boundary".equals(mode)) {
+            flux = flux.doOnEach(MdcReactiveUtils.mdcOnNext(i -> blackhole.consume(MDC.get(TraceConstant.TRACE_ID))));
+        } else {
+            flux = flux.doOnNext(i -> blackhole.consume(MDC.get(TraceConstant.TRACE_ID)));
+        }
+        flux.map(i -> i * 2)
+                .subscriberContext(context)
+                .subscribe(blackhole::consume);
+    }
+}
@@ -0,0 +1,99 @@
+package com.shf.benchmarks;
+
+import com.shf.benchmarks.support.BenchmarkPayloads;
+import com.shf.benchmarks.support.InMemoryRSocket;
+import com.shf.rsocket.interceptor.PayloadExtractFunction;
+import com.shf.rsocket.interceptor.context.DefaultResponderContextInterceptor;
+import com.shf.rsocket.interceptor.log.DefaultResponderLogInterceptor;
+import com.shf.rsocket.interceptor.metadata.MetadataCacheInterceptor;
+import com.shf.rsocket.spring.PayloadHandler;
+import com.shf.rsocket.spring.metadata.CachingMetadataExtractor;
+import io.rsocket.Payload;
+import io.rsocket.RSocket;
+import io.rsocket.plugins.InitializingInterceptorRegistry;
+import io.rsocket.plugins.RSocketInterceptor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.messaging.rsocket.MetadataExtractor;
+import reactor.core.publisher.Flux;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static com.shf.rsocket.interceptor.OrderRSocketInterceptor.DEFAULT_INTERCEPTOR_SORT;
+
+/**
+ * description :
+ * Compare the decoding of the metadata per request with and without {@link MetadataCacheInterceptor}.
+ * The log and context interceptors are registered, and the responder extracts the headers like `MessagingRSocket`,
+ * so without the cache the same metadata is decoded three times.
+ * <p>
+ * {@code java -jar benchmarks/target/benchmarks.jar MetadataCacheBenchmark -prof gc}
+ *
+ * @author songhaifeng
+ * @date 2026/10/18 14:40
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-benchmark.xml")
+public class MetadataCacheBenchmark {
+    private static final String APP_NAME = "benchmark";
+
+    @Param({"false", "true"})
+    private boolean metadataCache;
+
+    @Param({"10"})
+    private int streamSize;
+
+    private BenchmarkPayloads payloads;
+    private RSocket rSocket;
+
+    @Setup
+    public void setup() {
+        payloads = new BenchmarkPayloads();
+        MetadataExtractor metadataExtractor = payloads.strategies().metadataExtractor();
+        if (metadataCache) {
+            metadataExtractor = new CachingMetadataExtractor(metadataExtractor);
+        }
+        PayloadExtractFunction payloadExtractFunction = PayloadHandler.payloadExtractFunction(metadataExtractor);
+
+        InitializingInterceptorRegistry registry = new InitializingInterceptorRegistry();
+        if (metadataCache) {
+            registry.forResponder(new MetadataCacheInterceptor());
+        }
+        registry.forResponder(new DefaultResponderLogInterceptor(APP_NAME, payloadExtractFunction));
+        registry.forResponder(new DefaultResponderContextInterceptor(payloadExtractFunction));
+        registry.forResponder((List<RSocketInterceptor> list) -> list.sort(DEFAULT_INTERCEPTOR_SORT));
+
+        rSocket = registry.initResponder(new InMemoryRSocket(payloads::response, streamSize, metadataExtractor));
+    }
+
+    @Benchmark
+    public void requestResponse(Blackhole blackhole) {
+        rSocket.requestResponse(payloads.request()).subscribe(blackhole::consume);
+    }
+
+    @Benchmark
+    public void requestStream(Blackhole blackhole) {
+        rSocket.requestStream(payloads.request()).subscribe(blackhole::consume);
+    }
+
+    @Benchmark
+    public void requestChannel(Blackhole blackhole) {
+        Flux<Payload> requests = Flux.range(0, streamSize).map(i -> payloads.request());
+        rSocket.requestChannel(requests).subscribe(blackhole::consume);
+    }
+}
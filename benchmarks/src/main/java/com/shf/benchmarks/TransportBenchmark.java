@@ -0,0 +1,107 @@
+package com.shf.benchmarks;
+
+import com.shf.benchmarks.support.BenchmarkPayloads;
+import com.shf.rsocket.transport.NettyTransport;
+import com.shf.rsocket.transport.NettyTransports;
+import io.rsocket.Payload;
+import io.rsocket.RSocket;
+import io.rsocket.SocketAcceptor;
+import io.rsocket.core.RSocketConnector;
+import io.rsocket.core.RSocketServer;
+import io.rsocket.transport.netty.server.CloseableChannel;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.resources.LoopResources;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * description :
+ * The `user` request/response between a requester and a server of the same host, over TCP loopback(`NIO` or `EPOLL`)
+ * or a unix domain socket(`UDS`), see {@link NettyTransports}. The server replies the user without any routing,
+ * so only the transport and the frame codec are measured.
+ * <p>
+ * `roundTrip` sends one request at a time per thread, its `SampleTime` is the latency.
+ * `pipelined` keeps {@link #IN_FLIGHT} requests in flight over the connection, its `Throughput` is the max rate.
+ * <p>
+ * {@code java -jar benchmarks/target/benchmarks.jar TransportBenchmark -prof gc}
+ *
+ * @author songhaifeng
+ * @date 2026/10/19 20:20
+ */
+@State(Scope.Benchmark)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(1)
+@Fork(value = 1, jvmArgsAppend = "-Dlogback.configurationFile=logback-benchmark.xml")
+public class TransportBenchmark {
+    private static final int IN_FLIGHT = 64;
+
+    @Param({"NIO", "EPOLL", "UDS"})
+    private NettyTransport transport;
+
+    private BenchmarkPayloads payloads;
+    private LoopResources serverLoops;
+    private CloseableChannel server;
+    private RSocket rSocket;
+
+    @Setup
+    public void setup() {
+        payloads = new BenchmarkPayloads();
+        // the server runs on its own event loops, like another process
+        serverLoops = LoopResources.create("benchmark-server", 1, true);
+        String endpoint = transport == NettyTransport.UDS
+                ? new File(System.getProperty("java.io.tmpdir"), "rsocket-benchmark.sock").getPath()
+                : "127.0.0.1:0";
+        server = RSocketServer.create(SocketAcceptor.forRequestResponse(request -> {
+            request.release();
+            return Mono.just(payloads.response());
+        })).bind(NettyTransports.server(transport, endpoint, serverLoops)).block();
+        if (transport != NettyTransport.UDS) {
+            endpoint = "127.0.0.1:" + server.address().getPort();
+        }
+        rSocket = RSocketConnector.connectWith(NettyTransports.client(transport, endpoint)).block();
+    }
+
+    @TearDown
+    public void tearDown() {
+        rSocket.dispose();
+        server.dispose();
+        server.onClose().block();
+        serverLoops.disposeLater().block();
+    }
+
+    @Benchmark
+    @BenchmarkMode({Mode.SampleTime, Mode.Throughput})
+    public Payload roundTrip() {
+        Payload response = rSocket.requestResponse(payloads.request()).block();
+        response.release();
+        return response;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    @OperationsPerInvocation(IN_FLIGHT)
+    public Payload pipelined() {
+        return Flux.range(0, IN_FLIGHT)
+                .flatMap(i -> rSocket.requestResponse(payloads.request()), IN_FLIGHT)
+                .doOnNext(Payload::release)
+                .blockLast();
+    }
+}
@@ -0,0 +1,79 @@
+package com.shf.benchmarks;
+
+import com.shf.entity.User;
+import com.shf.storage.InMemoryUserStorage;
+import com.shf.storage.IndexedUserStorage;
+import com.shf.storage.UserStorage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * description :
+ * Compare the full scan of {@link UserStorage#findByName(String)} and {@link UserStorage#findByAgeBetween(int, int)}
+ * with the indexes of {@link IndexedUserStorage}. Every name is shared by `users / distinctNames` users, and an age
+ * range selects 1% of the users.
+ * <p>
+ * {@code java -jar benchmarks/target/benchmarks.jar UserQueryBenchmark}
+ *
+ * @author songhaifeng
+ * @date 2026/10/19 1:40
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UserQueryBenchmark {
+    private static final int AGES = 100;
+
+    @Param({"scan", "indexed"})
+    private String storage;
+
+    @Param({"100000"})
+    private int users;
+
+    @Param({"1000"})
+    private int distinctNames;
+
+    private UserStorage userStorage;
+
+    @Setup
+    public void setup() {
+        userStorage = new InMemoryUserStorage(users);
+        if ("indexed".equals(storage)) {
+            userStorage = new IndexedUserStorage(userStorage);
+        }
+        for (int id = 0; id < users; id++) {
+            userStorage.putIfAbsent(User.builder().id(id).name("user" + id % distinctNames).age(id % AGES).build());
+        }
+    }
+
+    @Benchmark
+    public void byName(Blackhole blackhole) {
+        for (User user : userStorage.findByName("user" + ThreadLocalRandom.current().nextInt(distinctNames))) {
+            blackhole.consume(user);
+        }
+    }
+
+    @Benchmark
+    public void byAgeRange(Blackhole blackhole) {
+        int age = ThreadLocalRandom.current().nextInt(AGES);
+        for (User user : userStorage.findByAgeBetween(age, age)) {
+            blackhole.consume(user);
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.shf.benchmarks;
+
+import com.shf.benchmarks.support.ConcurrentHashMapUserStorage;
+import com.shf.entity.User;
+import com.shf.storage.DurableUserStorage;
+import com.shf.storage.InMemoryUserStorage;
+import com.shf.storage.UserStorage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * description :
+ * Stress a {@link UserStorage} like the server does: `add.user` writers, `user` point readers and `list` iterators
+ * running at the same time. The storage is checked after every iteration: all the added users are found by id
+ * and iterated exactly once, otherwise the benchmark fails.
+ * The `durable` storage is a {@link DurableUserStorage} in a temporary directory, it's reopened(recovered) before the check.
+ * <p>
+ * {@code java -jar benchmarks/target/benchmarks.jar UserStorageBenchmark -prof gc}
+ *
+ * @author songhaifeng
+ * @date 2026/10/18 22:30
+ */
+@State(Scope.Group)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class UserStorageBenchmark {
+    private static final int DURABLE_SEGMENT_SIZE = 64 << 20;
+
+    @Param({"inMemory", "concurrentHashMap", "durable"})
+    private String storage;
+
+    /**
+     * The ids are added in turn up to it, then the writers hit the existing ids.
+     */
+    @Param({"1000000"})
+    private int maxUsers;
+
+    /**
+     * Users read by a `list`.
+     */
+    @Param({"100"})
+    private int listSize;
+
+    private UserStorage userStorage;
+    private Path directory;
+    private final AtomicInteger nextId = new AtomicInteger();
+
+    @Setup(Level.Iteration)
+    public void setup() throws IOException {
+        userStorage = createStorage();
+        nextId.set(0);
+        // some users for the readers from the beginning
+        for (int i = 0; i < 1000; i++) {
+            add();
+        }
+    }
+
+    @TearDown(Level.Iteration)
+    public void verify() throws IOException {
+        if (null != directory) {
+            userStorage.close();
+            userStorage = new DurableUserStorage(directory, DURABLE_SEGMENT_SIZE, maxUsers, Duration.ZERO);
+        }
+        try {
+            check();
+        } finally {
+            userStorage.close();
+            if (null != directory) {
+                FileSystemUtils.deleteRecursively(directory);
+                directory = null;
+            }
+        }
+    }
+
+    private UserStorage createStorage() throws IOException {
+        switch (storage) {
+            case "inMemory":
+                return new InMemoryUserStorage(maxUsers);
+            case "durable":
+                directory = Files.createTempDirectory("user-storage-benchmark");
+                return new DurableUserStorage(directory, DURABLE_SEGMENT_SIZE, maxUsers, Duration.ofSeconds(1));
+            default:
+                return new ConcurrentHashMapUserStorage(maxUsers);
+        }
+    }
+
+    private void check() {
+        int added = Math.min(nextId.get(), maxUsers);
+        if (userStorage.size() != added) {
+            throw new IllegalStateException("size " + userStorage.size() + " != added " + added);
+        }
+        for (int id = 0; id < added; id++) {
+            User user = userStorage.get(id);
+            if (null == user || user.getId() != id) {
+                throw new IllegalStateException("user " + id + " is lost");
+            }
+        }
+        Set<Integer> iterated = new HashSet<>(added << 1);
+        for (User user : userStorage) {
+            if (!iterated.add(user.getId())) {
+                throw new IllegalStateException("user " + user.getId() + " is iterated twice");
+            }
+        }
+        if (iterated.size() != added) {
+            throw new IllegalStateException("iterated " + iterated.size() + " != added " + added);
+        }
+    }
+
+    @Benchmark
+    @Group("server")
+    @GroupThreads(4)
+    public boolean add() {
+        int id = nextId.getAndIncrement() % maxUsers;
+        return userStorage.putIfAbsent(User.builder().id(id).name("user" + id).age(id & 127).build());
+    }
+
+    @Benchmark
+    @Group("server")
+    @GroupThreads(3)
+    public User get() {
+        int bound = Math.min(nextId.get(), maxUsers);
+        return userStorage.get(ThreadLocalRandom.current().nextInt(bound));
+    }
+
+    @Benchmark
+    @Group("server")
+    @GroupThreads(1)
+    public void list(Blackhole blackhole) {
+        Iterator<User> iterator = userStorage.iterator();
+        for (int i = 0; i < listSize && iterator.hasNext(); i++) {
+            blackhole.consume(iterator.next());
+        }
+    }
+}
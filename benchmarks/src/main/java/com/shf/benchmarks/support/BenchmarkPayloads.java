@@ -0,0 +1,143 @@
+package com.shf.benchmarks.support;
+
+import com.shf.entity.Foo;
+import com.shf.entity.PageRequest;
+import com.shf.rsocket.interceptor.trace.TraceConstant;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.util.CharsetUtil;
+import io.rsocket.Payload;
+import io.rsocket.metadata.CompositeMetadataCodec;
+import io.rsocket.metadata.TaggingMetadataCodec;
+import io.rsocket.metadata.WellKnownMimeType;
+import io.rsocket.util.DefaultPayload;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.codec.CharSequenceEncoder;
+import org.springframework.core.codec.StringDecoder;
+import org.springframework.http.codec.json.Jackson2JsonDecoder;
+import org.springframework.http.codec.json.Jackson2JsonEncoder;
+import org.springframework.messaging.rsocket.RSocketStrategies;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.ByteBuffer;
+import java.util.Collections;
+import java.util.Map;
+
+import static com.shf.rsocket.mimetype.MimeTypes.FOO_MIME_TYPE;
+import static com.shf.rsocket.mimetype.MimeTypes.MAP_MIME_TYPE;
+import static com.shf.rsocket.mimetype.MimeTypes.PAGE_MIME_TYPE;
+import static com.shf.rsocket.mimetype.MimeTypes.REFRESH_TOKEN_MIME_TYPE;
+import static com.shf.rsocket.mimetype.MimeTypes.SECURITY_TOKEN_MIME_TYPE;
+import static com.shf.rsocket.mimetype.MimeTypes.TRACE_ID_MIME_TYPE;
+
+/**
+ * description :
+ * Build the {@link RSocketStrategies} and the request payloads shared by all benchmarks.
+ * The metadata registrations are the same as the `server` module, and every request carries
+ * a realistic composite metadata: route, traceId, bearer token and `MAP_MIME_TYPE` properties.
+ *
+ * @author songhaifeng
+ * @date 2026/10/18 10:12
+ */
+public class BenchmarkPayloads {
+    public static final MimeType COMPOSITE_METADATA = MimeTypeUtils.parseMimeType(
+            WellKnownMimeType.MESSAGE_RSOCKET_COMPOSITE_METADATA.getString());
+
+    public static final String ROUTE = "user";
+    public static final String TRACE_ID = "TRACE_ID_BENCHMARK";
+
+    private static final String REQUEST_DATA = "{\"id\":1}";
+    private static final String RESPONSE_DATA = "{\"id\":1,\"name\":\"foo\",\"age\":18}";
+    private static final String PROPERTIES = "{\"property_1\":\"value_1\",\"property_2\":{\"name\":\"a\"}}";
+
+    private final RSocketStrategies strategies;
+    private final ByteBuffer requestData;
+    private final ByteBuffer requestMetadata;
+    private final ByteBuffer responseData;
+
+    public BenchmarkPayloads() {
+        this.strategies = createStrategies();
+        this.requestData = toByteBuffer(Unpooled.copiedBuffer(REQUEST_DATA, CharsetUtil.UTF_8));
+        this.requestMetadata = toByteBuffer(createCompositeMetadata(ROUTE));
+        this.responseData = toByteBuffer(Unpooled.copiedBuffer(RESPONSE_DATA, CharsetUtil.UTF_8));
+    }
+
+    public RSocketStrategies strategies() {
+        return strategies;
+    }
+
+    /**
+     * A new request payload, data and metadata share the pre-encoded buffers.
+     *
+     * @return Payload
+     */
+    public Payload request() {
+        return DefaultPayload.create(requestData.duplicate(), requestMetadata.duplicate());
+    }
+
+    /**
+     * A new response payload without metadata.
+     *
+     * @return Payload
+     */
+    public Payload response() {
+        return DefaultPayload.create(responseData.duplicate());
+    }
+
+    /**
+     * Register the same metadata as {@code RSocketServerConfiguration#addMetadataExtractMimeTypeCustomizer}.
+     *
+     * @return RSocketStrategies
+     */
+    private static RSocketStrategies createStrategies() {
+        return RSocketStrategies.builder()
+                .encoders(encoders -> {
+                    encoders.add(CharSequenceEncoder.allMimeTypes());
+                    encoders.add(new Jackson2JsonEncoder());
+                })
+                .decoders(decoders -> {
+                    decoders.add(StringDecoder.allMimeTypes());
+                    decoders.add(new Jackson2JsonDecoder());
+                })
+                .metadataExtractorRegistry(register -> {
+                    register.metadataToExtract(SECURITY_TOKEN_MIME_TYPE, String.class, "securityToken");
+                    register.metadataToExtract(REFRESH_TOKEN_MIME_TYPE, String.class, "refreshToken");
+                    register.metadataToExtract(TRACE_ID_MIME_TYPE, String.class, TraceConstant.TRACE_ID);
+                    register.metadataToExtract(FOO_MIME_TYPE, Foo.class, "foo");
+                    register.metadataToExtract(PAGE_MIME_TYPE, PageRequest.class, "page");
+                    register.metadataToExtract(MAP_MIME_TYPE, new ParameterizedTypeReference<Map<String, Object>>() {
+                    }, "properties");
+                })
+                .build();
+    }
+
+    private static ByteBuf createCompositeMetadata(String route) {
+        ByteBufAllocator allocator = ByteBufAllocator.DEFAULT;
+        CompositeByteBuf metadata = allocator.compositeBuffer();
+        CompositeMetadataCodec.encodeAndAddMetadata(metadata, allocator, WellKnownMimeType.MESSAGE_RSOCKET_ROUTING,
+                TaggingMetadataCodec.createRoutingMetadata(allocator, Collections.singletonList(route)).getContent());
+        addMetadata(metadata, TRACE_ID_MIME_TYPE, TRACE_ID);
+        addMetadata(metadata, SECURITY_TOKEN_MIME_TYPE, "bearer token_001");
+        addMetadata(metadata, MAP_MIME_TYPE, PROPERTIES);
+        return metadata;
+    }
+
+    private static void addMetadata(CompositeByteBuf metadata, MimeType mimeType, String value) {
+        CompositeMetadataCodec.encodeAndAddMetadata(metadata, ByteBufAllocator.DEFAULT, mimeType.toString(),
+                Unpooled.copiedBuffer(value, CharsetUtil.UTF_8));
+    }
+
+    private static ByteBuffer toByteBuffer(ByteBuf byteBuf) {
+        try {
+            ByteBuffer byteBuffer = ByteBuffer.allocate(byteBuf.readableBytes());
+            byteBuf.readBytes(byteBuffer);
+            byteBuffer.flip();
+            return byteBuffer.asReadOnlyBuffer();
+        } finally {
+            byteBuf.release();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.shf.benchmarks.support;
+
+import com.shf.entity.User;
+import com.shf.storage.UserStorage;
+
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * description :
+ * The straightforward thread-safe {@link UserStorage}, boxed keys in a {@link ConcurrentHashMap}, as the baseline of `UserStorageBenchmark`.
+ * Not ordered, its iterators follow the order of the map, and {@link #iteratorAfter(int)} scans the map for the given user.
+ *
+ * @author songhaifeng
+ * @date 2026/10/18 22:20
+ */
+public class ConcurrentHashMapUserStorage implements UserStorage {
+    private final ConcurrentHashMap<Integer, User> users;
+
+    public ConcurrentHashMapUserStorage(int expectedSize) {
+        this.users = new ConcurrentHashMap<>(expectedSize);
+    }
+
+    @Override
+    public boolean putIfAbsent(User user) {
+        return null == users.putIfAbsent(user.getId(), user);
+    }
+
+    @Override
+    public User get(int id) {
+        return users.get(id);
+    }
+
+    @Override
+    public Iterator<User> iteratorAfter(int id) {
+        if (!users.containsKey(id)) {
+            throw new IllegalArgumentException("The user " + id + " is absent.");
+        }
+        Iterator<User> iterator = users.values().iterator();
+        while (iterator.hasNext()) {
+            if (iterator.next().getId() == id) {
+                break;
+            }
+        }
+        return iterator;
+    }
+
+    @Override
+    public int size() {
+        return users.size();
+    }
+
+    @Override
+    public Iterator<User> iterator() {
+        return users.values().iterator();
+    }
+}
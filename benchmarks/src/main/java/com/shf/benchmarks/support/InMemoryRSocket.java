@@ -0,0 +1,85 @@
+package com.shf.benchmarks.support;
+
+import io.rsocket.Payload;
+import io.rsocket.RSocket;
+import org.reactivestreams.Publisher;
+import org.springframework.messaging.rsocket.MetadataExtractor;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * description :
+ * A responder without any transport, so a benchmark only measures the interceptors wrapping it.
+ * With a {@link MetadataExtractor}, every request extracts the headers first, like `MessagingRSocket` does for `@Header`.
+ *
+ * @author songhaifeng
+ * @date 2026/10/18 10:20
+ */
+public class InMemoryRSocket implements RSocket {
+    private final Supplier<Payload> responseSupplier;
+    private final int streamSize;
+    private final MetadataExtractor metadataExtractor;
+
+    public InMemoryRSocket(Supplier<Payload> responseSupplier, int streamSize) {
+        this(responseSupplier, streamSize, null);
+    }
+
+    public InMemoryRSocket(Supplier<Payload> responseSupplier, int streamSize, MetadataExtractor metadataExtractor) {
+        this.responseSupplier = responseSupplier;
+        this.streamSize = streamSize;
+        this.metadataExtractor = metadataExtractor;
+    }
+
+    @Override
+    public Mono<Void> fireAndForget(Payload payload) {
+        extractHeaders(payload);
+        payload.release();
+        return Mono.empty();
+    }
+
+    @Override
+    public Mono<Payload> requestResponse(Payload payload) {
+        extractHeaders(payload);
+        payload.release();
+        return Mono.fromSupplier(responseSupplier);
+    }
+
+    @Override
+    public Flux<Payload> requestStream(Payload payload) {
+        extractHeaders(payload);
+        payload.release();
+        return Flux.range(0, streamSize).map(i -> responseSupplier.get());
+    }
+
+    /**
+     * Reply a response for every inbound payload.
+     *
+     * @param payloads payloads
+     * @return Flux
+     */
+    @Override
+    public Flux<Payload> requestChannel(Publisher<Payload> payloads) {
+        return Flux.from(payloads)
+                .map(payload -> {
+                    extractHeaders(payload);
+                    payload.release();
+                    return responseSupplier.get();
+                });
+    }
+
+    @Override
+    public Mono<Void> metadataPush(Payload payload) {
+        payload.release();
+        return Mono.empty();
+    }
+
+    private void extractHeaders(Payload payload) {
+        if (metadataExtractor != null) {
+            Map<String, Object> headers = metadataExtractor.extract(payload, BenchmarkPayloads.COMPOSITE_METADATA);
+            headers.putIfAbsent(MetadataExtractor.ROUTE_KEY, "");
+        }
+    }
+}
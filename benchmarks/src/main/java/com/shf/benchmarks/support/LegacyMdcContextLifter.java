@@ -0,0 +1,77 @@
+package com.shf.benchmarks.support;
+
+import com.shf.entity.context.MetadataContextHolder;
+import org.reactivestreams.Subscription;
+import org.slf4j.MDC;
+import reactor.core.CoreSubscriber;
+import reactor.util.context.Context;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * description :
+ * The previous {@link com.shf.reactive.mdc.MdcContextLifter}, kept as the baseline of `MdcPropagationBenchmark`:
+ * every `onNext` streams the whole context into a new map, then replaces the MDC.
+ *
+ * @author songhaifeng
+ * @date 2026/10/18 20:40
+ */
+public class LegacyMdcContextLifter<T> implements CoreSubscriber<T> {
+    private final CoreSubscriber<T> coreSubscriber;
+    private final Set<String> keysToCopy;
+
+    public LegacyMdcContextLifter(CoreSubscriber<T> coreSubscriber, Set<String> keysToCopy) {
+        this.coreSubscriber = coreSubscriber;
+        this.keysToCopy = keysToCopy;
+    }
+
+    @Override
+    public void onSubscribe(Subscription subscription) {
+        coreSubscriber.onSubscribe(subscription);
+    }
+
+    @Override
+    public void onNext(T t) {
+        copyToMdc(coreSubscriber.currentContext());
+        coreSubscriber.onNext(t);
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        coreSubscriber.onError(throwable);
+    }
+
+    @Override
+    public void onComplete() {
+        coreSubscriber.onComplete();
+    }
+
+    @Override
+    public Context currentContext() {
+        return coreSubscriber.currentContext();
+    }
+
+    private void copyToMdc(Context context) {
+        if (context.isEmpty()) {
+            MDC.clear();
+            return;
+        }
+        Map<String, String> map = context.stream()
+                .filter(entry -> keysToCopy.contains(entry.getKey().toString()) && null != entry.getValue())
+                .collect(Collectors.toMap(entry -> entry.getKey().toString(), entry -> entry.getValue().toString()));
+        if (map.size() < keysToCopy.size() && context.hasKey(MetadataContextHolder.METADATA_CONTEXT_KEY)) {
+            Map<String, Object> metadata = context.get(MetadataContextHolder.METADATA_CONTEXT_KEY);
+            keysToCopy.forEach(key -> {
+                Object value = metadata.get(key);
+                if (null != value) {
+                    map.put(key, value.toString());
+                }
+            });
+        }
+        if (!map.isEmpty()) {
+            MDC.setContextMap(map);
+        }
+    }
+}
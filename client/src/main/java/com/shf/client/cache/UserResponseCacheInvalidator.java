@@ -0,0 +1,58 @@
+package com.shf.client.cache;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shf.entity.UserRequest;
+import com.shf.rsocket.interceptor.cache.ResponseCache;
+import com.shf.rsocket.invalidation.InvalidationListener;
+import com.shf.rsocket.invalidation.InvalidationMessage;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+
+/**
+ * Description:
+ * Evict the cached `user` responses of rSocketRequester1 by the user invalidations of the server.
+ * The requests are tagged by the id of their {@link UserRequest} data when cached, so an invalidation of an id only
+ * evicts the responses of that id, without reading the cached requests.
+ *
+ * @author songhaifeng
+ * @date 2026/10/19 10:55
+ */
+@Slf4j
+public class UserResponseCacheInvalidator implements InvalidationListener {
+    public static final String ENTITY = "user";
+    private static final String ROUTE = "user";
+
+    private final ResponseCache responseCache;
+    private final ObjectMapper objectMapper;
+
+    public UserResponseCacheInvalidator(ResponseCache responseCache, ObjectMapper objectMapper) {
+        this.responseCache = responseCache;
+        this.objectMapper = objectMapper;
+        responseCache.tagBy(ROUTE, this::readId);
+    }
+
+    @Override
+    public void onInvalidation(InvalidationMessage message) {
+        if (!ENTITY.equals(message.getEntity())) {
+            return;
+        }
+        if (message.getType() == InvalidationMessage.Type.ALL) {
+            responseCache.invalidate(ROUTE);
+        } else {
+            responseCache.invalidate(ROUTE, message.getKey());
+        }
+    }
+
+    /**
+     * @return id of the request, or null if unreadable, evicted by any invalidation then
+     */
+    private Long readId(byte[] data) {
+        try {
+            return (long) objectMapper.readValue(data, UserRequest.class).getId();
+        } catch (IOException e) {
+            log.warn("Unreadable user request: {}", e.getMessage());
+            return null;
+        }
+    }
+}
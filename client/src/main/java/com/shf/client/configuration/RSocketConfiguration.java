@@ -1,29 +1,51 @@
 package com.shf.client.configuration;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shf.client.cache.UserResponseCacheInvalidator;
 import com.shf.client.responder.annotation.RSocketClientResponder2;
 import com.shf.client.responder.controller.Requester1ResponderController;
+import com.shf.entity.PageRequest;
+import com.shf.entity.User;
+import com.shf.entity.UserRequest;
+import com.shf.reactive.batch.BatchLoader;
 import com.shf.rsocket.entity.RSocketRole;
 import com.shf.rsocket.interceptor.PayloadExtractFunction;
+import com.shf.rsocket.interceptor.cache.ResponseCache;
+import com.shf.rsocket.interceptor.cache.ResponseCacheInterceptor;
 import com.shf.rsocket.interceptor.context.DefaultResponderContextInterceptor;
 import com.shf.rsocket.interceptor.log.DefaultConnectionSetUpLogInterceptor;
 import com.shf.rsocket.interceptor.log.DefaultRequesterLogInterceptor;
 import com.shf.rsocket.interceptor.log.DefaultResponderLogInterceptor;
-import com.shf.rsocket.lease.LeaseReceiver;
-import com.shf.rsocket.lease.LeaseSender;
-import com.shf.rsocket.lease.NoopStats;
+import com.shf.rsocket.interceptor.metadata.DefaultMetadataPushReceiveInterceptor;
+import com.shf.rsocket.interceptor.metadata.MetadataCacheInterceptor;
+import com.shf.rsocket.interceptor.metadata.MetadataPushReceiveInterceptor;
+import com.shf.rsocket.interceptor.metrics.MetricsRSocketInterceptor;
+import com.shf.rsocket.interceptor.metrics.RSocketMeters;
+import com.shf.rsocket.invalidation.InvalidationListener;
+import com.shf.rsocket.invalidation.InvalidationReceiveHandler;
+import com.shf.rsocket.lease.AdaptiveLeases;
+import com.shf.rsocket.lease.AimdLimit;
 import com.shf.rsocket.lease.ServerRoleEnum;
+import com.shf.rsocket.loadbalance.RSocketPool;
 import com.shf.rsocket.spring.PayloadHandler;
+import com.shf.rsocket.spring.metadata.MetadataCacheStrategiesPostProcessor;
+import com.shf.rsocket.transport.NettyTransport;
+import com.shf.rsocket.transport.NettyTransports;
+import com.shf.rsocket.transport.TransportRSocketServerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
 import io.rsocket.core.Resume;
 import io.rsocket.frame.decoder.PayloadDecoder;
-import io.rsocket.lease.Leases;
 import io.rsocket.metadata.WellKnownMimeType;
-import io.rsocket.transport.netty.client.TcpClientTransport;
+import io.rsocket.transport.ClientTransport;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.autoconfigure.rsocket.RSocketMessagingAutoConfiguration;
+import org.springframework.boot.autoconfigure.rsocket.RSocketProperties;
 import org.springframework.boot.rsocket.messaging.RSocketStrategiesCustomizer;
 import org.springframework.boot.rsocket.server.RSocketServerCustomizer;
 import org.springframework.context.annotation.Bean;
@@ -32,6 +54,7 @@ import org.springframework.context.annotation.Primary;
 import org.springframework.context.annotation.Scope;
 import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.client.reactive.ReactorResourceFactory;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.rsocket.RSocketRequester;
 import org.springframework.messaging.rsocket.RSocketStrategies;
@@ -44,16 +67,17 @@ import org.springframework.web.util.pattern.PathPatternRouteMatcher;
 import reactor.util.annotation.NonNull;
 import reactor.util.retry.Retry;
 
-import java.net.InetSocketAddress;
 import java.time.Duration;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
 import static com.shf.rsocket.interceptor.OrderRSocketInterceptor.DEFAULT_INTERCEPTOR_SORT;
 import static com.shf.rsocket.mimetype.MimeTypes.MAP_MIME_TYPE;
+import static com.shf.rsocket.mimetype.MimeTypes.PAGE_MIME_TYPE;
 import static com.shf.rsocket.mimetype.MimeTypes.REFRESH_TOKEN_MIME_TYPE;
 import static com.shf.rsocket.mimetype.MimeTypes.SECURITY_TOKEN_MIME_TYPE;
 import static com.shf.rsocket.mimetype.MimeTypes.TRACE_ID_MIME_TYPE;
@@ -76,6 +100,7 @@ public class RSocketConfiguration {
             new MetadataToExtractRef(SECURITY_TOKEN_MIME_TYPE, String.class, null, "securityToken"),
             new MetadataToExtractRef(REFRESH_TOKEN_MIME_TYPE, String.class, null, "refreshToken"),
             new MetadataToExtractRef(TRACE_ID_MIME_TYPE, String.class, null, "traceId"),
+            new MetadataToExtractRef(PAGE_MIME_TYPE, PageRequest.class, null, "page"),
             new MetadataToExtractRef(MAP_MIME_TYPE, null, new ParameterizedTypeReference<Map<String, Object>>() {
             }, "properties")
     );
@@ -85,6 +110,51 @@ public class RSocketConfiguration {
         @Value("${spring.application.name}")
         private String appName;
 
+        /**
+         * Decode the metadata of a request only once, shared by the interceptors and the `@Header` resolution.
+         * Works with {@link MetadataCacheInterceptor}, used by both the client-responders and the server.
+         *
+         * @return MetadataCacheStrategiesPostProcessor
+         */
+        @Bean
+        public static MetadataCacheStrategiesPostProcessor metadataCacheStrategiesPostProcessor() {
+            return new MetadataCacheStrategiesPostProcessor();
+        }
+
+        /**
+         * The transport of the requesters to the rsocket server, `rsocket.requester.transport` to `rsocket.requester.endpoint`:
+         * `host:port`, or the socket file of a unix domain socket, see {@link NettyTransport}. Each connect opens a new connection.
+         *
+         * @return ClientTransport
+         */
+        @Bean
+        public ClientTransport serverTransport(@Value("${rsocket.requester.transport:AUTO}") NettyTransport transport,
+                                               @Value("${rsocket.requester.endpoint:127.0.0.1:7000}") String endpoint) {
+            return NettyTransports.client(transport, endpoint);
+        }
+
+        /**
+         * Record the requests sent by all the requesters, see more by the `metrics` actuator endpoint.
+         *
+         * @param meterRegistry meterRegistry
+         * @return MetricsRSocketInterceptor
+         */
+        @Bean
+        public MetricsRSocketInterceptor requesterMetricsInterceptor(MeterRegistry meterRegistry) {
+            return new MetricsRSocketInterceptor(meterRegistry, RSocketMeters.Side.REQUESTER);
+        }
+
+        /**
+         * Record the requests received by the client-responders and the server.
+         *
+         * @param meterRegistry meterRegistry
+         * @return MetricsRSocketInterceptor
+         */
+        @Bean
+        public MetricsRSocketInterceptor responderMetricsInterceptor(MeterRegistry meterRegistry) {
+            return new MetricsRSocketInterceptor(meterRegistry, RSocketMeters.Side.RESPONDER);
+        }
+
         /**
          * Add resume ability for RSocketRequester. Here we can customize any thing here for our business.
          * The RSocketRequester.Builder instance is a prototype bean, meaning each injection point will provide you with a new instance .
@@ -123,7 +193,9 @@ public class RSocketConfiguration {
          */
         @Bean
         @Scope("prototype")
-        public RSocketRequester.Builder rSocketRequesterBuilder(RSocketStrategies strategies) {
+        public RSocketRequester.Builder rSocketRequesterBuilder(RSocketStrategies strategies,
+                                                                @Qualifier("requesterMetricsInterceptor") MetricsRSocketInterceptor requesterMetricsInterceptor,
+                                                                @Qualifier("responderMetricsInterceptor") MetricsRSocketInterceptor responderMetricsInterceptor) {
             PayloadExtractFunction payloadExtractFunction = PayloadHandler.payloadExtractFunction(strategies.metadataExtractor());
             return RSocketRequester.builder()
                     // default value is also WellKnownMimeType.MESSAGE_RSOCKET_COMPOSITE_METADATA, setting in DefaultRSocketRequesterBuilder
@@ -142,6 +214,8 @@ public class RSocketConfiguration {
                                             )
                                     )
                                     // As a client-responder
+                                    .interceptors(interceptorRegistry -> interceptorRegistry.forResponder(new MetadataCacheInterceptor()))
+                                    .interceptors(interceptorRegistry -> interceptorRegistry.forResponder(responderMetricsInterceptor))
                                     .interceptors(interceptorRegistry ->
                                             interceptorRegistry.forResponder(new DefaultResponderLogInterceptor(appName, payloadExtractFunction)))
                                     .interceptors(interceptorRegistry ->
@@ -151,8 +225,12 @@ public class RSocketConfiguration {
                                         list.sort(DEFAULT_INTERCEPTOR_SORT);
                                     }))
                                     // As a client-requester
+                                    .interceptors(interceptorRegistry -> interceptorRegistry.forRequester(requesterMetricsInterceptor))
                                     .interceptors(interceptorRegistry ->
                                             interceptorRegistry.forRequester(new DefaultRequesterLogInterceptor(appName, payloadExtractFunction)))
+                                    .interceptors(interceptorRegistry -> interceptorRegistry.forRequester(list -> {
+                                        list.sort(DEFAULT_INTERCEPTOR_SORT);
+                                    }))
                                     // As a client-side
                                     .interceptors(interceptorRegistry ->
                                             interceptorRegistry.forSocketAcceptor(new DefaultConnectionSetUpLogInterceptor(appName, RSocketRole.RSOCKET_CONNECTOR,
@@ -198,33 +276,120 @@ public class RSocketConfiguration {
      */
     @Configuration
     static class Requester1Configuration {
+        /**
+         * Cache the responses of the idempotent routes of rSocketRequester1, opt-in by `rsocket.response-cache.enabled`.
+         *
+         * @param routes     the cacheable routes
+         * @param ttl        expire an entry after written
+         * @param maxEntries max number of the cached responses
+         * @return ResponseCache
+         */
+        @Bean
+        @ConditionalOnProperty(name = "rsocket.response-cache.enabled", havingValue = "true")
+        public ResponseCache responseCache(@Value("${rsocket.response-cache.routes:user}") String[] routes,
+                                           @Value("${rsocket.response-cache.ttl:10s}") Duration ttl,
+                                           @Value("${rsocket.response-cache.max-entries:10000}") long maxEntries,
+                                           MeterRegistry meterRegistry) {
+            return new ResponseCache(Arrays.asList(routes), ttl, maxEntries, meterRegistry, "rsocket.response");
+        }
+
+        @Bean
+        @ConditionalOnProperty(name = "rsocket.response-cache.enabled", havingValue = "true")
+        public UserResponseCacheInvalidator userResponseCacheInvalidator(ResponseCache responseCache, ObjectMapper objectMapper) {
+            return new UserResponseCacheInvalidator(responseCache, objectMapper);
+        }
+
         /**
          * Create a {@link RSocketRequester} for interacting with the RSocket server.
          * It will return a DefaultRSocketRequesterBuilder object by the method {@code DefaultRSocketRequesterBuilder#doConnect}.
+         * With a {@link ResponseCache}, the cached responses are returned by the requester.
+         * The invalidations pushed by the server are passed to all the {@link InvalidationListener}s.
+         * <p>
+         * The requests are spread over a pool of `rsocket.requester1.pool-size` connections(the number of cores by default),
+         * served by different event loops. All the connections share the same setup payload, so the server keeps pushing
+         * the invalidations to one of them, the response cache is shared by the pool.
          *
-         * @param builder RSocketRequester.Builder
-         * @return DefaultRSocketRequester
+         * @param builder    RSocketRequester.Builder
+         * @param endpoint   name of the pool
+         * @param poolSize   number of connections to the server
+         * @param minBackoff first delay before reconnecting a connection
+         * @param maxBackoff max delay before reconnecting a connection
+         * @return RSocketPool
          */
-        @Bean("rSocketRequester1")
-        public RSocketRequester rSocketRequester1(RSocketRequester.Builder builder,
-                                                  RSocketStrategies rSocketStrategies,
-                                                  Requester1ResponderController requester1ResponderController) {
-            return builder
+        @Bean(destroyMethod = "dispose")
+        public RSocketPool rSocketPool1(RSocketRequester.Builder builder,
+                                        RSocketStrategies rSocketStrategies,
+                                        Requester1ResponderController requester1ResponderController,
+                                        ObjectProvider<ResponseCache> responseCache,
+                                        ObjectProvider<InvalidationListener> invalidationListeners,
+                                        ClientTransport serverTransport,
+                                        @Value("${rsocket.requester.endpoint:127.0.0.1:7000}") String endpoint,
+                                        @Value("${rsocket.requester1.pool-size:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}") int poolSize,
+                                        @Value("${rsocket.requester1.reconnect.min-backoff:1s}") Duration minBackoff,
+                                        @Value("${rsocket.requester1.reconnect.max-backoff:30s}") Duration maxBackoff) {
+            RSocketRequester.Builder configuredBuilder = builder
                     // requester and responder come in pairs. When any requester needs to responded, it need to config the specific handlers.
                     // Here suggest to create a new {@Code RSocketMessageHandler} instance. The default {@code RSocketMessageHandler} instance used as a server not a responder.
                     .rsocketConnector(rSocketConnector ->
                             rSocketConnector.acceptor(RSocketMessageHandler.responder(rSocketStrategies, requester1ResponderController))
                     )
+                    .rsocketConnector(rSocketConnector -> responseCache.ifAvailable(cache ->
+                            rSocketConnector
+                                    .interceptors(interceptorRegistry -> interceptorRegistry.forRequester(new ResponseCacheInterceptor(cache)))
+                                    .interceptors(interceptorRegistry -> interceptorRegistry.forRequester(list -> {
+                                        list.sort(DEFAULT_INTERCEPTOR_SORT);
+                                    }))
+                    ))
+                    .rsocketConnector(rSocketConnector ->
+                            rSocketConnector
+                                    .interceptors(interceptorRegistry -> interceptorRegistry.forResponder(new MetadataPushReceiveInterceptor(
+                                            new InvalidationReceiveHandler(invalidationListeners.orderedStream().collect(Collectors.toList()),
+                                                    DefaultMetadataPushReceiveInterceptor.DEFAULT_METADATA_PUSH_RECEIVE_HANDLER))))
+                                    .interceptors(interceptorRegistry -> interceptorRegistry.forResponder(list -> {
+                                        list.sort(DEFAULT_INTERCEPTOR_SORT);
+                                    }))
+                    )
                     // Link {@Code DefaultRSocketRequesterBuilder#getSetupPayload} and {@Code RSocketFactory.ClientRSocketFactory.StartClient#start}.
                     // Setting payload(@Payload) for @ConnectMapping
                     .setupData("Client-123")
                     // Setting header(metadata) for @ConnectMapping
-                    .setupMetadata(Arrays.asList("connect-metadata-values", "connect-metadata-values2"), MimeTypeUtils.APPLICATION_JSON)
-                    .connect(TcpClientTransport.create(new InetSocketAddress("127.0.0.1", 7000)))
-                    .retry(5)
-                    .cache()
-                    .doOnError(exception -> log.error("Connect error : {}", exception.getMessage()))
-                    .block();
+                    .setupMetadata(Arrays.asList("connect-metadata-values", "connect-metadata-values2"), MimeTypeUtils.APPLICATION_JSON);
+            return RSocketPool.create(endpoint, poolSize,
+                    () -> configuredBuilder.connect(serverTransport)
+                            .doOnError(exception -> log.error("Connect error : {}", exception.getMessage()))
+                            .map(RSocketRequester::rsocket),
+                    minBackoff, maxBackoff);
+        }
+
+        /**
+         * The requester over {@link #rSocketPool1}, waits until a connection is ready.
+         *
+         * @param rSocketPool1 rSocketPool1
+         * @return RSocketRequester
+         */
+        @Bean("rSocketRequester1")
+        public RSocketRequester rSocketRequester1(RSocketPool rSocketPool1, RSocketStrategies rSocketStrategies,
+                                                  @Value("${rsocket.requester1.connect-timeout:30s}") Duration connectTimeout) {
+            rSocketPool1.connected().block(connectTimeout);
+            return RSocketRequester.wrap(rSocketPool1, MimeTypeUtils.APPLICATION_JSON,
+                    MimeTypeUtils.parseMimeType(WellKnownMimeType.MESSAGE_RSOCKET_COMPOSITE_METADATA.getString()), rSocketStrategies);
+        }
+
+        /**
+         * Collect the concurrent single-id lookups within `user.batch.window` into one `users` request of rSocketRequester1.
+         *
+         * @param rSocketRequester1 rSocketRequester1
+         * @return BatchLoader
+         */
+        @Bean
+        public BatchLoader<Integer, User> userBatchLoader(@Qualifier("rSocketRequester1") RSocketRequester rSocketRequester1,
+                                                          @Value("${user.batch.window:2ms}") Duration window,
+                                                          @Value("${user.batch.max-size:100}") int maxSize) {
+            return new BatchLoader<>(ids -> rSocketRequester1
+                    .route("users")
+                    .metadata("TRACE_ID_BATCH", TRACE_ID_MIME_TYPE)
+                    .data(ids.stream().map(UserRequest::new).collect(Collectors.toList()))
+                    .retrieveFlux(User.class), User::getId, window, maxSize);
         }
     }
 
@@ -250,7 +415,8 @@ public class RSocketConfiguration {
          * @return RSocketRequester
          */
         @Bean("rSocketRequester2")
-        public RSocketRequester rSocketRequester2(RSocketRequester.Builder builder, @Qualifier("handler4Requester2") RSocketMessageHandler rSocketMessageHandler) {
+        public RSocketRequester rSocketRequester2(RSocketRequester.Builder builder, @Qualifier("handler4Requester2") RSocketMessageHandler rSocketMessageHandler,
+                                                  ClientTransport serverTransport) {
             return builder
                     .rsocketConnector(rSocketConnector ->
                             rSocketConnector.acceptor(rSocketMessageHandler.responder())
@@ -261,7 +427,7 @@ public class RSocketConfiguration {
                     // Mapping @ConnectMapping's route in server side.
                     // route could be a route template, then expand routeVars into the template.
                     .setupRoute("specific.route.{id}.{id}", "1", "2")
-                    .connect(TcpClientTransport.create(new InetSocketAddress("127.0.0.1", 7000)))
+                    .connect(serverTransport)
                     .block();
         }
 
@@ -277,11 +443,11 @@ public class RSocketConfiguration {
          * @return RSocketRequester
          */
         @Bean("rSocketRequester3")
-        public RSocketRequester rSocketRequester3(RSocketRequester.Builder builder) {
+        public RSocketRequester rSocketRequester3(RSocketRequester.Builder builder, ClientTransport serverTransport) {
             return builder
                     .setupData("Client999")
                     .setupMetadata(Collections.singleton("another-metadata-values"), MimeTypeUtils.APPLICATION_JSON)
-                    .connect(TcpClientTransport.create(new InetSocketAddress("127.0.0.1", 7000)))
+                    .connect(serverTransport)
                     .block();
         }
     }
@@ -308,24 +474,66 @@ public class RSocketConfiguration {
             return handler;
         }
 
+        /**
+         * The leases issued to the clients, sized by an AIMD concurrency limit of the server and shared by the client ids of the setup payloads.
+         *
+         * @return AdaptiveLeases
+         */
+        @Bean(destroyMethod = "close")
+        public AdaptiveLeases adaptiveLeases(@Value("${rsocket.lease.window:1s}") Duration window,
+                                             @Value("${rsocket.lease.initial-limit:20}") int initialLimit,
+                                             @Value("${rsocket.lease.min-limit:1}") int minLimit,
+                                             @Value("${rsocket.lease.max-limit:1000}") int maxLimit,
+                                             @Value("${rsocket.lease.backoff-ratio:0.9}") double backoffRatio,
+                                             @Value("${rsocket.lease.latency-tolerance:2.0}") double latencyTolerance,
+                                             @Value("#{${rsocket.lease.client-weights:{:}}}") Map<String, Integer> clientWeights,
+                                             MeterRegistry meterRegistry) {
+            AimdLimit limit = AimdLimit.builder()
+                    .initialLimit(initialLimit)
+                    .minLimit(minLimit)
+                    .maxLimit(maxLimit)
+                    .increase(1)
+                    .backoffRatio(backoffRatio)
+                    .latencyTolerance(latencyTolerance)
+                    .baselineDrift(0.01)
+                    .build();
+            return new AdaptiveLeases(ServerRoleEnum.SERVER, limit, window, clientWeights, meterRegistry);
+        }
+
+        /**
+         * Bind the rsocket server on `spring.rsocket.server.netty-transport`, TCP or a unix domain socket for the co-located clients,
+         * see {@link NettyTransport}. Replaces the server factory of spring boot, with the same `spring.rsocket.server.*` settings.
+         *
+         * @return TransportRSocketServerFactory
+         */
+        @Bean
+        TransportRSocketServerFactory transportRSocketServerFactory(RSocketProperties properties,
+                                                                    ObjectProvider<ReactorResourceFactory> resourceFactory,
+                                                                    ObjectProvider<RSocketServerCustomizer> customizers,
+                                                                    @Value("${spring.rsocket.server.netty-transport:AUTO}") NettyTransport nettyTransport,
+                                                                    @Value("${spring.rsocket.server.domain-socket:}") String domainSocket) {
+            return TransportRSocketServerFactory.of(properties, nettyTransport, domainSocket, resourceFactory.getIfAvailable(),
+                    customizers.orderedStream().collect(Collectors.toList()));
+        }
+
         /**
          * A ServerRSocketFactoryCustomizer to add the emission (and retrieval) of leases to (and from) clients.
          * Leases can be used to limit the number of accepted clients on server side. This will keep the server responsive for
          * more, distinct clients, and keeps it from being overwhelmed with requests.
          * <p>
+         * The leases are sized by {@link AdaptiveLeases} every `rsocket.lease.window`, from the latency and the in-flight requests
+         * measured on each connection, rather than a fixed number of requests.
+         * <p>
          * since  boot2.2.7 or rSocket1.0.0, ServerRSocketFactoryProcessor is Deprecated.instead to use {@link RSocketServerCustomizer}
          *
+         * @param adaptiveLeases adaptiveLeases
          * @return RSocketServerCustomizer
          */
         @Bean
-        RSocketServerCustomizer leaseCustomizer() {
-            return rSocketServer -> rSocketServer.lease(() ->
-                    Leases.<NoopStats>create()
-                            // receive the lease
-                            .receiver(new LeaseReceiver(ServerRoleEnum.SERVER))
-                            // issue 5 leases to each client, the timeToLiveMillis is 7s. Suggest the ttl bigger then the lease renew frequency .
-                            .sender(new LeaseSender(ServerRoleEnum.SERVER, 7_000, 5))
-            );
+        RSocketServerCustomizer leaseCustomizer(AdaptiveLeases adaptiveLeases) {
+            return rSocketServer -> rSocketServer.lease(adaptiveLeases::newLeases)
+                    // measure the requests of each connection for its leases
+                    .interceptors(interceptorRegistry -> interceptorRegistry.forSocketAcceptor(adaptiveLeases.statsInterceptor()));
         }
 
         /**
@@ -334,10 +542,13 @@ public class RSocketConfiguration {
          * @return RSocketServerCustomizer
          */
         @Bean
-        RSocketServerCustomizer rSocketServerCustomizer(@Value("${spring.application.name}") String appName, RSocketStrategies strategies) {
+        RSocketServerCustomizer rSocketServerCustomizer(@Value("${spring.application.name}") String appName, RSocketStrategies strategies,
+                                                        @Qualifier("responderMetricsInterceptor") MetricsRSocketInterceptor responderMetricsInterceptor) {
             PayloadExtractFunction payloadExtractFunction = PayloadHandler.payloadExtractFunction(strategies.metadataExtractor());
             return (rSocketServer) ->
                     rSocketServer.payloadDecoder(PayloadDecoder.ZERO_COPY)
+                            .interceptors(interceptorRegistry -> interceptorRegistry.forResponder(new MetadataCacheInterceptor()))
+                            .interceptors(interceptorRegistry -> interceptorRegistry.forResponder(responderMetricsInterceptor))
                             .interceptors(interceptorRegistry ->
                                     interceptorRegistry.forResponder(new DefaultResponderLogInterceptor(appName, payloadExtractFunction)))
                             .interceptors(interceptorRegistry ->
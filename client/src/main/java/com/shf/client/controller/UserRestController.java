@@ -3,8 +3,12 @@ package com.shf.client.controller;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.shf.entity.Foo;
+import com.shf.entity.PageRequest;
 import com.shf.entity.User;
+import com.shf.entity.UserChunk;
+import com.shf.entity.UserQuery;
 import com.shf.entity.UserRequest;
+import com.shf.reactive.batch.BatchLoader;
 import io.netty.buffer.ByteBufUtil;
 import io.netty.buffer.Unpooled;
 import io.rsocket.util.ByteBufPayload;
@@ -18,16 +22,19 @@ import org.springframework.messaging.rsocket.RSocketRequester;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.time.Duration;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import static com.shf.rsocket.mimetype.MimeTypes.FOO_MIME_TYPE;
 import static com.shf.rsocket.mimetype.MimeTypes.MAP_MIME_TYPE;
+import static com.shf.rsocket.mimetype.MimeTypes.PAGE_MIME_TYPE;
 import static com.shf.rsocket.mimetype.MimeTypes.PARAMETERIZED_TYPE_MIME_TYPE;
 import static com.shf.rsocket.mimetype.MimeTypes.REFRESH_TOKEN_MIME_TYPE;
 import static com.shf.rsocket.mimetype.MimeTypes.SECURITY_TOKEN_MIME_TYPE;
@@ -51,13 +58,17 @@ public class UserRestController {
 
     private final ObjectMapper objectMapper;
 
+    private final BatchLoader<Integer, User> userBatchLoader;
+
     @Autowired
     public UserRestController(@Qualifier("rSocketRequester1") RSocketRequester rSocketRequester1,
                               @Qualifier("rSocketRequester2") RSocketRequester rSocketRequester2,
-                              ObjectMapper objectMapper) {
+                              ObjectMapper objectMapper,
+                              BatchLoader<Integer, User> userBatchLoader) {
         this.rSocketRequester1 = rSocketRequester1;
         this.rSocketRequester2 = rSocketRequester2;
         this.objectMapper = objectMapper;
+        this.userBatchLoader = userBatchLoader;
     }
 
     /***********************************request/response ******************************/
@@ -111,10 +122,69 @@ public class UserRestController {
      * @return
      */
     @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
-    public Publisher<User> list() {
+    public Publisher<User> list(@RequestParam(required = false) Integer after,
+                                @RequestParam(defaultValue = "0") int limit) {
         return rSocketRequester1
                 .route("list")
                 .metadata("TRACE_ID_SAMPLE", TRACE_ID_MIME_TYPE)
+                .metadata(PageRequest.builder().after(after).limit(limit).build(), PAGE_MIME_TYPE)
+                .retrieveFlux(User.class);
+    }
+
+    /**
+     * A batch of users per payload, resume from the `cursor` of the last chunk with `after`.
+     *
+     * @return UserChunk
+     */
+    @GetMapping(value = "chunk", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Publisher<UserChunk> listChunk(@RequestParam(required = false) Integer after,
+                                          @RequestParam(defaultValue = "0") int limit,
+                                          @RequestParam(defaultValue = "0") int chunkSize) {
+        return rSocketRequester1
+                .route("list.chunk")
+                .metadata("TRACE_ID_SAMPLE", TRACE_ID_MIME_TYPE)
+                .metadata(PageRequest.builder().after(after).limit(limit).chunkSize(chunkSize).build(), PAGE_MIME_TYPE)
+                .retrieveFlux(UserChunk.class);
+    }
+
+    /**
+     * Load the users one by one like independent callers, the {@link BatchLoader} sends them in one `users` request.
+     *
+     * @param ids ids
+     * @return the users found
+     */
+    @GetMapping(value = "batch", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Publisher<User> batch(@RequestParam List<Integer> ids) {
+        return Flux.fromIterable(ids).flatMapSequential(userBatchLoader::load);
+    }
+
+    /**
+     * Find the users by the name index of the server.
+     *
+     * @param name name
+     * @return User
+     */
+    @GetMapping(value = "by/name/{name}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Publisher<User> userByName(@PathVariable("name") String name) {
+        return rSocketRequester1
+                .route("user.by.name")
+                .metadata("TRACE_ID_SAMPLE", TRACE_ID_MIME_TYPE)
+                .data(UserQuery.builder().name(name).build())
+                .retrieveFlux(User.class);
+    }
+
+    /**
+     * Scan the age index of the server, sorted by age.
+     *
+     * @return User
+     */
+    @GetMapping(value = "by/age", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Publisher<User> userByAgeRange(@RequestParam(required = false) Integer min,
+                                          @RequestParam(required = false) Integer max) {
+        return rSocketRequester1
+                .route("user.by.age.range")
+                .metadata("TRACE_ID_SAMPLE", TRACE_ID_MIME_TYPE)
+                .data(UserQuery.builder().minAge(min).maxAge(max).build())
                 .retrieveFlux(User.class);
     }
 
@@ -1,7 +1,6 @@
 package com.shf.client.server.log.converter;
 
 import com.shf.rsocket.interceptor.log.entity.RequestLogInfo;
-import io.netty.buffer.ByteBufUtil;
 import io.netty.util.CharsetUtil;
 import io.rsocket.Payload;
 import io.rsocket.metadata.WellKnownMimeType;
@@ -48,7 +47,8 @@ public class DefaultPayloadExchangeLogInfoConverter implements PayloadExchangeLo
         RequestLogInfo.RequestLogInfoBuilder builder = RequestLogInfo.builder();
         Payload payload = exchange.getPayload();
 
-        builder.data(new String(ByteBufUtil.getBytes(payload.data().slice()), CharsetUtil.UTF_8));
+        // decode from the buffer directly, without an intermediate byte array
+        builder.data(payload.sliceData().toString(CharsetUtil.UTF_8));
         if (payload.hasMetadata()) {
             Map<String, Object> metadata = metadataExtractor.extract(payload, metadataMimetype);
             builder.metadata(metadata);
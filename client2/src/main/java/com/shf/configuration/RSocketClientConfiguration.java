@@ -8,12 +8,18 @@ import com.shf.rsocket.lease.LeaseReceiver;
 import com.shf.rsocket.lease.LeaseSender;
 import com.shf.rsocket.lease.NoopStats;
 import com.shf.rsocket.lease.ServerRoleEnum;
+import com.shf.rsocket.loadbalance.LoadBalancedRSocket;
+import com.shf.rsocket.loadbalance.LoadBalancedTarget;
 import com.shf.rsocket.spring.PayloadHandler;
+import com.shf.rsocket.transport.NettyTransport;
+import com.shf.rsocket.transport.NettyTransports;
 import io.rsocket.frame.decoder.PayloadDecoder;
+import io.rsocket.lease.Lease;
 import io.rsocket.lease.Leases;
 import io.rsocket.metadata.WellKnownMimeType;
-import io.rsocket.transport.netty.client.TcpClientTransport;
+import io.rsocket.transport.ClientTransport;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.rsocket.messaging.RSocketStrategiesCustomizer;
 import org.springframework.context.annotation.Bean;
@@ -22,10 +28,15 @@ import org.springframework.messaging.rsocket.RSocketRequester;
 import org.springframework.messaging.rsocket.RSocketStrategies;
 import org.springframework.security.rsocket.metadata.SimpleAuthenticationEncoder;
 import org.springframework.security.rsocket.metadata.UsernamePasswordMetadata;
+import org.springframework.util.MimeType;
 import org.springframework.util.MimeTypeUtils;
+import reactor.core.publisher.Mono;
 
-import java.net.InetSocketAddress;
+import java.time.Duration;
 import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 /**
  * Description:
@@ -33,6 +44,7 @@ import java.util.Arrays;
  * - Integrated with spring-security for authentication and authorization.
  * - Enable lease： Client side check itself whether has valid leases.
  * If has no, it will invoke exception inside and never send the request to the server side.
+ * - Balance the requests over several servers by their leases and latency.
  *
  * @author songhaifeng
  * @date 2019/11/18 11:26
@@ -40,17 +52,58 @@ import java.util.Arrays;
 @Configuration
 @Slf4j
 public class RSocketClientConfiguration {
+    private static final MimeType COMPOSITE_METADATA = MimeTypeUtils.parseMimeType(WellKnownMimeType.MESSAGE_RSOCKET_COMPOSITE_METADATA.getString());
+
+    /**
+     * Balance the requests over the connections to all the `rsocket.client.endpoints`, see {@link LoadBalancedRSocket}.
+     * Each connection is created by its own requester builder, so it reports the leases of its server to its target.
+     *
+     * @param builders     RSocketRequester.Builder, a new one per target
+     * @param transport    transport to the servers, see {@link NettyTransport}
+     * @param endpoints    host:port of the servers, or their socket files with {@link NettyTransport#UDS}
+     * @param latencyDecay how fast the past latency of a server is forgotten
+     * @param minBackoff   first delay before reconnecting to a server
+     * @param maxBackoff   max delay before reconnecting to a server
+     * @return LoadBalancedRSocket
+     */
+    @Bean(destroyMethod = "dispose")
+    public LoadBalancedRSocket loadBalancedRSocket(ObjectProvider<RSocketRequester.Builder> builders, RSocketStrategies rSocketStrategies,
+                                                   @Value("${spring.application.name}") String appName,
+                                                   @Value("${rsocket.client.transport:AUTO}") NettyTransport transport,
+                                                   @Value("${rsocket.client.endpoints:127.0.0.1:8081}") String[] endpoints,
+                                                   @Value("${rsocket.client.latency-decay:10s}") Duration latencyDecay,
+                                                   @Value("${rsocket.client.reconnect.min-backoff:1s}") Duration minBackoff,
+                                                   @Value("${rsocket.client.reconnect.max-backoff:30s}") Duration maxBackoff) {
+        final PayloadExtractFunction payloadExtractFunction = PayloadHandler.payloadExtractFunction(rSocketStrategies.metadataExtractor());
+        List<LoadBalancedTarget> targets = Arrays.stream(endpoints)
+                .map(String::trim)
+                .map(endpoint -> new LoadBalancedTarget(endpoint, onLease -> {
+                    RSocketRequester.Builder builder = configure(builders.getObject(), appName, payloadExtractFunction, onLease);
+                    ClientTransport clientTransport = NettyTransports.client(transport, endpoint);
+                    return Mono.defer(() -> builder.connect(clientTransport)).map(RSocketRequester::rsocket);
+                }, latencyDecay, minBackoff, maxBackoff))
+                .collect(Collectors.toList());
+        return new LoadBalancedRSocket(targets);
+    }
 
     @Bean
-    public RSocketRequester rSocketRequester(RSocketRequester.Builder builder, RSocketStrategies rSocketStrategies, @Value("${spring.application.name}") String appName) {
+    public RSocketRequester rSocketRequester(LoadBalancedRSocket loadBalancedRSocket, RSocketStrategies rSocketStrategies,
+                                             @Value("${rsocket.client.connect-timeout:30s}") Duration connectTimeout) {
+        loadBalancedRSocket.connected().block(connectTimeout);
+        return RSocketRequester.wrap(loadBalancedRSocket, MimeTypeUtils.APPLICATION_JSON, COMPOSITE_METADATA, rSocketStrategies);
+    }
+
+    private static RSocketRequester.Builder configure(RSocketRequester.Builder builder, String appName,
+                                                      PayloadExtractFunction payloadExtractFunction, Consumer<Lease> onLease) {
         // Test `setup().hasRole("SETUP")` which is configured on the server side.
         final UsernamePasswordMetadata credentials = new UsernamePasswordMetadata("setup", "654321");
-        final PayloadExtractFunction payloadExtractFunction = PayloadHandler.payloadExtractFunction(rSocketStrategies.metadataExtractor());
         return builder
+                .dataMimeType(MimeTypeUtils.APPLICATION_JSON)
+                .metadataMimeType(COMPOSITE_METADATA)
                 .rsocketConnector(rSocketConnector ->
                         rSocketConnector.lease(() ->
                                 Leases.<NoopStats>create()
-                                        .receiver(new LeaseReceiver(ServerRoleEnum.CLIENT))
+                                        .receiver(new LeaseReceiver(ServerRoleEnum.CLIENT, onLease))
                                         .sender(new LeaseSender(ServerRoleEnum.CLIENT, 3_000, 5)))
                                 .payloadDecoder(PayloadDecoder.ZERO_COPY)
                                 .interceptors(interceptorRegistry ->
@@ -62,9 +115,7 @@ public class RSocketClientConfiguration {
                 // could send multiple metadata in a setup frame.
                 .setupMetadata(Arrays.asList("connect-metadata-value", "connect-metadata-value2"), MimeTypeUtils.APPLICATION_JSON)
                 // Authentication metadata
-                .setupMetadata(credentials, MimeTypeUtils.parseMimeType(WellKnownMimeType.MESSAGE_RSOCKET_AUTHENTICATION.getString()))
-                .connect(TcpClientTransport.create(new InetSocketAddress("127.0.0.1", 8081)))
-                .block();
+                .setupMetadata(credentials, MimeTypeUtils.parseMimeType(WellKnownMimeType.MESSAGE_RSOCKET_AUTHENTICATION.getString()));
     }
 
     /**
@@ -0,0 +1,32 @@
+package com.shf.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Description:
+ * Cursor and limit of a listing, sent as metadata with {@link com.shf.rsocket.mimetype.MimeTypes#PAGE_MIME_TYPE}.
+ *
+ * @author songhaifeng
+ * @date 2026/10/19 0:40
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PageRequest {
+    /**
+     * Resume after the user of this id, from the first user if null.
+     */
+    private Integer after;
+    /**
+     * Max users, unlimited if not positive.
+     */
+    private int limit;
+    /**
+     * Users per chunk of `list.chunk`, the server default if not positive.
+     */
+    private int chunkSize;
+}
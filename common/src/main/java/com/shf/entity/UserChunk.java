@@ -0,0 +1,27 @@
+package com.shf.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Description:
+ * A batch of users in one payload of `list.chunk`.
+ *
+ * @author songhaifeng
+ * @date 2026/10/19 0:40
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserChunk {
+    private List<User> users;
+    /**
+     * Id of the last user, the {@link PageRequest#getAfter()} to resume from.
+     */
+    private Integer cursor;
+}
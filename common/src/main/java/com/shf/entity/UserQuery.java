@@ -0,0 +1,29 @@
+package com.shf.entity;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Description:
+ * Conditions of `user.by.name` and `user.by.age.range`.
+ *
+ * @author songhaifeng
+ * @date 2026/10/19 1:30
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserQuery {
+    private String name;
+    /**
+     * Inclusive, no lower bound if null.
+     */
+    private Integer minAge;
+    /**
+     * Inclusive, no upper bound if null.
+     */
+    private Integer maxAge;
+}
@@ -8,7 +8,6 @@ import reactor.util.context.Context;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * description :
@@ -49,21 +48,21 @@ public class MetadataContextHolder {
      * @return {@link Map}
      */
     public static Map<String, String> readFromContext(Context context, Set<String> keysToCopy) {
-        if (CollectionUtils.isEmpty(keysToCopy)) {
+        if (CollectionUtils.isEmpty(keysToCopy) || context.isEmpty()) {
             return new HashMap<>(1);
         }
-        Map<String, String> map = context.stream()
-                .filter(entry -> keysToCopy.contains(entry.getKey().toString()) && null != entry.getValue())
-                .collect(Collectors.toMap(entry -> entry.getKey().toString(),
-                        entry -> entry.getValue().toString()));
-        // Read from metadata if there are still some keys not found.
-        if (map.size() < keysToCopy.size() && context.hasKey(MetadataContextHolder.METADATA_CONTEXT_KEY)) {
-            Map<String, Object> metadata = context.get(MetadataContextHolder.METADATA_CONTEXT_KEY);
-            metadata.forEach((key, value) -> {
-                if (keysToCopy.contains(key) && null != value) {
-                    map.put(key, value.toString());
-                }
-            });
+        Map<String, String> map = new HashMap<>(keysToCopy.size() << 1);
+        // look up the keys directly rather than walking through the whole context.
+        Map<String, Object> metadata = context.getOrDefault(METADATA_CONTEXT_KEY, null);
+        for (String key : keysToCopy) {
+            Object value = context.getOrDefault(key, null);
+            // Read from metadata if the key is not in the context, a lazy metadata map only decodes the entry of this key.
+            if (null == value && null != metadata) {
+                value = metadata.get(key);
+            }
+            if (null != value) {
+                map.put(key, value.toString());
+            }
         }
         return map;
     }
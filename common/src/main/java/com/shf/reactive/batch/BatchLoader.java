@@ -0,0 +1,127 @@
+package com.shf.reactive.batch;
+
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * description :
+ * Collect the concurrent {@link #load(Object)}s within a window into one call of the batch function, like a `DataLoader`.
+ * A batch is dispatched `window` after its first key, or as soon as it has `maxBatchSize` distinct keys.
+ * The values of the batch are matched to the keys by the key function, a key without value completes empty,
+ * and an error of the batch fails all its loads. The same key in a batch is requested once.
+ *
+ * @author songhaifeng
+ * @date 2026/10/19 2:00
+ */
+@Slf4j
+public class BatchLoader<K, V> {
+    private final Function<List<K>, Flux<V>> batchFunction;
+    private final Function<V, K> keyFunction;
+    private final long windowNanos;
+    private final int maxBatchSize;
+    private final Scheduler scheduler;
+    private Batch current;
+
+    /**
+     * @param batchFunction load the values of the keys, in any order
+     * @param keyFunction   key of a value
+     * @param window        max time a load waits for the other loads
+     * @param maxBatchSize  max distinct keys of a batch
+     */
+    public BatchLoader(Function<List<K>, Flux<V>> batchFunction, Function<V, K> keyFunction, Duration window, int maxBatchSize) {
+        this(batchFunction, keyFunction, window, maxBatchSize, Schedulers.parallel());
+    }
+
+    public BatchLoader(Function<List<K>, Flux<V>> batchFunction, Function<V, K> keyFunction, Duration window, int maxBatchSize,
+                       Scheduler scheduler) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize must be positive.");
+        }
+        this.batchFunction = batchFunction;
+        this.keyFunction = keyFunction;
+        this.windowNanos = window.toNanos();
+        this.maxBatchSize = maxBatchSize;
+        this.scheduler = scheduler;
+    }
+
+    /**
+     * @param key key
+     * @return the value, or empty if the batch has no value of the key
+     */
+    public Mono<V> load(K key) {
+        return Mono.create(sink -> add(key, sink));
+    }
+
+    private void add(K key, MonoSink<V> sink) {
+        Batch full = null;
+        synchronized (this) {
+            if (null == current) {
+                Batch batch = new Batch();
+                current = batch;
+                batch.timer = scheduler.schedule(() -> onWindowEnd(batch), windowNanos, TimeUnit.NANOSECONDS);
+            }
+            current.add(key, sink);
+            if (current.loads.size() >= maxBatchSize) {
+                full = current;
+                current = null;
+            }
+        }
+        if (null != full) {
+            full.timer.dispose();
+            full.dispatch();
+        }
+    }
+
+    private void onWindowEnd(Batch batch) {
+        synchronized (this) {
+            if (current != batch) {
+                // dispatched when full
+                return;
+            }
+            current = null;
+        }
+        batch.dispatch();
+    }
+
+    private final class Batch {
+        private final Map<K, List<MonoSink<V>>> loads = new LinkedHashMap<>();
+        private Disposable timer;
+
+        private void add(K key, MonoSink<V> sink) {
+            loads.computeIfAbsent(key, k -> new ArrayList<>(1)).add(sink);
+        }
+
+        /**
+         * Called once the batch is closed, the signals of the batch function are serial.
+         */
+        private void dispatch() {
+            Flux.defer(() -> batchFunction.apply(new ArrayList<>(loads.keySet())))
+                    .subscribe(value -> {
+                        List<MonoSink<V>> sinks = loads.remove(keyFunction.apply(value));
+                        if (null != sinks) {
+                            sinks.forEach(sink -> sink.success(value));
+                        }
+                    }, error -> {
+                        log.debug("The batch of {} keys failed.", loads.size(), error);
+                        loads.values().forEach(sinks -> sinks.forEach(sink -> sink.error(error)));
+                        loads.clear();
+                    }, () -> {
+                        loads.values().forEach(sinks -> sinks.forEach(MonoSink::success));
+                        loads.clear();
+                    });
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.shf.reactive.coalesce;
+
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * description :
+ * Coalesce the concurrent calls of the same key into one in-flight call, like `singleflight` of Go.
+ * The first caller of a key subscribes to the loader, the callers arriving before it terminates share its result(value,
+ * empty or error). The key is forgotten once the call terminates, so the next caller loads again: this is not a cache.
+ * The in-flight call is not cancelled when its callers cancel.
+ *
+ * @author songhaifeng
+ * @date 2026/10/19 2:30
+ */
+public class SingleFlight<K, V> {
+    private final ConcurrentHashMap<K, Flight> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    /**
+     * @param key    key
+     * @param loader load the value of the key, called by the first caller only
+     * @return the shared result
+     */
+    public Mono<V> execute(K key, Supplier<Mono<V>> loader) {
+        return Mono.defer(() -> {
+            Flight flight = new Flight(key, loader);
+            Flight existing = inFlight.putIfAbsent(key, flight);
+            if (null != existing) {
+                coalesced.increment();
+                return existing.result;
+            }
+            executed.increment();
+            return flight.result;
+        });
+    }
+
+    /**
+     * @return number of the calls which subscribed to the loader
+     */
+    public long getExecutedCount() {
+        return executed.sum();
+    }
+
+    /**
+     * @return number of the calls which shared an in-flight call
+     */
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+    private final class Flight {
+        private final Mono<V> result;
+
+        private Flight(K key, Supplier<Mono<V>> loader) {
+            this.result = Mono.defer(loader)
+                    .doFinally(signal -> inFlight.remove(key, this))
+                    .cache();
+        }
+    }
+}
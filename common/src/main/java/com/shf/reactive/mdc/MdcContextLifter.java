@@ -1,9 +1,7 @@
 package com.shf.reactive.mdc;
 
 import com.shf.entity.context.MetadataContextHolder;
-import org.apache.commons.collections4.MapUtils;
 import org.reactivestreams.Subscription;
-import org.slf4j.MDC;
 import reactor.core.CoreSubscriber;
 import reactor.util.context.Context;
 
@@ -12,6 +10,9 @@ import java.util.Set;
 
 /**
  * description :
+ * Restore the MDC from the {@link Context} before each `onNext`.
+ * The context of a subscriber doesn't change, so the MDC values are resolved once per subscription,
+ * and the MDC is only written when the values of the thread differ, see {@link MdcReactiveUtils#restore(Map, Set)}.
  *
  * @author songhaifeng
  * @date 2020/6/3 18:54
@@ -19,6 +20,11 @@ import java.util.Set;
 public class MdcContextLifter<T> implements CoreSubscriber<T> {
     private final CoreSubscriber<T> coreSubscriber;
     private final Set<String> keysToCopy;
+    /**
+     * Resolved on the first `onNext`, signals are serialized so no need to be volatile.
+     */
+    private Map<String, String> mdc;
+    private boolean emptyContext;
 
     public MdcContextLifter(CoreSubscriber<T> coreSubscriber, Set<String> keysToCopy) {
         this.coreSubscriber = coreSubscriber;
@@ -32,7 +38,7 @@ public class MdcContextLifter<T> implements CoreSubscriber<T> {
 
     @Override
     public void onNext(T t) {
-        copyToMdc(coreSubscriber.currentContext());
+        copyToMdc();
         coreSubscriber.onNext(t);
     }
 
@@ -51,14 +57,15 @@ public class MdcContextLifter<T> implements CoreSubscriber<T> {
         return coreSubscriber.currentContext();
     }
 
-    private void copyToMdc(Context context) {
-        if (!context.isEmpty()) {
-            Map<String, String> map = MetadataContextHolder.readFromContext(context, keysToCopy);
-            if (MapUtils.isNotEmpty(map)) {
-                MDC.setContextMap(map);
-            }
-        } else {
-            MDC.clear();
+    private void copyToMdc() {
+        if (null == mdc) {
+            Context context = coreSubscriber.currentContext();
+            emptyContext = context.isEmpty();
+            mdc = MetadataContextHolder.readFromContext(context, keysToCopy);
+        }
+        // a context without these keys(like the inner ones of the transport) keeps the MDC of the thread as it is.
+        if (emptyContext || !mdc.isEmpty()) {
+            MdcReactiveUtils.restore(mdc, keysToCopy);
         }
     }
 }
@@ -8,6 +8,7 @@ import java.util.Set;
 
 /**
  * description :
+ * Lift every operator by {@link MdcContextLifter}, the {@link MdcPropagationMode#HOOK} mode.
  * <p>
  * refer to : https://www.novatec-gmbh.de/en/blog/how-can-the-mdc-context-be-used-in-the-reactive-spring-applications/
  *
@@ -0,0 +1,26 @@
+package com.shf.reactive.mdc;
+
+/**
+ * description :
+ * How the MDC is propagated from the reactor {@link reactor.util.context.Context}, set by {@link #PROPERTY}.
+ *
+ * @author songhaifeng
+ * @date 2026/10/18 20:20
+ */
+public enum MdcPropagationMode {
+    /**
+     * {@link MdcContextLifterHook} lifts every operator in the JVM, so any log line has the MDC.
+     * Costs a lookup per `onNext` of every operator.
+     * <p>
+     * The hook bean of each application is {@code @Lazy(false)}: no bean depends on it, yet it must be installed at startup,
+     * before the first operator is assembled, even with {@code spring.main.lazy-initialization}.
+     */
+    HOOK,
+    /**
+     * No global hook, the MDC is only restored where the logs are written: the interceptors(like {@link com.shf.rsocket.interceptor.log.PayloadLogRSocket})
+     * and the statements wrapped by {@link MdcReactiveUtils}, eg: {@code doOnEach(MdcReactiveUtils.mdcOnNext(user -> log.info(...)))}.
+     */
+    BOUNDARY;
+
+    public static final String PROPERTY = "mdc.propagation-mode";
+}
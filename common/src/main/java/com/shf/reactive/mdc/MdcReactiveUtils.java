@@ -2,53 +2,139 @@ package com.shf.reactive.mdc;
 
 import com.shf.entity.context.MetadataContextHolder;
 import com.shf.rsocket.interceptor.trace.TraceConstant;
-import org.apache.commons.collections4.MapUtils;
 import org.slf4j.MDC;
 import reactor.core.publisher.Signal;
 import reactor.util.context.Context;
 
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.function.Consumer;
 
 /**
  * description :
+ * Run the log statements with the MDC restored from the {@link Context}, the MDC of the thread is restored afterwards.
+ * The statements are run even if there is no traceId in the context.
  *
  * @author songhaifeng
  * @date 2020/6/5 0:43
  */
 public class MdcReactiveUtils {
+    private static final Set<String> KEYS = Collections.singleton(TraceConstant.TRACE_ID);
 
+    /**
+     * Run the statement for the complete and error events.
+     */
     public static <T> Consumer<Signal<T>> mdcOnEach(Consumer<Signal<T>> mdcStatement) {
+        ResolvedMdc resolved = new ResolvedMdc();
         return signal -> {
             // except the complete and error events
             if (signal.isOnComplete() || signal.isOnError()) {
-                Map<String, String> map = MetadataContextHolder.readFromContext(signal.getContext(), Collections.singleton(TraceConstant.TRACE_ID));
-                if (MapUtils.isNotEmpty(map)) {
-                    MDC.setContextMap(map);
-                    mdcStatement.accept(signal);
-                    MDC.clear();
-                }
+                withMdc(resolved.of(signal.getContext()), () -> mdcStatement.accept(signal));
             }
         };
     }
 
+    /**
+     * Run the statement for the next events, eg: {@code doOnEach(MdcReactiveUtils.mdcOnNext(user -> log.info(...)))}.
+     */
+    public static <T> Consumer<Signal<T>> mdcOnNext(Consumer<T> mdcStatement) {
+        ResolvedMdc resolved = new ResolvedMdc();
+        return signal -> {
+            if (signal.isOnNext()) {
+                withMdc(resolved.of(signal.getContext()), () -> mdcStatement.accept(signal.get()));
+            }
+        };
+    }
+
+    /**
+     * @return a runnable for `doOnComplete`, which runs the statement on complete
+     */
     public static Runnable mdcOnComplete(Runnable mdcStatement, Context context) {
-        Map<String, String> map = MetadataContextHolder.readFromContext(context, Collections.singleton(TraceConstant.TRACE_ID));
-        if (MapUtils.isNotEmpty(map)) {
-            MDC.setContextMap(map);
-            mdcStatement.run();
-            MDC.clear();
-        }
-        return mdcStatement;
+        return () -> withMdc(context, mdcStatement);
     }
 
     public static void mdcOnError(Consumer<? super Throwable> onError, Throwable throwable, Context context) {
-        Map<String, String> map = MetadataContextHolder.readFromContext(context, Collections.singleton(TraceConstant.TRACE_ID));
-        if (MapUtils.isNotEmpty(map)) {
-            MDC.setContextMap(map);
-            onError.accept(throwable);
-            MDC.clear();
+        withMdc(context, () -> onError.accept(throwable));
+    }
+
+    /**
+     * Run the statement with the MDC of the context.
+     *
+     * @param context   context
+     * @param statement statement
+     */
+    public static void withMdc(Context context, Runnable statement) {
+        withMdc(MetadataContextHolder.readFromContext(context, KEYS), statement);
+    }
+
+    private static void withMdc(Map<String, String> mdc, Runnable statement) {
+        Map<String, String> previous = restore(mdc, KEYS);
+        try {
+            statement.run();
+        } finally {
+            if (null != previous) {
+                restore(previous, KEYS);
+            }
+        }
+    }
+
+    /**
+     * Set the values of the keys into the MDC, or remove the keys absent in the map.
+     * The MDC is not written if the values are the same, which is the common case on the same thread.
+     *
+     * @param mdc  values
+     * @param keys keys
+     * @return the previous values if the MDC was changed, otherwise null
+     */
+    static Map<String, String> restore(Map<String, String> mdc, Set<String> keys) {
+        Map<String, String> previous = null;
+        for (String key : keys) {
+            String value = mdc.get(key);
+            String current = MDC.get(key);
+            if (Objects.equals(value, current)) {
+                continue;
+            }
+            if (null == previous) {
+                previous = new HashMap<>(keys.size() << 1);
+            }
+            if (null != current) {
+                previous.put(key, current);
+            }
+            if (null == value) {
+                MDC.remove(key);
+            } else {
+                MDC.put(key, value);
+            }
+        }
+        return previous;
+    }
+
+    /**
+     * The MDC values of the last context, the context of a subscriber doesn't change so it's resolved once per subscription.
+     */
+    private static class ResolvedMdc {
+        private volatile Resolved last;
+
+        Map<String, String> of(Context context) {
+            Resolved resolved = last;
+            if (null == resolved || resolved.context != context) {
+                resolved = new Resolved(context, MetadataContextHolder.readFromContext(context, KEYS));
+                last = resolved;
+            }
+            return resolved.mdc;
+        }
+    }
+
+    private static class Resolved {
+        private final Context context;
+        private final Map<String, String> mdc;
+
+        Resolved(Context context, Map<String, String> mdc) {
+            this.context = context;
+            this.mdc = mdc;
         }
     }
 }
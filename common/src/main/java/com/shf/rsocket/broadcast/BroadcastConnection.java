@@ -0,0 +1,171 @@
+package com.shf.rsocket.broadcast;
+
+import com.shf.concurrent.MpscRingBuffer;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.util.ReferenceCountUtil;
+import io.rsocket.RSocket;
+import io.rsocket.util.ByteBufPayload;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * description :
+ * A connected client of {@link BroadcastService}. The messages are queued by the broadcasting threads,
+ * and pushed by the drain of its {@link BroadcastShard}, the only consumer of the queue.
+ * <p>
+ * With a {@link PushWindow}, at most `maxInFlight` pushes are left to the transport, the drain stops there and resumes
+ * once the transport takes more frames. So the messages of a client which doesn't read stay in the bounded queue here,
+ * the connection is slow once a message doesn't fit the queue, and recovers when the queue is drained.
+ *
+ * @author songhaifeng
+ * @date 2026/10/19 11:40
+ */
+@Slf4j
+public final class BroadcastConnection {
+    private final String clientId;
+    private final RSocket rSocket;
+    private final MpscRingBuffer<ByteBuf> queue;
+    private final BroadcastShard shard;
+    private final BroadcastService service;
+    private final Consumer<Throwable> onPushError;
+    /**
+     * null if the frames written are unknown, then the pushes are unbounded.
+     */
+    private final PushWindow window;
+    private final int maxInFlight;
+    private final Runnable onWritten;
+
+    private final LongAdder dropped = new LongAdder();
+    private final AtomicBoolean slow = new AtomicBoolean();
+    private volatile boolean closed;
+
+    BroadcastConnection(String clientId, RSocket rSocket, int queueCapacity, int maxInFlight, BroadcastShard shard,
+                        BroadcastService service) {
+        this.clientId = clientId;
+        this.rSocket = rSocket;
+        this.queue = new MpscRingBuffer<>(queueCapacity);
+        this.shard = shard;
+        this.service = service;
+        this.onPushError = error -> log.warn("Push to client {} failed: {}", clientId, error.getMessage());
+        this.window = PushFlowControl.windowOf(rSocket);
+        this.maxInFlight = maxInFlight;
+        this.onWritten = shard::signal;
+    }
+
+    public String getClientId() {
+        return clientId;
+    }
+
+    public int getQueued() {
+        return queue.size();
+    }
+
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    public boolean isSlow() {
+        return slow.get();
+    }
+
+    /**
+     * @return the pushes not written by the transport yet, or -1 if unknown
+     */
+    public long getInFlight() {
+        return null == window ? -1 : window.outstanding();
+    }
+
+    BroadcastShard getShard() {
+        return shard;
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Queue a message, owned by the connection from now on, released by the shard if the connection is closed.
+     * The caller signals the shard afterwards.
+     *
+     * @param metadata   message
+     * @param dropPolicy applied if the queue is full
+     */
+    void offer(ByteBuf metadata, DropPolicy dropPolicy) {
+        if (closed) {
+            drop(metadata);
+            return;
+        }
+        if (queue.offer(metadata)) {
+            if (closed) {
+                // closed meanwhile, the shard may have removed the connection after its last drain: add it back so the
+                // drain signaled by the caller releases the message, the shard stays the only consumer of the queue
+                shard.add(this);
+            }
+        } else {
+            drop(metadata);
+            if (slow.compareAndSet(false, true)) {
+                service.onSlow(this);
+                log.warn("Client {} is a slow consumer, {} messages queued, drop policy: {}", clientId, queue.capacity(), dropPolicy);
+            }
+            if (dropPolicy == DropPolicy.DISCONNECT) {
+                rSocket.dispose();
+            }
+        }
+    }
+
+    /**
+     * The queued messages are released by the next drain.
+     */
+    void close() {
+        closed = true;
+        shard.signal();
+    }
+
+    /**
+     * Push the queued messages, called by the drain of the shard only.
+     */
+    void drain() {
+        ByteBuf metadata;
+        while (closed || !isWindowFull()) {
+            if (null == (metadata = queue.poll())) {
+                break;
+            }
+            if (closed) {
+                drop(metadata);
+            } else {
+                push(metadata);
+            }
+        }
+        if (queue.isEmpty() && slow.compareAndSet(true, false)) {
+            service.onRecovered(this);
+        }
+    }
+
+    private boolean isWindowFull() {
+        if (null == window || window.outstanding() < maxInFlight) {
+            return false;
+        }
+        window.await(onWritten);
+        // a frame written meanwhile may have missed the listener
+        return window.outstanding() >= maxInFlight;
+    }
+
+    private void push(ByteBuf metadata) {
+        if (null != window) {
+            window.onPushed();
+        }
+        rSocket.metadataPush(ByteBufPayload.create(Unpooled.EMPTY_BUFFER, metadata))
+                .subscribe(null, onPushError);
+        service.onSent();
+    }
+
+    private void drop(ByteBuf metadata) {
+        ReferenceCountUtil.safeRelease(metadata);
+        dropped.increment();
+        service.onDropped();
+    }
+}
@@ -0,0 +1,225 @@
+package com.shf.rsocket.broadcast;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.buffer.ByteBuf;
+import io.rsocket.RSocket;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.Closeable;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * description :
+ * The registry of the connected clients, and the fan-out of the server-initiated metadata_push to them.
+ * <p>
+ * A message is encoded once by the caller, every connection queues a retained duplicate of the same {@link ByteBuf},
+ * so a broadcast costs no encoding and no copy per connection. The broadcasting thread only queues,
+ * the connections are spread over `parallelism` shards which push in parallel, a broadcast wakes each shard once.
+ * A connection leaves at most `maxInFlight` pushes to RSocket, which queues the frames of a connection unbounded,
+ * the next ones wait in its queue of `queueCapacity` messages, see {@link DropPolicy} for what happens beyond.
+ * This bound needs the interceptors of {@link PushFlowControl}, without them the queue here never fills.
+ * <p>
+ * A client may open several connections with the same client id, like a pool, a message is pushed to one of them only:
+ * the last one registered, then the last one registered of those still open once it is closed.
+ *
+ * @author songhaifeng
+ * @date 2026/10/19 11:55
+ */
+@Slf4j
+public class BroadcastService implements Closeable {
+    /**
+     * The connection which the messages of a client are pushed to.
+     */
+    private final Map<String, BroadcastConnection> connections = new ConcurrentHashMap<>();
+    /**
+     * All the open connections of a client, the last registered first, only accessed while computing the client.
+     */
+    private final Map<String, Deque<BroadcastConnection>> clients = new ConcurrentHashMap<>();
+    private final int queueCapacity;
+    private final int maxInFlight;
+    private final DropPolicy dropPolicy;
+    private final Scheduler scheduler;
+    private final BroadcastShard[] shards;
+    private final AtomicInteger nextShard = new AtomicInteger();
+
+    private final LongAdder broadcasts = new LongAdder();
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final AtomicInteger slowConnections = new AtomicInteger();
+
+    /**
+     * @param queueCapacity messages queued per connection
+     * @param maxInFlight   pushes per connection not written by the transport yet, see {@link PushFlowControl}
+     * @param dropPolicy    what to do when the queue of a connection is full
+     * @param parallelism   number of the shards pushing in parallel
+     * @param registry      registry of the meters
+     */
+    public BroadcastService(int queueCapacity, int maxInFlight, @NonNull DropPolicy dropPolicy, int parallelism, @NonNull MeterRegistry registry) {
+        if (maxInFlight < 1) {
+            throw new IllegalArgumentException("maxInFlight must be positive.");
+        }
+        this.queueCapacity = queueCapacity;
+        this.maxInFlight = maxInFlight;
+        this.dropPolicy = dropPolicy;
+        this.scheduler = Schedulers.newParallel("rsocket-broadcast", parallelism, true);
+        this.shards = new BroadcastShard[parallelism];
+        for (int i = 0; i < parallelism; i++) {
+            shards[i] = new BroadcastShard(i, scheduler.createWorker());
+        }
+        FunctionCounter.builder("rsocket.broadcast.messages", broadcasts, LongAdder::sum)
+                .description("Messages broadcast to the connected clients")
+                .register(registry);
+        FunctionCounter.builder("rsocket.broadcast.deliveries", sent, LongAdder::sum)
+                .description("Messages delivered to a connection")
+                .tag("result", "sent")
+                .register(registry);
+        FunctionCounter.builder("rsocket.broadcast.deliveries", dropped, LongAdder::sum)
+                .description("Messages delivered to a connection")
+                .tag("result", "dropped")
+                .register(registry);
+        Gauge.builder("rsocket.broadcast.connections", connections, Map::size)
+                .register(registry);
+        Gauge.builder("rsocket.broadcast.slow.connections", slowConnections, AtomicInteger::get)
+                .register(registry);
+    }
+
+    /**
+     * Register a connection of a client, it is unregistered once closed.
+     * The messages of the client are pushed to this connection from now on, and to another open one of the client once it is closed.
+     *
+     * @param clientId clientId
+     * @param rSocket  the requester of the connection, as received by the acceptor
+     * @return BroadcastConnection
+     */
+    public BroadcastConnection register(@NonNull String clientId, @NonNull RSocket rSocket) {
+        BroadcastShard shard = shards[Math.floorMod(nextShard.getAndIncrement(), shards.length)];
+        BroadcastConnection connection = new BroadcastConnection(clientId, rSocket, queueCapacity, maxInFlight, shard, this);
+        shard.add(connection);
+        clients.compute(clientId, (id, members) -> {
+            Deque<BroadcastConnection> open = null == members ? new ArrayDeque<>() : members;
+            open.addFirst(connection);
+            connections.put(id, connection);
+            return open;
+        });
+        rSocket.onClose()
+                .doFinally(signal -> unregister(connection))
+                .subscribe(null, error -> log.debug("Connection of client {} closed with error: {}", clientId, error.getMessage()));
+        return connection;
+    }
+
+    private void unregister(BroadcastConnection connection) {
+        clients.computeIfPresent(connection.getClientId(), (id, members) -> {
+            members.remove(connection);
+            BroadcastConnection next = members.peekFirst();
+            if (null == next) {
+                connections.remove(id, connection);
+            } else if (connections.replace(id, connection, next)) {
+                log.info("Connection of client {} closed, push to another of its {} open connections", id, members.size());
+            }
+            return members.isEmpty() ? null : members;
+        });
+        // already closed with the service
+        if (!connection.isClosed()) {
+            connection.close();
+        }
+    }
+
+    /**
+     * Push a message to all the connected clients.
+     *
+     * @param metadata the encoded message, released by the service
+     * @return number of the connections which the message is queued to
+     */
+    public int broadcast(@NonNull ByteBuf metadata) {
+        return broadcast(metadata, clientId -> true);
+    }
+
+    /**
+     * Push a message to the connected clients which match the filter.
+     *
+     * @param metadata the encoded message, released by the service
+     * @param clients  filter by the client id
+     * @return number of the connections which the message is queued to
+     */
+    public int broadcast(@NonNull ByteBuf metadata, @NonNull Predicate<String> clients) {
+        broadcasts.increment();
+        int count = 0;
+        boolean[] signals = new boolean[shards.length];
+        try {
+            for (BroadcastConnection connection : connections.values()) {
+                if (clients.test(connection.getClientId())) {
+                    // a plain duplicate, the pooled retainedDuplicate() would be recycled across the threads
+                    connection.offer(metadata.retain().duplicate(), dropPolicy);
+                    signals[connection.getShard().getIndex()] = true;
+                    count++;
+                }
+            }
+        } finally {
+            metadata.release();
+        }
+        for (int i = 0; i < shards.length; i++) {
+            if (signals[i]) {
+                shards[i].signal();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * @return the connection of each client which the messages are pushed to
+     */
+    public Collection<BroadcastConnection> getConnections() {
+        return Collections.unmodifiableCollection(connections.values());
+    }
+
+    public int getConnectionCount() {
+        return connections.size();
+    }
+
+    public int getSlowConnectionCount() {
+        return slowConnections.get();
+    }
+
+    void onSent() {
+        sent.increment();
+    }
+
+    void onDropped() {
+        dropped.increment();
+    }
+
+    void onSlow(BroadcastConnection connection) {
+        slowConnections.incrementAndGet();
+    }
+
+    void onRecovered(BroadcastConnection connection) {
+        slowConnections.decrementAndGet();
+        log.info("Client {} recovered, {} messages dropped in total", connection.getClientId(), connection.getDroppedCount());
+    }
+
+    @Override
+    public void close() {
+        clients.keySet().forEach(clientId -> clients.computeIfPresent(clientId, (id, members) -> {
+            members.forEach(BroadcastConnection::close);
+            connections.remove(id);
+            return null;
+        }));
+        for (BroadcastShard shard : shards) {
+            shard.dispose();
+        }
+        scheduler.dispose();
+    }
+}
@@ -0,0 +1,66 @@
+package com.shf.rsocket.broadcast;
+
+import reactor.core.scheduler.Scheduler;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * description :
+ * A part of the connections of {@link BroadcastService}, drained by one task at a time on its own worker.
+ * A broadcast schedules a drain per shard rather than per connection, the drain visits all the connections of the shard.
+ * A closed connection leaves the shard once its queue is released.
+ *
+ * @author songhaifeng
+ * @date 2026/10/19 13:10
+ */
+final class BroadcastShard {
+    private final Set<BroadcastConnection> connections = ConcurrentHashMap.newKeySet();
+    private final int index;
+    private final Scheduler.Worker worker;
+    private final AtomicInteger wip = new AtomicInteger();
+
+    BroadcastShard(int index, Scheduler.Worker worker) {
+        this.index = index;
+        this.worker = worker;
+    }
+
+    int getIndex() {
+        return index;
+    }
+
+    void add(BroadcastConnection connection) {
+        connections.add(connection);
+    }
+
+    void signal() {
+        if (wip.getAndIncrement() == 0) {
+            try {
+                worker.schedule(this::drain);
+            } catch (RejectedExecutionException e) {
+                // disposed with the service, a connection closed meanwhile has nothing to push anymore
+            }
+        }
+    }
+
+    private void drain() {
+        int missed = 1;
+        do {
+            for (BroadcastConnection connection : connections) {
+                connection.drain();
+                if (connection.isClosed()) {
+                    connections.remove(connection);
+                    // release what a broadcast in progress queued meanwhile
+                    connection.drain();
+                }
+            }
+            missed = wip.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    void dispose() {
+        worker.dispose();
+    }
+}
@@ -0,0 +1,19 @@
+package com.shf.rsocket.broadcast;
+
+/**
+ * description :
+ * What {@link BroadcastService} does with a message when the queue of a connection is full.
+ *
+ * @author songhaifeng
+ * @date 2026/10/19 11:30
+ */
+public enum DropPolicy {
+    /**
+     * Drop the new message, the queued ones are still sent.
+     */
+    DROP_NEWEST,
+    /**
+     * Close the connection, the client misses no message silently.
+     */
+    DISCONNECT
+}
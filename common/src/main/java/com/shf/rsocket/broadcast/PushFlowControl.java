@@ -0,0 +1,172 @@
+package com.shf.rsocket.broadcast;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufUtil;
+import io.rsocket.DuplexConnection;
+import io.rsocket.RSocket;
+import io.rsocket.frame.FrameHeaderCodec;
+import io.rsocket.frame.FrameType;
+import io.rsocket.frame.ResumeFrameCodec;
+import io.rsocket.frame.SetupFrameCodec;
+import io.rsocket.plugins.DuplexConnectionInterceptor;
+import io.rsocket.plugins.SocketAcceptorInterceptor;
+import io.rsocket.util.RSocketProxy;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * description :
+ * Let {@link BroadcastService} see how many of its metadata_push frames a connection hasn't written yet.
+ * <p>
+ * {@link RSocket#metadataPush} completes as soon as the frame is queued, and RSocket queues the frames of a connection
+ * unbounded, so neither tells a slow consumer. The transport takes the frames from that queue as it writes them, and
+ * stops while the channel isn't writable, so the frames taken are counted on the transport connection, and the pushes
+ * beyond `maxInFlight` wait in the bounded queue of the {@link BroadcastConnection}.
+ * <p>
+ * Register both {@link #connectionInterceptor()} by {@link io.rsocket.plugins.InterceptorRegistry#forConnection} and
+ * {@link #socketAcceptorInterceptor()}, last, by {@link io.rsocket.plugins.InterceptorRegistry#forSocketAcceptor}:
+ * the server reads the setup frame and calls its acceptor in the same call on the same thread, so the interceptor picks
+ * the counter of the connection from a thread local, and hands the sending socket over wrapped with it.
+ * A resumed session keeps its counter, found by the resume token. Without these interceptors, the pushes are not bounded.
+ *
+ * @author songhaifeng
+ * @date 2026/10/19 23:20
+ */
+@Slf4j
+public class PushFlowControl {
+    private static final ThreadLocal<PushWindow> SETUP_WINDOW = new ThreadLocal<>();
+
+    /**
+     * The windows of the resumable sessions by resume token, for the connection resuming a session.
+     */
+    private final Map<String, PushWindow> sessions = new ConcurrentHashMap<>();
+
+    /**
+     * @return count the frames written to the transport connections
+     */
+    public DuplexConnectionInterceptor connectionInterceptor() {
+        return (type, connection) -> type == DuplexConnectionInterceptor.Type.SOURCE ? new CountingConnection(connection) : connection;
+    }
+
+    /**
+     * @return hand the counter of a connection over to its sending socket
+     */
+    public SocketAcceptorInterceptor socketAcceptorInterceptor() {
+        return socketAcceptor -> (setupPayload, sendingSocket) -> {
+            PushWindow window = SETUP_WINDOW.get();
+            SETUP_WINDOW.remove();
+            if (null == window) {
+                return socketAcceptor.accept(setupPayload, sendingSocket);
+            }
+            sendingSocket.onClose()
+                    .doFinally(signal -> sessions.values().remove(window))
+                    .subscribe(null, error -> log.debug("Connection closed with error: {}", error.getMessage()));
+            return socketAcceptor.accept(setupPayload, new WindowedRSocket(sendingSocket, window));
+        };
+    }
+
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    /**
+     * @param rSocket the sending socket received by an acceptor
+     * @return the window of the connection, or null if the socket wasn't handed over by {@link #socketAcceptorInterceptor()}
+     */
+    static PushWindow windowOf(RSocket rSocket) {
+        return rSocket instanceof WindowedRSocket ? ((WindowedRSocket) rSocket).window : null;
+    }
+
+    private static final class WindowedRSocket extends RSocketProxy {
+        private final PushWindow window;
+
+        WindowedRSocket(RSocket source, PushWindow window) {
+            super(source);
+            this.window = window;
+        }
+    }
+
+    /**
+     * The transport connection, sees the setup or the resume frame first, then counts the metadata_push frames taken.
+     */
+    private final class CountingConnection implements DuplexConnection {
+        private final DuplexConnection delegate;
+        private volatile PushWindow window;
+
+        CountingConnection(DuplexConnection delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Mono<Void> send(Publisher<ByteBuf> frames) {
+            // not fused, the transport polls a fused queue whether written or not, and requests only as the writes complete
+            return delegate.send(Flux.from(frames).doOnNext(this::onSend).hide());
+        }
+
+        @Override
+        public Mono<Void> sendOne(ByteBuf frame) {
+            onSend(frame);
+            return delegate.sendOne(frame);
+        }
+
+        @Override
+        public Flux<ByteBuf> receive() {
+            return delegate.receive().doOnNext(this::onReceive);
+        }
+
+        @Override
+        public ByteBufAllocator alloc() {
+            return delegate.alloc();
+        }
+
+        @Override
+        public double availability() {
+            return delegate.availability();
+        }
+
+        @Override
+        public Mono<Void> onClose() {
+            return delegate.onClose();
+        }
+
+        @Override
+        public void dispose() {
+            delegate.dispose();
+        }
+
+        @Override
+        public boolean isDisposed() {
+            return delegate.isDisposed();
+        }
+
+        private void onSend(ByteBuf frame) {
+            PushWindow current = window;
+            if (null != current && FrameHeaderCodec.frameType(frame) == FrameType.METADATA_PUSH) {
+                current.onWritten();
+            }
+        }
+
+        private void onReceive(ByteBuf frame) {
+            if (null != window || FrameHeaderCodec.streamId(frame) != 0) {
+                return;
+            }
+            FrameType frameType = FrameHeaderCodec.frameType(frame);
+            if (frameType == FrameType.SETUP) {
+                PushWindow setupWindow = new PushWindow();
+                window = setupWindow;
+                SETUP_WINDOW.set(setupWindow);
+                if (SetupFrameCodec.resumeEnabled(frame)) {
+                    sessions.put(ByteBufUtil.hexDump(SetupFrameCodec.resumeToken(frame)), setupWindow);
+                }
+            } else if (frameType == FrameType.RESUME) {
+                window = sessions.get(ByteBufUtil.hexDump(ResumeFrameCodec.token(frame)));
+            }
+        }
+    }
+}
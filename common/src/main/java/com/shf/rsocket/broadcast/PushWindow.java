@@ -0,0 +1,48 @@
+package com.shf.rsocket.broadcast;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * description :
+ * The metadata_push frames of a connection which RSocket queued but the transport hasn't taken yet, see {@link PushFlowControl}.
+ * The frames written again after a resume may be counted twice, so the count is only an upper bound of the backlog.
+ *
+ * @author songhaifeng
+ * @date 2026/10/19 23:10
+ */
+final class PushWindow {
+    private final AtomicLong pushed = new AtomicLong();
+    private final AtomicLong written = new AtomicLong();
+    private volatile Runnable onWritten;
+    private volatile boolean waiting;
+
+    long outstanding() {
+        return Math.max(0, pushed.get() - written.get());
+    }
+
+    void onPushed() {
+        pushed.incrementAndGet();
+    }
+
+    /**
+     * Called by the transport, for every metadata_push frame it takes.
+     */
+    void onWritten() {
+        written.incrementAndGet();
+        if (waiting) {
+            waiting = false;
+            Runnable listener = onWritten;
+            if (null != listener) {
+                listener.run();
+            }
+        }
+    }
+
+    /**
+     * Call the listener once at the next written frame, the caller checks {@link #outstanding()} again afterwards.
+     */
+    void await(Runnable listener) {
+        onWritten = listener;
+        waiting = true;
+    }
+}
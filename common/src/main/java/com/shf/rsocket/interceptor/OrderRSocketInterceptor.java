@@ -27,6 +27,21 @@ public interface OrderRSocketInterceptor extends RSocketInterceptor {
      */
     int LOWEST_PRECEDENCE = Integer.MAX_VALUE;
 
+    /**
+     * Wrap the payloads before any interceptor reads the metadata.
+     */
+    int METADATA_CACHE_PRECEDENCE = -2000;
+
+    /**
+     * Answer the cached responses of a requester before the requests are measured and logged, a hit is never sent.
+     */
+    int RESPONSE_CACHE_PRECEDENCE = -1750;
+
+    /**
+     * Measure the requests including all the other interceptors.
+     */
+    int METRICS_PRECEDENCE = -1500;
+
     int CONTEXT_REQUEST_PRECEDENCE = -500;
     int CONTEXT_RESPONDER_PRECEDENCE = 500;
 
@@ -2,7 +2,11 @@ package com.shf.rsocket.interceptor;
 
 import com.shf.rsocket.entity.PayloadInfo;
 import io.rsocket.Payload;
+import io.rsocket.metadata.CompositeMetadata;
+import io.rsocket.metadata.RoutingMetadata;
+import io.rsocket.metadata.WellKnownMimeType;
 
+import java.util.Iterator;
 import java.util.Map;
 
 /**
@@ -13,6 +17,7 @@ import java.util.Map;
  * @date 2020/5/28 1:09
  */
 public class PayloadUtils {
+    private static final String MESSAGE_RSOCKET_ROUTING = WellKnownMimeType.MESSAGE_RSOCKET_ROUTING.getString();
 
     public static Map<String, Object> extractMetadata(PayloadExtractFunction payloadExtractFunction, Payload payload) {
         return payloadExtractFunction.extract(payload, false, true).getMetadata();
@@ -26,4 +31,27 @@ public class PayloadUtils {
     public static PayloadInfo extractPayload(PayloadExtractFunction payloadExtractFunction, Payload payload) {
         return payloadExtractFunction.extract(payload, true, true);
     }
+
+    /**
+     * Read the route from the composite metadata, only the routing entry is decoded.
+     *
+     * @param payload payload
+     * @return route, or null if there is no route or the metadata is not a composite one.
+     */
+    public static String extractRoute(Payload payload) {
+        if (!payload.hasMetadata()) {
+            return null;
+        }
+        try {
+            for (CompositeMetadata.Entry entry : new CompositeMetadata(payload.sliceMetadata(), false)) {
+                if (MESSAGE_RSOCKET_ROUTING.equals(entry.getMimeType())) {
+                    Iterator<String> iterator = new RoutingMetadata(entry.getContent()).iterator();
+                    return iterator.hasNext() ? iterator.next() : null;
+                }
+            }
+        } catch (RuntimeException e) {
+            // not a composite metadata
+        }
+        return null;
+    }
 }
@@ -0,0 +1,317 @@
+package com.shf.rsocket.interceptor.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.rsocket.Payload;
+import io.rsocket.util.ByteBufPayload;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * description :
+ * The responses of the cacheable routes of a requester, keyed by the route and the bytes of the request data.
+ * The other metadata(traceId, token...) is not a part of the key, only idempotent routes whose response
+ * depends on the data alone should be cacheable.
+ * <p>
+ * Entries expire after `ttl` and are bounded by `maxEntries`, the server evicts them earlier by
+ * a metadata_push, see {@link com.shf.rsocket.invalidation.InvalidationListener}.
+ * A response in flight during an invalidation is not cached, it may be older than the invalidation.
+ * <p>
+ * A route may be tagged by {@link #tagBy(String, Function)}, such as by the id of the requested entity. The tag is read
+ * from the request data once on a miss, and the cached keys are indexed by it, so {@link #invalidate(String, long)} only
+ * looks up the keys of the tag. The in-flight responses are only dropped by the invalidations of their own tag(or route),
+ * through {@value #GENERATION_STRIPES} striped generations.
+ *
+ * @author songhaifeng
+ * @date 2026/10/19 9:10
+ */
+@Slf4j
+public class ResponseCache {
+    public static final String ALL_ROUTES = "*";
+    private static final int GENERATION_STRIPES = 64;
+
+    private final Set<String> routes;
+    private final Cache<Key, CachedResponse> cache;
+    private final Map<String, Function<byte[], Long>> taggers = new ConcurrentHashMap<>();
+    /**
+     * The keys of a tag, only updated in a compute of the tag.
+     */
+    private final ConcurrentHashMap<Tag, Set<Key>> tagIndex = new ConcurrentHashMap<>();
+    /**
+     * Incremented by every invalidation of a route or a predicate, before the entries are removed.
+     */
+    private final AtomicLong generation = new AtomicLong();
+    /**
+     * Incremented by the invalidations of the tags hashed to a stripe, before the entries are removed.
+     */
+    private final AtomicLongArray tagGenerations = new AtomicLongArray(GENERATION_STRIPES);
+
+    public ResponseCache(@NonNull Collection<String> routes, @NonNull Duration ttl, long maxEntries,
+                         @NonNull MeterRegistry registry, @NonNull String name) {
+        this.routes = Collections.unmodifiableSet(new HashSet<>(routes));
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                // in the removing thread, see unindex
+                .executor(Runnable::run)
+                .removalListener((Key key, CachedResponse response, RemovalCause cause) -> {
+                    if (null != key && cause != RemovalCause.REPLACED) {
+                        unindex(key);
+                    }
+                })
+                .build();
+        CaffeineCacheMetrics.monitor(registry, cache, name);
+    }
+
+    public boolean isCacheable(String route) {
+        return null != route && routes.contains(route);
+    }
+
+    /**
+     * Tag the requests of a route, for {@link #invalidate(String, long)}.
+     *
+     * @param route  route
+     * @param tagger read the tag from the request data, must not modify it. A null tag, or an exception, leaves the request
+     *               untagged, which is invalidated by all the tags of the route.
+     */
+    public void tagBy(@NonNull String route, @NonNull Function<byte[], Long> tagger) {
+        taggers.put(route, tagger);
+    }
+
+    /**
+     * Copy the request data as the key, the payload is released once sent.
+     *
+     * @param route   route of the request
+     * @param request request payload
+     * @return Key
+     */
+    Key key(String route, Payload request) {
+        return new Key(route, ByteBufUtil.getBytes(request.sliceData()));
+    }
+
+    /**
+     * @param key key
+     * @return a new payload of the cached response, or null if missed
+     */
+    Payload get(Key key) {
+        CachedResponse response = cache.getIfPresent(key);
+        return null == response ? null : response.toPayload();
+    }
+
+    /**
+     * Tag the key of a missed request, and read the generation of its tag.
+     *
+     * @param key key
+     * @return generation, changed by the invalidations of the route or the tag of the key
+     */
+    long generation(Key key) {
+        Function<byte[], Long> tagger = taggers.get(key.route);
+        if (null != tagger) {
+            try {
+                key.tag = new Tag(key.route, tagger.apply(key.data));
+            } catch (Exception e) {
+                log.warn("Untagged request of route {}: {}", key.route, e.getMessage());
+                key.tag = new Tag(key.route, null);
+            }
+        }
+        return currentGeneration(key);
+    }
+
+    /**
+     * The sum only grows, and changes whenever one of the counters does.
+     */
+    private long currentGeneration(Key key) {
+        return generation.get() + (null == key.tag ? 0 : tagGenerations.get(key.tag.stripe));
+    }
+
+    /**
+     * Cache a copy of the response, unless an invalidation happened since the request was sent.
+     *
+     * @param key        key
+     * @param response   response, still owned by the caller
+     * @param generation {@link #generation(Key)} before the request was sent
+     */
+    void put(Key key, Payload response, long generation) {
+        CachedResponse cachedResponse = new CachedResponse(ByteBufUtil.getBytes(response.sliceData()),
+                response.hasMetadata() ? ByteBufUtil.getBytes(response.sliceMetadata()) : null);
+        cache.put(key, cachedResponse);
+        // indexed before the check, so a tag invalidated after the check finds the key
+        if (null != key.tag) {
+            tagIndex.compute(key.tag, (tag, keys) -> {
+                Set<Key> indexed = null == keys ? new HashSet<>() : keys;
+                indexed.add(key);
+                return indexed;
+            });
+        }
+        // an invalidation after the check removes the entry by itself
+        if (currentGeneration(key) != generation) {
+            cache.asMap().remove(key, cachedResponse);
+        }
+    }
+
+    /**
+     * Drop an evicted key from the index of its tag, unless it has been cached again.
+     * Both run in a compute of the tag, so a {@link #put} indexing the key again is never undone.
+     */
+    private void unindex(Key key) {
+        if (null == key.tag) {
+            return;
+        }
+        tagIndex.computeIfPresent(key.tag, (tag, keys) -> {
+            if (!cache.asMap().containsKey(key)) {
+                keys.remove(key);
+            }
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+
+    /**
+     * Evict all the responses of a route.
+     *
+     * @param route route, or {@link #ALL_ROUTES}
+     */
+    public void invalidate(@NonNull String route) {
+        generation.incrementAndGet();
+        if (ALL_ROUTES.equals(route)) {
+            cache.invalidateAll();
+        } else {
+            cache.asMap().keySet().removeIf(key -> key.route.equals(route));
+        }
+        log.debug("Invalidated the cached responses of route: {}", route);
+    }
+
+    /**
+     * Evict the responses of a tag of a route, and the untagged ones of the route, see {@link #tagBy(String, Function)}.
+     * Only the indexed keys of the tag are looked up.
+     *
+     * @param route route
+     * @param tag   tag
+     */
+    public void invalidate(@NonNull String route, long tag) {
+        invalidate(new Tag(route, tag));
+        invalidate(new Tag(route, null));
+        log.debug("Invalidated the cached responses of route: {}, tag: {}", route, tag);
+    }
+
+    private void invalidate(Tag tag) {
+        tagGenerations.incrementAndGet(tag.stripe);
+        Set<Key> keys = tagIndex.remove(tag);
+        if (null != keys) {
+            // the removal listener finds the tag removed already
+            cache.invalidateAll(keys);
+        }
+    }
+
+    /**
+     * Evict the responses of a route whose request data matches, a scan of all the cached responses.
+     * Prefer {@link #invalidate(String, long)} for a tagged route.
+     *
+     * @param route route
+     * @param data  tested with the request data, must not modify it
+     */
+    public void invalidate(@NonNull String route, @NonNull Predicate<byte[]> data) {
+        generation.incrementAndGet();
+        cache.asMap().keySet().removeIf(key -> key.route.equals(route) && data.test(key.data));
+        log.debug("Invalidated the matched responses of route: {}", route);
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    static final class Key {
+        private final String route;
+        private final byte[] data;
+        private final int hash;
+        /**
+         * Derived from the data, not a part of the identity.
+         */
+        private Tag tag;
+
+        Key(String route, byte[] data) {
+            this.route = route;
+            this.data = data;
+            this.hash = 31 * route.hashCode() + Arrays.hashCode(data);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return hash == key.hash && route.equals(key.route) && Arrays.equals(data, key.data);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    private static final class Tag {
+        private final String route;
+        private final Long value;
+        private final int stripe;
+
+        Tag(String route, Long value) {
+            this.route = route;
+            this.value = value;
+            this.stripe = (Objects.hash(route, value) & Integer.MAX_VALUE) % GENERATION_STRIPES;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Tag)) {
+                return false;
+            }
+            Tag tag = (Tag) o;
+            return route.equals(tag.route) && Objects.equals(value, tag.value);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(route, value);
+        }
+    }
+
+    private static final class CachedResponse {
+        private final byte[] data;
+        private final byte[] metadata;
+
+        CachedResponse(byte[] data, byte[] metadata) {
+            this.data = data;
+            this.metadata = metadata;
+        }
+
+        Payload toPayload() {
+            return ByteBufPayload.create(Unpooled.wrappedBuffer(data), null == metadata ? null : Unpooled.wrappedBuffer(metadata));
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.shf.rsocket.interceptor.cache;
+
+import com.shf.rsocket.interceptor.OrderRSocketInterceptor;
+import com.shf.rsocket.interceptor.PayloadUtils;
+import io.netty.util.ReferenceCountUtil;
+import io.rsocket.Payload;
+import io.rsocket.RSocket;
+import io.rsocket.plugins.InterceptorRegistry;
+import io.rsocket.util.RSocketProxy;
+import lombok.NonNull;
+import reactor.core.publisher.Mono;
+
+/**
+ * description :
+ * Serve the request/response of the cacheable routes from a {@link ResponseCache}, be used with {@link InterceptorRegistry#forRequester},
+ * so `RSocketRequester#retrieveMono` of a cached request returns without a network round trip.
+ * The other interaction models are never cached.
+ *
+ * @author songhaifeng
+ * @date 2026/10/19 9:25
+ */
+public class ResponseCacheInterceptor implements OrderRSocketInterceptor {
+    private final ResponseCache responseCache;
+
+    public ResponseCacheInterceptor(@NonNull ResponseCache responseCache) {
+        this.responseCache = responseCache;
+    }
+
+    @Override
+    public int getOrder() {
+        return RESPONSE_CACHE_PRECEDENCE;
+    }
+
+    @Override
+    public RSocket apply(RSocket rSocket) {
+        return new RSocketProxy(rSocket) {
+            @Override
+            public Mono<Payload> requestResponse(Payload payload) {
+                String route = PayloadUtils.extractRoute(payload);
+                if (!responseCache.isCacheable(route)) {
+                    return super.requestResponse(payload);
+                }
+                ResponseCache.Key key = responseCache.key(route, payload);
+                Payload cached = responseCache.get(key);
+                if (null != cached) {
+                    ReferenceCountUtil.safeRelease(payload);
+                    return Mono.just(cached);
+                }
+                long generation = responseCache.generation(key);
+                return super.requestResponse(payload)
+                        .doOnNext(response -> responseCache.put(key, response, generation));
+            }
+        };
+    }
+}
@@ -1,6 +1,8 @@
 package com.shf.rsocket.interceptor.log;
 
 import com.shf.rsocket.interceptor.PayloadExtractFunction;
+import com.shf.rsocket.interceptor.log.policy.LogPolicy;
+import com.shf.rsocket.interceptor.log.sink.LogSink;
 import io.rsocket.RSocket;
 import io.rsocket.plugins.LimitRateInterceptor;
 import lombok.extern.slf4j.Slf4j;
@@ -17,22 +19,43 @@ import reactor.util.annotation.NonNull;
 public abstract class AbstractRSocketLogInterceptor implements RSocketLogInterceptor {
     private final String appName;
     private final PayloadExtractFunction payloadExtractFunction;
+    private final LogPolicy logPolicy;
+    private final LogSink logSink;
 
     public AbstractRSocketLogInterceptor(String appName, @NonNull PayloadExtractFunction payloadExtractFunction) {
+        this(appName, payloadExtractFunction, LogPolicy.LOG_ALL);
+    }
+
+    public AbstractRSocketLogInterceptor(String appName, @NonNull PayloadExtractFunction payloadExtractFunction, @NonNull LogPolicy logPolicy) {
+        this(appName, payloadExtractFunction, logPolicy, LogSink.SYNC);
+    }
+
+    public AbstractRSocketLogInterceptor(String appName, @NonNull PayloadExtractFunction payloadExtractFunction, @NonNull LogPolicy logPolicy,
+                                         @NonNull LogSink logSink) {
         this.appName = appName;
         this.payloadExtractFunction = payloadExtractFunction;
+        this.logPolicy = logPolicy;
+        this.logSink = logSink;
     }
 
     public String getAppName() {
         return appName;
     }
 
+    public LogPolicy getLogPolicy() {
+        return logPolicy;
+    }
+
+    public LogSink getLogSink() {
+        return logSink;
+    }
+
     abstract String getRequestPrefix();
 
     abstract String getResponsePrefix();
 
     @Override
     public RSocket apply(RSocket rSocket) {
-        return new PayloadLogRSocket(rSocket, payloadExtractFunction, getRequestPrefix(), getResponsePrefix());
+        return new PayloadLogRSocket(rSocket, payloadExtractFunction, getRequestPrefix(), getResponsePrefix(), logPolicy, logSink);
     }
 }
@@ -1,6 +1,8 @@
 package com.shf.rsocket.interceptor.log;
 
 import com.shf.rsocket.interceptor.PayloadExtractFunction;
+import com.shf.rsocket.interceptor.log.policy.LogPolicy;
+import com.shf.rsocket.interceptor.log.sink.LogSink;
 import io.rsocket.plugins.InterceptorRegistry;
 import io.rsocket.plugins.RSocketInterceptor;
 import lombok.extern.slf4j.Slf4j;
@@ -21,6 +23,15 @@ public class DefaultRequesterLogInterceptor extends AbstractRSocketLogIntercepto
         super(appName, payloadExtractFunction);
     }
 
+    public DefaultRequesterLogInterceptor(@NonNull String appName, @NonNull PayloadExtractFunction payloadExtractFunction, @NonNull LogPolicy logPolicy) {
+        super(appName, payloadExtractFunction, logPolicy);
+    }
+
+    public DefaultRequesterLogInterceptor(@NonNull String appName, @NonNull PayloadExtractFunction payloadExtractFunction, @NonNull LogPolicy logPolicy,
+                                      @NonNull LogSink logSink) {
+        super(appName, payloadExtractFunction, logPolicy, logSink);
+    }
+
     /**
      * As a requester, `send` request.
      *
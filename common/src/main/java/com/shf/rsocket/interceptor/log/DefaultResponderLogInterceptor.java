@@ -1,6 +1,8 @@
 package com.shf.rsocket.interceptor.log;
 
 import com.shf.rsocket.interceptor.PayloadExtractFunction;
+import com.shf.rsocket.interceptor.log.policy.LogPolicy;
+import com.shf.rsocket.interceptor.log.sink.LogSink;
 import io.rsocket.plugins.InterceptorRegistry;
 import io.rsocket.plugins.RSocketInterceptor;
 import lombok.NonNull;
@@ -22,6 +24,15 @@ public class DefaultResponderLogInterceptor extends AbstractRSocketLogIntercepto
         super(appName, payloadExtractFunction);
     }
 
+    public DefaultResponderLogInterceptor(@NonNull String appName, @NonNull PayloadExtractFunction payloadExtractFunction, @NonNull LogPolicy logPolicy) {
+        super(appName, payloadExtractFunction, logPolicy);
+    }
+
+    public DefaultResponderLogInterceptor(@NonNull String appName, @NonNull PayloadExtractFunction payloadExtractFunction, @NonNull LogPolicy logPolicy,
+                                      @NonNull LogSink logSink) {
+        super(appName, payloadExtractFunction, logPolicy, logSink);
+    }
+
     /**
      * As a responder, `receive` request.
      *
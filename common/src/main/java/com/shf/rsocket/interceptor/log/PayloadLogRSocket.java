@@ -3,24 +3,33 @@ package com.shf.rsocket.interceptor.log;
 import com.shf.reactive.mdc.MdcReactiveUtils;
 import com.shf.rsocket.entity.PayloadInfo;
 import com.shf.rsocket.interceptor.PayloadExtractFunction;
+import com.shf.rsocket.interceptor.PayloadUtils;
+import com.shf.rsocket.interceptor.log.entity.CapturedData;
 import com.shf.rsocket.interceptor.log.entity.RequestLogInfo;
 import com.shf.rsocket.interceptor.log.entity.ResponseLogInfo;
+import com.shf.rsocket.interceptor.log.policy.LogPolicy;
+import com.shf.rsocket.interceptor.log.sink.LogRecord;
+import com.shf.rsocket.interceptor.log.sink.LogSink;
 import io.netty.util.ReferenceCountUtil;
 import io.rsocket.Payload;
 import io.rsocket.RSocket;
+import io.rsocket.util.EmptyPayload;
 import io.rsocket.util.RSocketProxy;
+import lombok.NonNull;
 import lombok.extern.slf4j.Slf4j;
 import org.reactivestreams.Publisher;
-import org.slf4j.MDC;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.core.publisher.SignalType;
 
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * description :
- * Wrapper the {@link RSocket} for logging request payload(four interaction models) and response payload(only request/response model).
+ * Wrapper the {@link RSocket} for logging request payload(four interaction models, the first payload of a channel) and response payload(only request/response model).
+ * A request which is not sampled is still logged with its response or status when it is slow or fails.
+ * Which requests are logged is decided by the {@link LogPolicy}, and the {@link LogRecord}s are written by the {@link LogSink}.
  *
  * @author songhaifeng
  * @date 2020/5/22 13:53
@@ -31,12 +40,26 @@ public class PayloadLogRSocket extends RSocketProxy {
     private final String requestPrefix;
     private final String responsePrefix;
     private final PayloadExtractFunction payloadExtractFunction;
+    private final LogPolicy logPolicy;
+    private final LogSink logSink;
 
     public PayloadLogRSocket(RSocket delegate, PayloadExtractFunction payloadExtractFunction, String requestPrefix, String responsePrefix) {
+        this(delegate, payloadExtractFunction, requestPrefix, responsePrefix, LogPolicy.LOG_ALL);
+    }
+
+    public PayloadLogRSocket(RSocket delegate, PayloadExtractFunction payloadExtractFunction, String requestPrefix, String responsePrefix,
+                             @NonNull LogPolicy logPolicy) {
+        this(delegate, payloadExtractFunction, requestPrefix, responsePrefix, logPolicy, LogSink.SYNC);
+    }
+
+    public PayloadLogRSocket(RSocket delegate, PayloadExtractFunction payloadExtractFunction, String requestPrefix, String responsePrefix,
+                             @NonNull LogPolicy logPolicy, @NonNull LogSink logSink) {
         super(delegate);
         this.payloadExtractFunction = payloadExtractFunction;
         this.requestPrefix = requestPrefix;
         this.responsePrefix = responsePrefix;
+        this.logPolicy = logPolicy;
+        this.logSink = logSink;
     }
 
     /**
@@ -50,14 +73,18 @@ public class PayloadLogRSocket extends RSocketProxy {
         return Mono.subscriberContext()
                 .flatMap(context -> {
                             long startTime = System.currentTimeMillis();
+                            boolean sampled = sample(payload);
                             ReferenceCountUtil.retain(payload);
                             return super.fireAndForget(payload)
-                                    .doFirst(() -> logRequest(payload))
+                                    .doFirst(() -> {
+                                        if (sampled) {
+                                            logRequest(payload);
+                                        }
+                                    })
                                     .doOnError(throwable -> MdcReactiveUtils.mdcOnError(error -> {
-                                        log.error(throwable.getMessage());
-                                        logResponseStatus(SignalType.ON_ERROR, startTime);
+                                        logError(throwable, payload, sampled, startTime);
                                     }, throwable, context))
-                                    .doFinally(signalType -> ReferenceCountUtil.retain(payload));
+                                    .doFinally(signalType -> ReferenceCountUtil.release(payload));
                         }
                 );
     }
@@ -73,12 +100,16 @@ public class PayloadLogRSocket extends RSocketProxy {
         return Mono.subscriberContext()
                 .flatMap(context -> {
                             long startTime = System.currentTimeMillis();
+                            boolean sampled = sample(payload);
                             ReferenceCountUtil.retain(payload);
-                            return logResponse(startTime, super.requestResponse(payload)
-                                    .doFirst(() -> logRequest(payload))
+                            return logResponse(startTime, sampled, payload, super.requestResponse(payload)
+                                    .doFirst(() -> {
+                                        if (sampled) {
+                                            logRequest(payload);
+                                        }
+                                    })
                                     .doOnError(throwable -> MdcReactiveUtils.mdcOnError(error -> {
-                                        log.error(throwable.getMessage());
-                                        logResponseStatus(SignalType.ON_ERROR, startTime);
+                                        logError(throwable, payload, sampled, startTime);
                                     }, throwable, context))
                                     .doFinally(signalType -> ReferenceCountUtil.release(payload)));
                         }
@@ -86,7 +117,7 @@ public class PayloadLogRSocket extends RSocketProxy {
     }
 
     /**
-     * log request and response status
+     * log request and response status, the request of a slow one as well
      *
      * @param payload payload
      * @return Flux<Payload>
@@ -95,22 +126,22 @@ public class PayloadLogRSocket extends RSocketProxy {
     public Flux<Payload> requestStream(Payload payload) {
         return Flux.deferWithContext(context -> {
                     long startTime = System.currentTimeMillis();
+                    boolean sampled = sample(payload);
                     final AtomicBoolean read = new AtomicBoolean(false);
                     ReferenceCountUtil.retain(payload);
                     return super.requestStream(payload)
                             .map(p -> {
-                                if (!read.get()) {
+                                if (sampled && !read.get()) {
                                     read.set(true);
                                     logRequest(payload);
                                 }
                                 return p;
                             })
                             .doOnComplete(MdcReactiveUtils.mdcOnComplete(() -> {
-                                logResponseStatus(SignalType.ON_COMPLETE, startTime);
+                                logSlowOrSampled(payload, sampled && read.get(), sampled, startTime);
                             }, context))
                             .doOnError(throwable -> MdcReactiveUtils.mdcOnError(error -> {
-                                log.error(throwable.getMessage());
-                                logResponseStatus(SignalType.ON_ERROR, startTime);
+                                logError(throwable, payload, sampled, startTime);
                             }, throwable, context))
                             .doFinally(signalType -> ReferenceCountUtil.release(payload));
                 }
@@ -119,7 +150,7 @@ public class PayloadLogRSocket extends RSocketProxy {
     }
 
     /**
-     * log response status
+     * log the first request payload and response status
      *
      * @param payloads payloads
      * @return Flux<Payload>
@@ -128,18 +159,69 @@ public class PayloadLogRSocket extends RSocketProxy {
     public Flux<Payload> requestChannel(Publisher<Payload> payloads) {
         return Flux.deferWithContext(context -> {
                     long startTime = System.currentTimeMillis();
-                    return super.requestChannel(payloads)
+                    // the route is unknown before the first payload, use the default sample rate.
+                    boolean sampled = logPolicy.sample(null);
+                    // the first payload is the request, kept until the end for the slow or failed channels.
+                    final AtomicReference<Payload> first = new AtomicReference<>();
+                    Flux<Payload> requests = Flux.from(payloads)
+                            .doOnNext(p -> {
+                                if (null == first.get() && first.compareAndSet(null, p)) {
+                                    ReferenceCountUtil.retain(p);
+                                    if (sampled) {
+                                        logRequest(p);
+                                    }
+                                }
+                            });
+                    return super.requestChannel(requests)
                             .doOnComplete(MdcReactiveUtils.mdcOnComplete(() -> {
-                                logResponseStatus(SignalType.ON_COMPLETE, startTime);
+                                logSlowOrSampled(first.get(), sampled, sampled, startTime);
                             }, context))
                             .doOnError(throwable -> MdcReactiveUtils.mdcOnError(error -> {
-                                log.error(throwable.getMessage());
-                                logResponseStatus(SignalType.ON_ERROR, startTime);
-                            }, throwable, context));
+                                logError(throwable, first.get(), sampled, startTime);
+                            }, throwable, context))
+                            .doFinally(signalType -> {
+                                // the sentinel stops a late first payload from being retained
+                                Payload request = first.getAndSet(EmptyPayload.INSTANCE);
+                                if (null != request) {
+                                    ReferenceCountUtil.release(request);
+                                }
+                            });
                 }
         );
     }
 
+    /**
+     * Decide whether to log the request by the {@link LogPolicy}.
+     *
+     * @param payload payload
+     * @return true if sampled
+     */
+    private boolean sample(Payload payload) {
+        return logPolicy.sample(logPolicy.hasRouteSampleRates() ? PayloadUtils.extractRoute(payload) : null);
+    }
+
+    /**
+     * Log the status of a completed stream or channel if sampled or slow, with the request if it was not logged yet.
+     *
+     * @param payload   request payload, null if no request was received
+     * @param logged    whether the request had been logged
+     * @param sampled   whether the request was sampled
+     * @param startTime startTime
+     */
+    private void logSlowOrSampled(Payload payload, boolean logged, boolean sampled, long startTime) {
+        if (!sampled && !isSlow(startTime)) {
+            return;
+        }
+        if (!logged) {
+            logRequest(payload);
+        }
+        logResponseStatus(SignalType.ON_COMPLETE, startTime);
+    }
+
+    private boolean isSlow(long startTime) {
+        return logPolicy.isSlow(System.currentTimeMillis() - startTime);
+    }
+
     /**
      * Log request payload.
      *
@@ -147,31 +229,62 @@ public class PayloadLogRSocket extends RSocketProxy {
      */
     private void logRequest(Payload payload) {
         // Exception had been invoked before, like MissingLeaseException.
-        if (payload.refCnt() == 0) {
+        if (null == payload || payload == EmptyPayload.INSTANCE || payload.refCnt() == 0) {
             return;
         }
-        MDC.getCopyOfContextMap();
         RequestLogInfo.RequestLogInfoBuilder builder = RequestLogInfo.builder();
-        PayloadInfo payloadInfo = payloadExtractFunction.extract(payload, true, true);
-        builder.data(payloadInfo.getData())
-                .metadata(payloadInfo.getMetadata())
-                .build().log(requestPrefix);
+        PayloadInfo payloadInfo = payloadExtractFunction.extract(payload, false, true);
+        CapturedData capturedData = logPolicy.capture(payload);
+        builder.data(null == capturedData ? logPolicy.data(payload) : null)
+                .metadata(payloadInfo.getMetadata());
+        logSink.write(LogRecord.request(requestPrefix, builder.build(), capturedData));
+    }
+
+    /**
+     * Log the error, with the request if it was not sampled.
+     *
+     * @param throwable throwable
+     * @param payload   request payload
+     * @param sampled   whether the request had been logged
+     * @param startTime startTime
+     */
+    private void logError(Throwable throwable, Payload payload, boolean sampled, long startTime) {
+        if (!sampled && !logPolicy.isAlwaysLogErrors()) {
+            return;
+        }
+        if (!sampled) {
+            logRequest(payload);
+        }
+        logSink.write(LogRecord.error(throwable.getMessage()));
+        logResponseStatus(SignalType.ON_ERROR, startTime);
     }
 
     /**
-     * Log response payload.
+     * Log response payload, for the sampled or the slow requests.
      *
      * @param startTime       startTime
+     * @param sampled         whether the request had been logged
+     * @param payload         request payload
      * @param responsePayload responsePayload
      * @return Mono<Payload>
      */
-    private Mono<Payload> logResponse(long startTime, Mono<Payload> responsePayload) {
+    private Mono<Payload> logResponse(long startTime, boolean sampled, Payload payload, Mono<Payload> responsePayload) {
         return responsePayload.doOnSuccess(response -> {
+            long spentTime = System.currentTimeMillis() - startTime;
+            if (!sampled && !logPolicy.isSlow(spentTime)) {
+                return;
+            }
+            if (!sampled) {
+                logRequest(payload);
+            }
             ResponseLogInfo.ResponseLogInfoBuilder builder = ResponseLogInfo.builder();
-            builder.data(response.getDataUtf8()).spentTime(System.currentTimeMillis() - startTime);
-            builder.build().log(responsePrefix);
+            CapturedData capturedData = null == response ? null : logPolicy.capture(response);
+            builder.data(null == response || null != capturedData ? null : logPolicy.data(response)).spentTime(spentTime);
+            logSink.write(LogRecord.response(responsePrefix, builder.build(), capturedData));
         }).doOnEach(MdcReactiveUtils.mdcOnEach(s -> {
-            logResponseStatus(s.getType(), startTime);
+            if (s.isOnComplete() && (sampled || isSlow(startTime))) {
+                logResponseStatus(s.getType(), startTime);
+            }
         }));
     }
 
@@ -182,7 +295,7 @@ public class PayloadLogRSocket extends RSocketProxy {
      * @param startTime  startTime
      */
     private void logResponseStatus(SignalType signalType, long startTime) {
-        log.info("[{}], responding status:[{}]; spentTime:[{}]ms", responsePrefix, signalType.toString(), System.currentTimeMillis() - startTime);
+        logSink.write(LogRecord.status(responsePrefix, signalType, System.currentTimeMillis() - startTime));
     }
 
-}
\ No newline at end of file
+}
@@ -0,0 +1,69 @@
+package com.shf.rsocket.interceptor.log.entity;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * description :
+ * A bounded copy of the payload data in a pooled {@link ByteBuf}, taken on the event loop instead of decoding it
+ * into a {@link String}. The utf-8 decoding is deferred to {@link #render()}, which is called by the log writer
+ * only when the line is actually written.
+ * <p>
+ * The copy doesn't retain the payload, so the frame can be released as usual. It must be released by {@link #release()}
+ * once rendered or dropped, which is done by {@link com.shf.rsocket.interceptor.log.sink.LogRecord}.
+ *
+ * @author songhaifeng
+ * @date 2026/10/18 18:05
+ */
+public class CapturedData {
+    private final ByteBuf buffer;
+    /**
+     * Readable bytes of the original data.
+     */
+    private final int length;
+
+    private CapturedData(ByteBuf buffer, int length) {
+        this.buffer = buffer;
+        this.length = length;
+    }
+
+    /**
+     * Copy at most maxBytes of the data into a pooled buffer, the reader index of the data is not changed.
+     *
+     * @param data     data
+     * @param maxBytes 0 means the whole data
+     * @return CapturedData
+     */
+    public static CapturedData capture(ByteBuf data, int maxBytes) {
+        int length = data.readableBytes();
+        int captured = maxBytes > 0 ? Math.min(maxBytes, length) : length;
+        ByteBuf buffer = ByteBufAllocator.DEFAULT.heapBuffer(captured, captured);
+        buffer.writeBytes(data, data.readerIndex(), captured);
+        return new CapturedData(buffer, length);
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    /**
+     * Decode the captured bytes, with the total length if truncated.
+     *
+     * @return data
+     */
+    public String render() {
+        String data = buffer.toString(StandardCharsets.UTF_8);
+        return buffer.readableBytes() < length ? data + "...(" + length + " bytes)" : data;
+    }
+
+    /**
+     * Release the buffer, can be called more than once.
+     */
+    public void release() {
+        if (buffer.refCnt() > 0) {
+            buffer.release();
+        }
+    }
+}
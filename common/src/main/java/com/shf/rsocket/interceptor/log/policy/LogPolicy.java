@@ -0,0 +1,130 @@
+package com.shf.rsocket.interceptor.log.policy;
+
+import com.shf.rsocket.interceptor.log.entity.CapturedData;
+import io.netty.buffer.ByteBuf;
+import io.rsocket.Payload;
+import lombok.AccessLevel;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.Singular;
+import lombok.ToString;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * description :
+ * Decide which requests are logged by {@link com.shf.rsocket.interceptor.log.PayloadLogRSocket}.
+ * <ul>
+ * <li>sampleRate: the probability to log a request, in [0, 1]. It can be overwritten for some routes by routeSampleRates.</li>
+ * <li>maxLogsPerSecond: cap of the sampled requests logged per second, over all routes. 0 means unlimited.</li>
+ * <li>maxBodyBytes: the data longer than it is truncated in the logs. 0 means unlimited.</li>
+ * <li>slowThresholdMillis: a request spending more than it is always logged. 0 means disabled.</li>
+ * <li>alwaysLogErrors: a failed request is always logged.</li>
+ * <li>capture: how the data is taken from the payload, see {@link Capture}.</li>
+ * </ul>
+ * The errors and the slow requests are not limited by maxLogsPerSecond.
+ *
+ * @author songhaifeng
+ * @date 2026/10/18 16:10
+ */
+@Getter
+@ToString
+public class LogPolicy {
+    /**
+     * Log all the requests, same as before the policy was introduced.
+     */
+    public static final LogPolicy LOG_ALL = LogPolicy.builder().build();
+
+    public enum Capture {
+        /**
+         * Decode the data into a string when the request is logged, in the calling thread.
+         */
+        STRING,
+        /**
+         * Copy the bounded bytes into a pooled buffer, the string is only decoded by the log writer.
+         * Less garbage on the event loop for the large data, works best with the {@link com.shf.rsocket.interceptor.log.sink.AsyncLogSink}.
+         */
+        BUFFER
+    }
+
+    private final double sampleRate;
+    private final Map<String, Double> routeSampleRates;
+    private final int maxLogsPerSecond;
+    private final int maxBodyBytes;
+    private final long slowThresholdMillis;
+    private final boolean alwaysLogErrors;
+    private final Capture capture;
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    private final LogRateLimiter rateLimiter;
+
+    @Builder
+    public LogPolicy(Double sampleRate, @Singular Map<String, Double> routeSampleRates, int maxLogsPerSecond,
+                     int maxBodyBytes, long slowThresholdMillis, Boolean alwaysLogErrors, Capture capture) {
+        this.sampleRate = null == sampleRate ? 1.0 : sampleRate;
+        this.routeSampleRates = null == routeSampleRates ? Collections.emptyMap() : new HashMap<>(routeSampleRates);
+        this.maxLogsPerSecond = maxLogsPerSecond;
+        this.maxBodyBytes = maxBodyBytes;
+        this.slowThresholdMillis = slowThresholdMillis;
+        this.alwaysLogErrors = null == alwaysLogErrors || alwaysLogErrors;
+        this.capture = null == capture ? Capture.STRING : capture;
+        this.rateLimiter = maxLogsPerSecond > 0 ? new LogRateLimiter(maxLogsPerSecond) : null;
+    }
+
+    /**
+     * @return true if the route is needed by {@link #sample(String)}
+     */
+    public boolean hasRouteSampleRates() {
+        return !routeSampleRates.isEmpty();
+    }
+
+    /**
+     * Decide whether to log a request, a sampled request consumes a token of maxLogsPerSecond.
+     *
+     * @param route route of the request, can be null
+     * @return true if the request should be logged
+     */
+    public boolean sample(String route) {
+        double rate = null == route ? sampleRate : routeSampleRates.getOrDefault(route, sampleRate);
+        if (rate <= 0 || (rate < 1 && ThreadLocalRandom.current().nextDouble() >= rate)) {
+            return false;
+        }
+        return null == rateLimiter || rateLimiter.tryAcquire();
+    }
+
+    public boolean isSlow(long spentTimeMillis) {
+        return slowThresholdMillis > 0 && spentTimeMillis >= slowThresholdMillis;
+    }
+
+    /**
+     * Read the data as an utf-8 string, at most maxBodyBytes are decoded.
+     *
+     * @param payload payload
+     * @return data
+     */
+    public String data(Payload payload) {
+        if (maxBodyBytes <= 0) {
+            return payload.getDataUtf8();
+        }
+        ByteBuf data = payload.sliceData();
+        int length = data.readableBytes();
+        if (length <= maxBodyBytes) {
+            return data.toString(StandardCharsets.UTF_8);
+        }
+        return data.toString(data.readerIndex(), maxBodyBytes, StandardCharsets.UTF_8) + "...(" + length + " bytes)";
+    }
+
+    /**
+     * Copy at most maxBodyBytes of the data with {@link Capture#BUFFER}.
+     *
+     * @param payload payload
+     * @return null with {@link Capture#STRING}, the data should be read by {@link #data(Payload)}
+     */
+    public CapturedData capture(Payload payload) {
+        return capture == Capture.BUFFER ? CapturedData.capture(payload.sliceData(), maxBodyBytes) : null;
+    }
+}
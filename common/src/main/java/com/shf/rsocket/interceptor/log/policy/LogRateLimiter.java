@@ -0,0 +1,38 @@
+package com.shf.rsocket.interceptor.log.policy;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * description :
+ * Lock-free token bucket, refilled continuously with `permitsPerSecond` tokens per second and holding at most one second of them.
+ * Implemented as the generic cell rate algorithm: only the theoretical arrival time of the next token is stored.
+ *
+ * @author songhaifeng
+ * @date 2026/10/18 16:02
+ */
+class LogRateLimiter {
+    private static final long ONE_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final long intervalNanos;
+    private final AtomicLong theoreticalArrivalTime;
+
+    LogRateLimiter(int permitsPerSecond) {
+        this.intervalNanos = Math.max(1, ONE_SECOND / permitsPerSecond);
+        this.theoreticalArrivalTime = new AtomicLong(System.nanoTime() - ONE_SECOND);
+    }
+
+    boolean tryAcquire() {
+        long now = System.nanoTime();
+        while (true) {
+            long tat = theoreticalArrivalTime.get();
+            long next = Math.max(tat, now - ONE_SECOND) + intervalNanos;
+            if (next - now > 0) {
+                return false;
+            }
+            if (theoreticalArrivalTime.compareAndSet(tat, next)) {
+                return true;
+            }
+        }
+    }
+}
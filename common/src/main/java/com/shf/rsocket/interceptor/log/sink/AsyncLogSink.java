@@ -0,0 +1,141 @@
+package com.shf.rsocket.interceptor.log.sink;
+
+import com.shf.concurrent.MpscRingBuffer;
+import com.shf.rsocket.interceptor.trace.TraceConstant;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * description :
+ * Hand the {@link LogRecord}s over to a dedicated writer thread through a bounded {@link MpscRingBuffer},
+ * so the event loop never formats or writes the logs. The {@link TraceConstant#TRACE_ID} of the MDC is captured when
+ * enqueuing, and restored when writing.
+ * When the queue is full, {@link OverflowPolicy#DROP} drops the record and counts it, {@link OverflowPolicy#BLOCK}
+ * waits for a free slot, which stalls the caller. A record written after {@link #close()} is dropped as well.
+ *
+ * @author songhaifeng
+ * @date 2026/10/18 17:36
+ */
+@Slf4j
+public class AsyncLogSink implements LogSink, AutoCloseable {
+    private static final int DRAIN_BATCH = 256;
+    private static final long MAX_IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long DROP_REPORT_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+
+    public enum OverflowPolicy {
+        DROP, BLOCK
+    }
+
+    private final MpscRingBuffer<LogRecord> queue;
+    private final OverflowPolicy overflowPolicy;
+    private final LongAdder dropped = new LongAdder();
+    private final Thread writer;
+    private volatile boolean running = true;
+
+    public AsyncLogSink(int capacity, OverflowPolicy overflowPolicy) {
+        this.queue = new MpscRingBuffer<>(capacity);
+        this.overflowPolicy = overflowPolicy;
+        this.writer = new Thread(this::drainLoop, "rsocket-log-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    @Override
+    public void write(LogRecord record) {
+        if (!running) {
+            drop(record);
+            return;
+        }
+        record.setTraceId(MDC.get(TraceConstant.TRACE_ID));
+        if (queue.offer(record)) {
+            return;
+        }
+        if (overflowPolicy == OverflowPolicy.BLOCK) {
+            while (running) {
+                LockSupport.parkNanos(1_000);
+                if (queue.offer(record)) {
+                    return;
+                }
+            }
+        }
+        drop(record);
+    }
+
+    private void drop(LogRecord record) {
+        record.release();
+        dropped.increment();
+    }
+
+    /**
+     * @return number of the records dropped since the start
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    /**
+     * Stop the writer after the queued records are written, the ones offered while closing are dropped.
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // the single consumer is gone, release what raced with the close
+        if (!writer.isAlive()) {
+            queue.drain(this::drop, Integer.MAX_VALUE);
+        }
+    }
+
+    private void drainLoop() {
+        long idleNanos = 0;
+        long reportedDropped = 0;
+        long nextReport = System.nanoTime() + DROP_REPORT_INTERVAL_NANOS;
+        while (running || !queue.isEmpty()) {
+            if (queue.drain(this::writeRecord, DRAIN_BATCH) > 0) {
+                idleNanos = 0;
+            } else {
+                // back off when idle, up to MAX_IDLE_NANOS of latency for the next record
+                idleNanos = Math.min(MAX_IDLE_NANOS, Math.max(1_000, idleNanos << 1));
+                LockSupport.parkNanos(idleNanos);
+            }
+            if (System.nanoTime() - nextReport >= 0) {
+                long total = dropped.sum();
+                if (total > reportedDropped) {
+                    log.warn("{} log records were dropped in the last {}s, {} in total.", total - reportedDropped,
+                            TimeUnit.NANOSECONDS.toSeconds(DROP_REPORT_INTERVAL_NANOS), total);
+                    reportedDropped = total;
+                }
+                nextReport = System.nanoTime() + DROP_REPORT_INTERVAL_NANOS;
+            }
+        }
+    }
+
+    private void writeRecord(LogRecord record) {
+        String traceId = record.getTraceId();
+        try {
+            if (traceId != null) {
+                MDC.put(TraceConstant.TRACE_ID, traceId);
+            }
+            record.write();
+        } catch (Exception e) {
+            log.error("Write log record fail, error : {}", e.getMessage());
+        } finally {
+            if (traceId != null) {
+                MDC.remove(TraceConstant.TRACE_ID);
+            }
+        }
+    }
+}
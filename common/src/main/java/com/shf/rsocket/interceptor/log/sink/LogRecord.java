@@ -0,0 +1,127 @@
+package com.shf.rsocket.interceptor.log.sink;
+
+import com.shf.rsocket.interceptor.log.PayloadLogRSocket;
+import com.shf.rsocket.interceptor.log.entity.CapturedData;
+import com.shf.rsocket.interceptor.log.entity.RequestLogInfo;
+import com.shf.rsocket.interceptor.log.entity.ResponseLogInfo;
+import lombok.Getter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import reactor.core.publisher.SignalType;
+
+/**
+ * description :
+ * A log event of {@link PayloadLogRSocket}, holds the values only. Formatting and writing happen in {@link #write()},
+ * which may run on the writer thread of {@link AsyncLogSink}.
+ * A {@link CapturedData} is rendered into the entity right before writing, and released by {@link #write()} or {@link #release()}.
+ *
+ * @author songhaifeng
+ * @date 2026/10/18 17:20
+ */
+@Getter
+public class LogRecord {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PayloadLogRSocket.class);
+
+    public enum Type {
+        REQUEST, RESPONSE, STATUS, ERROR
+    }
+
+    private final Type type;
+    private final String prefix;
+    private final RequestLogInfo requestLogInfo;
+    private final ResponseLogInfo responseLogInfo;
+    private final SignalType signalType;
+    private final long spentTime;
+    private final String message;
+    private final CapturedData capturedData;
+    /**
+     * traceId in the MDC of the thread which created the record, only captured by {@link AsyncLogSink}.
+     */
+    private String traceId;
+
+    private LogRecord(Type type, String prefix, RequestLogInfo requestLogInfo, ResponseLogInfo responseLogInfo,
+                      SignalType signalType, long spentTime, String message, CapturedData capturedData) {
+        this.type = type;
+        this.prefix = prefix;
+        this.requestLogInfo = requestLogInfo;
+        this.responseLogInfo = responseLogInfo;
+        this.signalType = signalType;
+        this.spentTime = spentTime;
+        this.message = message;
+        this.capturedData = capturedData;
+    }
+
+    public static LogRecord request(String prefix, RequestLogInfo requestLogInfo) {
+        return request(prefix, requestLogInfo, null);
+    }
+
+    /**
+     * @param capturedData if not null, rendered as the data of the requestLogInfo when writing
+     */
+    public static LogRecord request(String prefix, RequestLogInfo requestLogInfo, CapturedData capturedData) {
+        return new LogRecord(Type.REQUEST, prefix, requestLogInfo, null, null, 0, null, capturedData);
+    }
+
+    public static LogRecord response(String prefix, ResponseLogInfo responseLogInfo) {
+        return response(prefix, responseLogInfo, null);
+    }
+
+    /**
+     * @param capturedData if not null, rendered as the data of the responseLogInfo when writing
+     */
+    public static LogRecord response(String prefix, ResponseLogInfo responseLogInfo, CapturedData capturedData) {
+        return new LogRecord(Type.RESPONSE, prefix, null, responseLogInfo, null, 0, null, capturedData);
+    }
+
+    public static LogRecord status(String prefix, SignalType signalType, long spentTime) {
+        return new LogRecord(Type.STATUS, prefix, null, null, signalType, spentTime, null, null);
+    }
+
+    public static LogRecord error(String message) {
+        return new LogRecord(Type.ERROR, null, null, null, null, 0, message, null);
+    }
+
+    void setTraceId(String traceId) {
+        this.traceId = traceId;
+    }
+
+    /**
+     * Format and write the log lines, then release the captured data.
+     */
+    public void write() {
+        try {
+            switch (type) {
+                case REQUEST:
+                    if (null != capturedData) {
+                        requestLogInfo.setData(capturedData.render());
+                    }
+                    requestLogInfo.log(prefix);
+                    break;
+                case RESPONSE:
+                    if (null != capturedData) {
+                        responseLogInfo.setData(capturedData.render());
+                    }
+                    responseLogInfo.log(prefix);
+                    break;
+                case STATUS:
+                    LOGGER.info("[{}], responding status:[{}]; spentTime:[{}]ms", prefix, signalType.toString(), spentTime);
+                    break;
+                case ERROR:
+                default:
+                    LOGGER.error(message);
+                    break;
+            }
+        } finally {
+            release();
+        }
+    }
+
+    /**
+     * Release the captured data without writing, for a dropped record.
+     */
+    public void release() {
+        if (null != capturedData) {
+            capturedData.release();
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.shf.rsocket.interceptor.log.sink;
+
+/**
+ * description :
+ * Where {@link com.shf.rsocket.interceptor.log.PayloadLogRSocket} sends its {@link LogRecord}s.
+ *
+ * @author songhaifeng
+ * @date 2026/10/18 17:30
+ */
+public interface LogSink {
+
+    /**
+     * Write the record in the current thread, the same as logging directly.
+     */
+    LogSink SYNC = LogRecord::write;
+
+    /**
+     * Write or enqueue a record, called from the event loop.
+     *
+     * @param record record
+     */
+    void write(LogRecord record);
+}
@@ -11,7 +11,7 @@ import reactor.core.publisher.Mono;
  */
 @Slf4j
 public class DefaultMetadataPushReceiveInterceptor extends MetadataPushReceiveInterceptor {
-    private final static MetadataPushReceiveHandler DEFAULT_METADATA_PUSH_RECEIVE_HANDLER = metadata -> {
+    public final static MetadataPushReceiveHandler DEFAULT_METADATA_PUSH_RECEIVE_HANDLER = metadata -> {
         log.info("Received metadata content is : {}", metadata);
         return Mono.empty();
     };
@@ -0,0 +1,52 @@
+package com.shf.rsocket.interceptor.metadata;
+
+import com.shf.rsocket.interceptor.OrderRSocketInterceptor;
+import com.shf.rsocket.spring.metadata.MetadataCachedPayload;
+import io.rsocket.Payload;
+import io.rsocket.RSocket;
+import io.rsocket.util.RSocketProxy;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * description :
+ * Wrap the request payloads as {@link MetadataCachedPayload}, so the log interceptor, the context interceptor
+ * and the `@Header` resolution share a single decoding of the metadata.
+ * Works with {@link com.shf.rsocket.spring.metadata.CachingMetadataExtractor}, and must run before all the others.
+ *
+ * @author songhaifeng
+ * @date 2026/10/18 14:26
+ */
+public class MetadataCacheInterceptor implements OrderRSocketInterceptor {
+
+    @Override
+    public int getOrder() {
+        return METADATA_CACHE_PRECEDENCE;
+    }
+
+    @Override
+    public RSocket apply(RSocket rSocket) {
+        return new RSocketProxy(rSocket) {
+            @Override
+            public Mono<Void> fireAndForget(Payload payload) {
+                return super.fireAndForget(MetadataCachedPayload.wrap(payload));
+            }
+
+            @Override
+            public Mono<Payload> requestResponse(Payload payload) {
+                return super.requestResponse(MetadataCachedPayload.wrap(payload));
+            }
+
+            @Override
+            public Flux<Payload> requestStream(Payload payload) {
+                return super.requestStream(MetadataCachedPayload.wrap(payload));
+            }
+
+            @Override
+            public Flux<Payload> requestChannel(Publisher<Payload> payloads) {
+                return super.requestChannel(Flux.from(payloads).map(MetadataCachedPayload::wrap));
+            }
+        };
+    }
+}
@@ -1,5 +1,7 @@
 package com.shf.rsocket.interceptor.metadata;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.util.CharsetUtil;
 import io.rsocket.Payload;
 import reactor.core.publisher.Mono;
 
@@ -19,4 +21,14 @@ public interface MetadataPushReceiveHandler {
      * @return Mono<Void>
      */
     Mono<Void> handle(String metadata);
+
+    /**
+     * Handle the raw metadata, a binary protocol overrides it. The default one decodes the metadata as a UTF-8 string.
+     *
+     * @param metadata {@link Payload#metadata()}, released once this method returns
+     * @return Mono<Void>
+     */
+    default Mono<Void> handle(ByteBuf metadata) {
+        return handle(metadata.toString(CharsetUtil.UTF_8));
+    }
 }
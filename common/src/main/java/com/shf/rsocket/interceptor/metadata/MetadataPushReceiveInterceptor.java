@@ -33,7 +33,7 @@ public class MetadataPushReceiveInterceptor implements OrderRSocketInterceptor {
     public RSocket apply(RSocket rSocket) {
         return new RSocketProxy(rSocket) {
             /**
-             * In production, here needs to decode metadata from a json to a java-bean.
+             * In production, here needs to decode metadata from a json to a java-bean, or a binary one like {@link com.shf.rsocket.invalidation.InvalidationMessage}.
              *
              * @param payload payload
              * @return Mono<Void>
@@ -42,7 +42,7 @@ public class MetadataPushReceiveInterceptor implements OrderRSocketInterceptor {
             public Mono<Void> metadataPush(Payload payload) {
                 try {
                     if (payload.metadata().readableBytes() > 0) {
-                        return metadataPushReceiveHandler.handle(payload.getMetadataUtf8());
+                        return metadataPushReceiveHandler.handle(payload.metadata());
                     }
                     return Mono.empty();
                 } finally {
@@ -0,0 +1,76 @@
+package com.shf.rsocket.interceptor.metrics;
+
+import io.rsocket.Payload;
+import io.rsocket.RSocket;
+import io.rsocket.util.RSocketProxy;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * description :
+ * Wrapper the {@link RSocket} for recording the {@link RSocketMeters} of the four interaction models.
+ * The route is read from the routing metadata of the (first) request payload, nothing else is decoded.
+ *
+ * @author songhaifeng
+ * @date 2026/10/18 19:35
+ */
+public class MetricsRSocket extends RSocketProxy {
+    private final RSocketMeters meters;
+
+    public MetricsRSocket(RSocket delegate, RSocketMeters meters) {
+        super(delegate);
+        this.meters = meters;
+    }
+
+    @Override
+    public Mono<Void> fireAndForget(Payload payload) {
+        return record(super.fireAndForget(payload), meters.of(RSocketMeters.Interaction.FIRE_AND_FORGET, payload));
+    }
+
+    @Override
+    public Mono<Payload> requestResponse(Payload payload) {
+        return record(super.requestResponse(payload), meters.of(RSocketMeters.Interaction.REQUEST_RESPONSE, payload));
+    }
+
+    @Override
+    public Flux<Payload> requestStream(Payload payload) {
+        RSocketMeters.RouteMeters routeMeters = meters.of(RSocketMeters.Interaction.REQUEST_STREAM, payload);
+        return record(super.requestStream(payload).doOnNext(p -> routeMeters.streamElement()), routeMeters);
+    }
+
+    /**
+     * The route is in the first payload, so the channel is opened when it arrives.
+     *
+     * @param payloads payloads
+     * @return Flux<Payload>
+     */
+    @Override
+    public Flux<Payload> requestChannel(Publisher<Payload> payloads) {
+        return Flux.from(payloads).switchOnFirst((first, requests) -> {
+            RSocketMeters.RouteMeters routeMeters = first.hasValue() ?
+                    meters.of(RSocketMeters.Interaction.REQUEST_CHANNEL, first.get()) : meters.of(RSocketMeters.Interaction.REQUEST_CHANNEL, (String) null);
+            Flux<Payload> responses = super.requestChannel(requests.doOnNext(p -> routeMeters.channelRequest()))
+                    .doOnNext(p -> routeMeters.channelResponse());
+            return record(responses, routeMeters);
+        });
+    }
+
+    private static <T> Mono<T> record(Mono<T> source, RSocketMeters.RouteMeters routeMeters) {
+        return Mono.defer(() -> {
+            long startTime = routeMeters.start();
+            return source.doOnSuccess(t -> routeMeters.success(startTime))
+                    .doOnError(throwable -> routeMeters.error(startTime))
+                    .doFinally(signalType -> routeMeters.finish());
+        });
+    }
+
+    private static <T> Flux<T> record(Flux<T> source, RSocketMeters.RouteMeters routeMeters) {
+        return Flux.defer(() -> {
+            long startTime = routeMeters.start();
+            return source.doOnComplete(() -> routeMeters.success(startTime))
+                    .doOnError(throwable -> routeMeters.error(startTime))
+                    .doFinally(signalType -> routeMeters.finish());
+        });
+    }
+}
@@ -0,0 +1,46 @@
+package com.shf.rsocket.interceptor.metrics;
+
+import com.shf.rsocket.interceptor.OrderRSocketInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.rsocket.RSocket;
+import io.rsocket.plugins.InterceptorRegistry;
+import lombok.NonNull;
+
+/**
+ * description :
+ * Record the {@link RSocketMeters} per route and interaction model, be used with {@link InterceptorRegistry#forRequester}
+ * or {@link InterceptorRegistry#forResponder}.
+ * <p>
+ * Share one instance per {@link MeterRegistry} and side, the in-flight gauges can't be registered twice.
+ *
+ * @author songhaifeng
+ * @date 2026/10/18 19:50
+ */
+public class MetricsRSocketInterceptor implements OrderRSocketInterceptor {
+    public static final int DEFAULT_MAX_ROUTES = 1000;
+
+    private final RSocketMeters meters;
+
+    public MetricsRSocketInterceptor(@NonNull MeterRegistry registry, @NonNull RSocketMeters.Side side) {
+        this(registry, side, DEFAULT_MAX_ROUTES);
+    }
+
+    public MetricsRSocketInterceptor(@NonNull MeterRegistry registry, @NonNull RSocketMeters.Side side, int maxRoutes) {
+        this.meters = new RSocketMeters(registry, side, maxRoutes);
+    }
+
+    @Override
+    public RSocket apply(RSocket rSocket) {
+        return new MetricsRSocket(rSocket, meters);
+    }
+
+    /**
+     * Outside the log interceptors, so the latency includes the logging.
+     *
+     * @return order value
+     */
+    @Override
+    public int getOrder() {
+        return METRICS_PRECEDENCE;
+    }
+}
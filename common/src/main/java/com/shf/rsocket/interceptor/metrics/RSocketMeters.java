@@ -0,0 +1,171 @@
+package com.shf.rsocket.interceptor.metrics;
+
+import com.shf.rsocket.interceptor.PayloadUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.rsocket.Payload;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * description :
+ * The meters of {@link MetricsRSocket}, registered once per route and interaction model, then looked up without allocation.
+ * <ul>
+ * <li>rsocket.requests: counter of the requests.</li>
+ * <li>rsocket.requests.errors: counter of the failed requests.</li>
+ * <li>rsocket.requests.active: gauge of the in-flight requests.</li>
+ * <li>rsocket.requests.latency: timer until the response(request/response) or the completion(other models),
+ * with percentiles, a percentile histogram and SLO buckets.</li>
+ * <li>rsocket.stream.elements: counter of the payloads responded by request/stream.</li>
+ * <li>rsocket.channel.payloads: counter of the payloads through request/channel, tagged by `direction`.</li>
+ * </ul>
+ * All are tagged by `side`, `route` and `interaction`. The routes beyond maxRoutes are aggregated as `other`.
+ *
+ * @author songhaifeng
+ * @date 2026/10/18 19:10
+ */
+public class RSocketMeters {
+    public static final String UNKNOWN_ROUTE = "unknown";
+    public static final String OTHER_ROUTE = "other";
+
+    static final Duration[] SERVICE_LEVEL_OBJECTIVES = {Duration.ofMillis(1), Duration.ofMillis(5), Duration.ofMillis(10),
+            Duration.ofMillis(50), Duration.ofMillis(100), Duration.ofMillis(500), Duration.ofSeconds(1)};
+
+    public enum Side {
+        REQUESTER, RESPONDER
+    }
+
+    public enum Interaction {
+        FIRE_AND_FORGET, REQUEST_RESPONSE, REQUEST_STREAM, REQUEST_CHANNEL;
+
+        private final String tag = name().toLowerCase();
+    }
+
+    private final MeterRegistry registry;
+    private final Side side;
+    private final String sideTag;
+    private final int maxRoutes;
+    private final AtomicInteger routes = new AtomicInteger();
+    @SuppressWarnings("unchecked")
+    private final ConcurrentMap<String, RouteMeters>[] meters = new ConcurrentMap[Interaction.values().length];
+
+    public RSocketMeters(MeterRegistry registry, Side side, int maxRoutes) {
+        this.registry = registry;
+        this.side = side;
+        this.sideTag = side.name().toLowerCase();
+        this.maxRoutes = maxRoutes;
+        for (int i = 0; i < meters.length; i++) {
+            meters[i] = new ConcurrentHashMap<>();
+        }
+    }
+
+    public Side getSide() {
+        return side;
+    }
+
+    /**
+     * @param interaction interaction model
+     * @param payload     the (first) request payload, only the routing metadata is decoded
+     * @return RouteMeters
+     */
+    public RouteMeters of(Interaction interaction, Payload payload) {
+        return of(interaction, PayloadUtils.extractRoute(payload));
+    }
+
+    public RouteMeters of(Interaction interaction, String route) {
+        ConcurrentMap<String, RouteMeters> routeMeters = meters[interaction.ordinal()];
+        String key = null == route ? UNKNOWN_ROUTE : route;
+        RouteMeters found = routeMeters.get(key);
+        if (null != found) {
+            return found;
+        }
+        // counted under the lock of the bin, so a route racing with itself is counted once
+        found = routeMeters.computeIfAbsent(key, k -> {
+            if (routes.incrementAndGet() > maxRoutes) {
+                routes.decrementAndGet();
+                // not mapped
+                return null;
+            }
+            return new RouteMeters(k, interaction);
+        });
+        return null != found ? found : routeMeters.computeIfAbsent(OTHER_ROUTE, k -> new RouteMeters(k, interaction));
+    }
+
+    /**
+     * The meters of a route and an interaction model.
+     */
+    public class RouteMeters {
+        private final Counter requests;
+        private final Counter errors;
+        private final AtomicInteger active = new AtomicInteger();
+        private final Timer latency;
+        private final Counter streamElements;
+        private final Counter channelInbound;
+        private final Counter channelOutbound;
+
+        private RouteMeters(String route, Interaction interaction) {
+            Tags tags = Tags.of("side", sideTag, "route", route, "interaction", interaction.tag);
+            this.requests = registry.counter("rsocket.requests", tags);
+            this.errors = registry.counter("rsocket.requests.errors", tags);
+            Gauge.builder("rsocket.requests.active", active, AtomicInteger::get).tags(tags).register(registry);
+            this.latency = Timer.builder("rsocket.requests.latency")
+                    .tags(tags)
+                    .publishPercentiles(0.5, 0.9, 0.99, 0.999)
+                    .publishPercentileHistogram()
+                    .serviceLevelObjectives(SERVICE_LEVEL_OBJECTIVES)
+                    .minimumExpectedValue(Duration.ofMillis(1))
+                    .maximumExpectedValue(Duration.ofSeconds(30))
+                    .register(registry);
+            this.streamElements = interaction == Interaction.REQUEST_STREAM ? registry.counter("rsocket.stream.elements", tags) : null;
+            this.channelInbound = interaction == Interaction.REQUEST_CHANNEL ? registry.counter("rsocket.channel.payloads", tags.and("direction", "inbound")) : null;
+            this.channelOutbound = interaction == Interaction.REQUEST_CHANNEL ? registry.counter("rsocket.channel.payloads", tags.and("direction", "outbound")) : null;
+        }
+
+        /**
+         * @return start time in nanos
+         */
+        long start() {
+            requests.increment();
+            active.incrementAndGet();
+            return System.nanoTime();
+        }
+
+        void success(long startTime) {
+            latency.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+        }
+
+        void error(long startTime) {
+            errors.increment();
+            latency.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+        }
+
+        void finish() {
+            active.decrementAndGet();
+        }
+
+        void streamElement() {
+            streamElements.increment();
+        }
+
+        /**
+         * Count the payloads sent by the requester, received by the responder.
+         */
+        void channelRequest() {
+            (side == Side.REQUESTER ? channelOutbound : channelInbound).increment();
+        }
+
+        /**
+         * Count the payloads received by the requester, sent by the responder.
+         */
+        void channelResponse() {
+            (side == Side.REQUESTER ? channelInbound : channelOutbound).increment();
+        }
+    }
+}
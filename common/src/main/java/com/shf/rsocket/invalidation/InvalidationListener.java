@@ -0,0 +1,20 @@
+package com.shf.rsocket.invalidation;
+
+/**
+ * description :
+ * A local cache evicted by the {@link InvalidationMessage} pushed from the server.
+ * Called on the transport thread, an implementation must not block.
+ *
+ * @author songhaifeng
+ * @date 2026/10/19 10:35
+ */
+@FunctionalInterface
+public interface InvalidationListener {
+
+    /**
+     * Evict the entries which match the message.
+     *
+     * @param message message
+     */
+    void onInvalidation(InvalidationMessage message);
+}
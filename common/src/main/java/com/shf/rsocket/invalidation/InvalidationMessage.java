@@ -0,0 +1,115 @@
+package com.shf.rsocket.invalidation;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.util.CharsetUtil;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.ToString;
+
+/**
+ * description :
+ * A change of an entity, sent by the server as the metadata of a metadata_push so the clients evict their local caches.
+ * <pre>
+ * | magic(1) | version(1) | type(1) | entity length(1) | entity(utf-8) | key(8), only for {@link Type#KEY} |
+ * </pre>
+ * The magic `0xC1` is never the first byte of a UTF-8 text, so the invalidations share the metadata_push with the text metadata.
+ *
+ * @author songhaifeng
+ * @date 2026/10/19 10:20
+ */
+@Getter
+@ToString
+@EqualsAndHashCode
+public final class InvalidationMessage {
+    private static final byte MAGIC = (byte) 0xC1;
+    private static final byte VERSION = 1;
+    private static final int HEADER_LENGTH = 4;
+    private static final int MAX_ENTITY_LENGTH = 255;
+
+    public enum Type {
+        /**
+         * One entity changed, e.g. "user id 42 changed".
+         */
+        KEY,
+        /**
+         * All the entities of a kind changed, e.g. "all users changed".
+         */
+        ALL
+    }
+
+    private final Type type;
+    private final String entity;
+    private final long key;
+
+    private InvalidationMessage(Type type, String entity, long key) {
+        if (ByteBufUtil.utf8Bytes(entity) > MAX_ENTITY_LENGTH) {
+            throw new IllegalArgumentException("The entity is longer than " + MAX_ENTITY_LENGTH + " bytes: " + entity);
+        }
+        this.type = type;
+        this.entity = entity;
+        this.key = key;
+    }
+
+    public static InvalidationMessage key(@NonNull String entity, long key) {
+        return new InvalidationMessage(Type.KEY, entity, key);
+    }
+
+    public static InvalidationMessage all(@NonNull String entity) {
+        return new InvalidationMessage(Type.ALL, entity, 0);
+    }
+
+    public boolean matches(String entity, long key) {
+        return this.entity.equals(entity) && (type == Type.ALL || this.key == key);
+    }
+
+    public ByteBuf encode(ByteBufAllocator allocator) {
+        int entityLength = ByteBufUtil.utf8Bytes(entity);
+        ByteBuf byteBuf = allocator.buffer(HEADER_LENGTH + entityLength + (type == Type.KEY ? Long.BYTES : 0));
+        byteBuf.writeByte(MAGIC)
+                .writeByte(VERSION)
+                .writeByte(type.ordinal())
+                .writeByte(entityLength);
+        ByteBufUtil.writeUtf8(byteBuf, entity);
+        if (type == Type.KEY) {
+            byteBuf.writeLong(key);
+        }
+        return byteBuf;
+    }
+
+    public static boolean isInvalidation(ByteBuf metadata) {
+        return metadata.readableBytes() >= HEADER_LENGTH && metadata.getByte(metadata.readerIndex()) == MAGIC;
+    }
+
+    /**
+     * Decode without moving the reader index.
+     *
+     * @param metadata metadata of a metadata_push
+     * @return InvalidationMessage, or null if the metadata is not an invalidation
+     * @throws IllegalArgumentException if the metadata is a malformed or unsupported invalidation
+     */
+    public static InvalidationMessage decode(ByteBuf metadata) {
+        if (!isInvalidation(metadata)) {
+            return null;
+        }
+        int index = metadata.readerIndex();
+        byte version = metadata.getByte(index + 1);
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported invalidation version: " + version);
+        }
+        int typeOrdinal = metadata.getUnsignedByte(index + 2);
+        if (typeOrdinal >= Type.values().length) {
+            throw new IllegalArgumentException("Unknown invalidation type: " + typeOrdinal);
+        }
+        Type type = Type.values()[typeOrdinal];
+        int entityLength = metadata.getUnsignedByte(index + 3);
+        int length = HEADER_LENGTH + entityLength + (type == Type.KEY ? Long.BYTES : 0);
+        if (metadata.readableBytes() < length) {
+            throw new IllegalArgumentException("Truncated invalidation, " + metadata.readableBytes() + " of " + length + " bytes");
+        }
+        String entity = metadata.toString(index + HEADER_LENGTH, entityLength, CharsetUtil.UTF_8);
+        return type == Type.KEY ? key(entity, metadata.getLong(index + HEADER_LENGTH + entityLength)) : all(entity);
+    }
+}
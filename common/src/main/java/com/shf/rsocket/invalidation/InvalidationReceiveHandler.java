@@ -0,0 +1,58 @@
+package com.shf.rsocket.invalidation;
+
+import com.shf.rsocket.interceptor.metadata.MetadataPushReceiveHandler;
+import io.netty.buffer.ByteBuf;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * description :
+ * Decode the {@link InvalidationMessage} of a metadata_push and pass it to all the {@link InvalidationListener}s,
+ * any other metadata is handled by the next handler.
+ *
+ * @author songhaifeng
+ * @date 2026/10/19 10:40
+ */
+@Slf4j
+public class InvalidationReceiveHandler implements MetadataPushReceiveHandler {
+    private final List<InvalidationListener> listeners;
+    private final MetadataPushReceiveHandler next;
+
+    public InvalidationReceiveHandler(@NonNull Collection<InvalidationListener> listeners, @NonNull MetadataPushReceiveHandler next) {
+        this.listeners = new ArrayList<>(listeners);
+        this.next = next;
+    }
+
+    @Override
+    public Mono<Void> handle(String metadata) {
+        return next.handle(metadata);
+    }
+
+    @Override
+    public Mono<Void> handle(ByteBuf metadata) {
+        InvalidationMessage message;
+        try {
+            message = InvalidationMessage.decode(metadata);
+        } catch (IllegalArgumentException e) {
+            log.warn("Drop the invalidation: {}", e.getMessage());
+            return Mono.empty();
+        }
+        if (null == message) {
+            return next.handle(metadata);
+        }
+        log.debug("Received invalidation: {}", message);
+        for (InvalidationListener listener : listeners) {
+            try {
+                listener.onInvalidation(message);
+            } catch (RuntimeException e) {
+                log.error("Invalidation listener {} failed on {}", listener, message, e);
+            }
+        }
+        return Mono.empty();
+    }
+}
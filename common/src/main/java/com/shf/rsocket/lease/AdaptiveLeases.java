@@ -0,0 +1,252 @@
+package com.shf.rsocket.lease;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.rsocket.Payload;
+import io.rsocket.RSocket;
+import io.rsocket.core.RSocketServer;
+import io.rsocket.lease.Lease;
+import io.rsocket.lease.Leases;
+import io.rsocket.plugins.SocketAcceptorInterceptor;
+import io.rsocket.util.RSocketProxy;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.reactivestreams.Publisher;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.io.Closeable;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Description:
+ * Issue the leases of a server by the load it really has, instead of a fixed number of requests.
+ * <p>
+ * Every `window`, the samples of all the connections({@link ConnectionLeaseStats}) update an {@link AimdLimit} of
+ * the concurrent requests of the server. By Little's law, the limit at the average latency is the budget of requests
+ * per window. The budget is split between the clients by {@link FairShare}, weighted per client id, then equally between
+ * the connections of a client, each connection receives its part as a lease of `2 * window`.
+ * So the leases grow while the latency stays at the baseline, and shrink as soon as the requests start queueing.
+ * <p>
+ * The client id is the data of the setup payload, the same as the one received by a `@ConnectMapping` method.
+ * <p>
+ * Register both {@link #newLeases()} by {@link RSocketServer#lease} and {@link #statsInterceptor()} by
+ * {@link io.rsocket.plugins.InterceptorRegistry#forSocketAcceptor}: the server creates the leases of a connection and
+ * calls its acceptor in the same call on the same thread, so the interceptor picks the statistics of the connection from a thread local.
+ *
+ * @author songhaifeng
+ * @date 2026/10/19 14:50
+ */
+@Slf4j
+public class AdaptiveLeases implements Closeable {
+    private static final ThreadLocal<ConnectionLeaseStats> SETUP_STATS = new ThreadLocal<>();
+
+    private final ServerRoleEnum serverRole;
+    private final AimdLimit limit;
+    private final Duration window;
+    private final int ttlMillis;
+    private final FairShare fairShare;
+    private final Set<ConnectionLeaseStats> connections = ConcurrentHashMap.newKeySet();
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final Disposable updates;
+    private volatile long budget;
+
+    public AdaptiveLeases(@NonNull ServerRoleEnum serverRole, @NonNull AimdLimit limit, @NonNull Duration window,
+                          @NonNull MeterRegistry registry) {
+        this(serverRole, limit, window, Collections.emptyMap(), registry);
+    }
+
+    /**
+     * @param clientWeights weight of the budget per client id, 1 by default
+     */
+    public AdaptiveLeases(@NonNull ServerRoleEnum serverRole, @NonNull AimdLimit limit, @NonNull Duration window,
+                          @NonNull Map<String, Integer> clientWeights, @NonNull MeterRegistry registry) {
+        this.serverRole = serverRole;
+        this.limit = limit;
+        this.window = window;
+        this.fairShare = new FairShare(clientWeights);
+        this.ttlMillis = (int) Math.min(Integer.MAX_VALUE, window.toMillis() * 2);
+        this.budget = limit.getLimit();
+        Gauge.builder("rsocket.lease.limit", limit, AimdLimit::getLimit)
+                .description("Concurrency limit of the server")
+                .register(registry);
+        Gauge.builder("rsocket.lease.budget", this, leases -> leases.budget)
+                .description("Requests allowed per window to all the connections")
+                .register(registry);
+        Gauge.builder("rsocket.lease.connections", connections, Set::size)
+                .register(registry);
+        FunctionCounter.builder("rsocket.lease.requests", accepted, LongAdder::sum)
+                .tag("result", "accepted")
+                .register(registry);
+        FunctionCounter.builder("rsocket.lease.requests", rejected, LongAdder::sum)
+                .tag("result", "rejected")
+                .register(registry);
+        this.updates = Flux.interval(window, window)
+                .onBackpressureDrop()
+                .subscribe(tick -> update());
+    }
+
+    /**
+     * The leases of a new connection, used as {@code rSocketServer.lease(adaptiveLeases::newLeases)}.
+     *
+     * @return Leases
+     */
+    public Leases<ConnectionLeaseStats> newLeases() {
+        // a fair part of the budget until the next window
+        ConnectionLeaseStats stats = new ConnectionLeaseStats((int) Math.max(1, budget / (connections.size() + 1)));
+        SETUP_STATS.set(stats);
+        return Leases.<ConnectionLeaseStats>create()
+                .stats(stats)
+                .receiver(new LeaseReceiver(serverRole))
+                .sender(statsOption -> Flux.interval(Duration.ZERO, window)
+                        .onBackpressureLatest()
+                        .map(tick -> {
+                            int requests = stats.getAllowedRequests();
+                            log.debug("{} : responder sends new leases to {}: ttl: {}, requests: {}", serverRole, stats.getClientId(), ttlMillis, requests);
+                            return Lease.create(ttlMillis, requests);
+                        })
+                        .doFinally(signal -> connections.remove(stats)));
+    }
+
+    /**
+     * Measure the requests of the connections created by {@link #newLeases()}, the others are left as they are.
+     * A connection takes part in the budget once accepted, the leases are sent from then on, until it is closed.
+     *
+     * @return SocketAcceptorInterceptor
+     */
+    public SocketAcceptorInterceptor statsInterceptor() {
+        return socketAcceptor -> (setupPayload, sendingSocket) -> {
+            ConnectionLeaseStats stats = SETUP_STATS.get();
+            SETUP_STATS.remove();
+            if (null != stats) {
+                stats.setClientId(setupPayload.getDataUtf8());
+            }
+            Mono<RSocket> acceptingSocket = socketAcceptor.accept(setupPayload, sendingSocket);
+            if (null == stats) {
+                return acceptingSocket;
+            }
+            return acceptingSocket.map(rSocket -> {
+                connections.add(stats);
+                return new LeaseStatsRSocket(rSocket, stats);
+            });
+        };
+    }
+
+    public long getBudget() {
+        return budget;
+    }
+
+    /**
+     * Update the limit by the last window of all the connections, and size the next leases.
+     */
+    private void update() {
+        long windowAccepted = 0;
+        long windowRejected = 0;
+        long samples = 0;
+        long totalLatencyNanos = 0;
+        int maxInFlight = 0;
+        Map<String, FairShare.Client> clients = new HashMap<>();
+        Map<ConnectionLeaseStats, FairShare.Client> connectionClients = new HashMap<>();
+        for (ConnectionLeaseStats stats : connections) {
+            ConnectionLeaseStats.Window connectionWindow = stats.nextWindow();
+            FairShare.Client client = clients.computeIfAbsent(stats.getClientId(),
+                    clientId -> new FairShare.Client(clientId, fairShare.weight(clientId)));
+            client.add(connectionWindow.getAccepted(), stats.getAllowedRequests());
+            connectionClients.put(stats, client);
+            windowAccepted += connectionWindow.getAccepted();
+            windowRejected += connectionWindow.getRejected();
+            samples += connectionWindow.getLatencySamples();
+            totalLatencyNanos += connectionWindow.getTotalLatencyNanos();
+            maxInFlight += connectionWindow.getMaxInFlight();
+        }
+        accepted.add(windowAccepted);
+        rejected.add(windowRejected);
+        long latencyNanos = samples == 0 ? 0 : totalLatencyNanos / samples;
+        int concurrency = limit.update(latencyNanos, maxInFlight, windowRejected);
+        budget = budget(concurrency, latencyNanos);
+        fairShare.allocate(budget, clients.values());
+        connectionClients.forEach((stats, client) ->
+                stats.setAllowedRequests((int) Math.min(Integer.MAX_VALUE, client.getAllowance() / client.getConnections())));
+        log.debug("{} : lease window accepted: {}, rejected: {}, latency: {}us, baseline: {}us, max in-flight: {}, limit: {}, budget: {}",
+                serverRole, windowAccepted, windowRejected, TimeUnit.NANOSECONDS.toMicros(latencyNanos),
+                TimeUnit.NANOSECONDS.toMicros(limit.getBaselineNanos()), maxInFlight, concurrency, budget);
+        if (log.isDebugEnabled()) {
+            clients.values().forEach(client -> log.debug("{} : client {} weight: {}, connections: {}, used: {}/{}, allowed: {}",
+                    serverRole, client.getClientId(), client.getWeight(), client.getConnections(), client.getUsed(),
+                    client.getLastAllowance(), client.getAllowance()));
+        }
+    }
+
+    private long budget(int concurrency, long latencyNanos) {
+        long baselineNanos = limit.getBaselineNanos();
+        long perRequestNanos = latencyNanos > 0 ? latencyNanos : baselineNanos;
+        if (perRequestNanos <= 0 || perRequestNanos == Long.MAX_VALUE) {
+            // no sample yet, allow the limit itself
+            return concurrency;
+        }
+        return (long) Math.max(1, (double) concurrency * window.toNanos() / perRequestNanos);
+    }
+
+    @Override
+    public void close() {
+        updates.dispose();
+    }
+
+    /**
+     * Count the in-flight requests of a connection, and sample the latency of its request/response.
+     */
+    private static class LeaseStatsRSocket extends RSocketProxy {
+        private final ConnectionLeaseStats stats;
+
+        LeaseStatsRSocket(RSocket source, ConnectionLeaseStats stats) {
+            super(source);
+            this.stats = stats;
+        }
+
+        @Override
+        public Mono<Payload> requestResponse(Payload payload) {
+            return Mono.defer(() -> {
+                long start = System.nanoTime();
+                stats.onStart();
+                return super.requestResponse(payload)
+                        .doFinally(signal -> stats.onComplete(signal == SignalType.ON_COMPLETE
+                                ? System.nanoTime() - start : -1));
+            });
+        }
+
+        @Override
+        public Mono<Void> fireAndForget(Payload payload) {
+            return Mono.defer(() -> {
+                stats.onStart();
+                return super.fireAndForget(payload).doFinally(signal -> stats.onComplete(-1));
+            });
+        }
+
+        @Override
+        public Flux<Payload> requestStream(Payload payload) {
+            return Flux.defer(() -> {
+                stats.onStart();
+                return super.requestStream(payload).doFinally(signal -> stats.onComplete(-1));
+            });
+        }
+
+        @Override
+        public Flux<Payload> requestChannel(Publisher<Payload> payloads) {
+            return Flux.defer(() -> {
+                stats.onStart();
+                return super.requestChannel(payloads).doFinally(signal -> stats.onComplete(-1));
+            });
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.shf.rsocket.lease;
+
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Description:
+ * A concurrency limit by additive increase and multiplicative decrease, updated once per window with the latency of the window.
+ * <p>
+ * The baseline is the lowest window latency seen, the latency without queueing. When the latency of a window exceeds
+ * `latencyTolerance` times the baseline, the requests are queueing and the limit is multiplied by `backoffRatio`.
+ * Otherwise the limit grows by `increase`, but only if it was used: the in-flight requests reached half of it,
+ * or requests were rejected by the lease. The baseline drifts up by `baselineDrift` per window, so it follows
+ * a server which became slower for good.
+ *
+ * @author songhaifeng
+ * @date 2026/10/19 14:10
+ */
+@Getter
+public class AimdLimit {
+    private final int minLimit;
+    private final int maxLimit;
+    private final int increase;
+    private final double backoffRatio;
+    private final double latencyTolerance;
+    private final double baselineDrift;
+
+    private volatile int limit;
+    private volatile long baselineNanos = Long.MAX_VALUE;
+
+    @Builder
+    private AimdLimit(int initialLimit, int minLimit, int maxLimit, int increase, double backoffRatio, double latencyTolerance,
+                      double baselineDrift) {
+        if (minLimit < 1 || maxLimit < minLimit || initialLimit < minLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Requires 1 <= minLimit <= initialLimit <= maxLimit");
+        }
+        if (backoffRatio <= 0 || backoffRatio >= 1 || latencyTolerance <= 1) {
+            throw new IllegalArgumentException("Requires 0 < backoffRatio < 1 and latencyTolerance > 1");
+        }
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.increase = Math.max(1, increase);
+        this.backoffRatio = backoffRatio;
+        this.latencyTolerance = latencyTolerance;
+        this.baselineDrift = Math.max(0, baselineDrift);
+    }
+
+    public static AimdLimit defaults() {
+        return AimdLimit.builder()
+                .initialLimit(20)
+                .minLimit(1)
+                .maxLimit(1000)
+                .increase(1)
+                .backoffRatio(0.9)
+                .latencyTolerance(2.0)
+                .baselineDrift(0.01)
+                .build();
+    }
+
+    /**
+     * Update the limit by the samples of a window, called by one thread at a time.
+     *
+     * @param latencyNanos average latency of the window, 0 without a sample
+     * @param maxInFlight  max concurrent requests of the window
+     * @param rejected     requests rejected by the lease in the window
+     * @return the new limit
+     */
+    public int update(long latencyNanos, int maxInFlight, long rejected) {
+        if (latencyNanos > 0) {
+            long baseline = baselineNanos == Long.MAX_VALUE ? latencyNanos : (long) (baselineNanos * (1 + baselineDrift));
+            baselineNanos = Math.min(baseline, latencyNanos);
+            if (latencyNanos > baselineNanos * latencyTolerance) {
+                limit = Math.max(minLimit, (int) (limit * backoffRatio));
+                return limit;
+            }
+        }
+        if (maxInFlight * 2 >= limit || rejected > 0) {
+            limit = Math.min(maxLimit, limit + increase);
+        }
+        return limit;
+    }
+}
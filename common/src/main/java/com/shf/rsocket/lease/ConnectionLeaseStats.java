@@ -0,0 +1,109 @@
+package com.shf.rsocket.lease;
+
+import io.rsocket.lease.LeaseStats;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Description:
+ * The responder statistics of a connection with leases: the requests accepted and rejected by the lease from {@link LeaseStats},
+ * the in-flight requests and the latency of request/response from {@link AdaptiveLeases#statsInterceptor()}.
+ * The latency of a connection above the baseline of the server is its queueing.
+ * <p>
+ * The connection also keeps the client id of its setup payload, and the requests allowed by its next lease.
+ *
+ * @author songhaifeng
+ * @date 2026/10/19 14:30
+ */
+public class ConnectionLeaseStats implements LeaseStats {
+    private final LongAdder accepted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder latencyNanos = new LongAdder();
+    private final LongAdder latencySamples = new LongAdder();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+    private volatile String clientId = "";
+    private volatile int allowedRequests;
+
+    ConnectionLeaseStats(int allowedRequests) {
+        this.allowedRequests = allowedRequests;
+    }
+
+    @Override
+    public void onEvent(EventType eventType) {
+        switch (eventType) {
+            case ACCEPT:
+                accepted.increment();
+                break;
+            case REJECT:
+                rejected.increment();
+                break;
+            default:
+                // TERMINATE, the stats leave the budget once the leases of the connection stop
+                break;
+        }
+    }
+
+    void onStart() {
+        int current = inFlight.incrementAndGet();
+        maxInFlight.accumulateAndGet(current, Math::max);
+    }
+
+    /**
+     * @param latencyNanos latency of the request, negative to skip the sample(a stream, an error)
+     */
+    void onComplete(long latencyNanos) {
+        inFlight.decrementAndGet();
+        if (latencyNanos >= 0) {
+            this.latencyNanos.add(latencyNanos);
+            latencySamples.increment();
+        }
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public String getClientId() {
+        return clientId;
+    }
+
+    void setClientId(String clientId) {
+        this.clientId = clientId;
+    }
+
+    public int getAllowedRequests() {
+        return allowedRequests;
+    }
+
+    void setAllowedRequests(int allowedRequests) {
+        this.allowedRequests = allowedRequests;
+    }
+
+    /**
+     * Take the samples since the previous window, called by one thread at a time.
+     *
+     * @return Window
+     */
+    Window nextWindow() {
+        long samples = latencySamples.sumThenReset();
+        long latency = latencyNanos.sumThenReset();
+        return new Window(accepted.sumThenReset(), rejected.sumThenReset(), maxInFlight.getAndSet(inFlight.get()),
+                samples, latency);
+    }
+
+    @Getter
+    @ToString
+    @AllArgsConstructor
+    static class Window {
+        private final long accepted;
+        private final long rejected;
+        private final int maxInFlight;
+        private final long latencySamples;
+        private final long totalLatencyNanos;
+    }
+}
@@ -0,0 +1,115 @@
+package com.shf.rsocket.lease;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Description:
+ * Split a request budget between the clients by weight, the weighted max-min fair share.
+ * <p>
+ * Each client is entitled to `budget * weight / total weight`. A client which didn't use all its last allowance only needs
+ * twice what it used, the rest of its share goes to the clients which did, again by weight. So a noisy client takes the spare
+ * capacity of the quiet ones, but never more than its own share from a client which needs it. When no client needs more,
+ * what is left is spread over all of them by weight.
+ *
+ * @author songhaifeng
+ * @date 2026/10/19 16:10
+ */
+class FairShare {
+    private final Map<String, Integer> weights;
+
+    FairShare(Map<String, Integer> weights) {
+        weights.forEach((clientId, weight) -> {
+            if (null == weight || weight < 1) {
+                throw new IllegalArgumentException("The weight of client " + clientId + " must be at least 1");
+            }
+        });
+        this.weights = Collections.unmodifiableMap(weights);
+    }
+
+    int weight(String clientId) {
+        return weights.getOrDefault(clientId, 1);
+    }
+
+    /**
+     * Set the allowance of every client, `budget` requests in total, each client gets at least one request per connection.
+     *
+     * @param budget  requests of all the clients
+     * @param clients clients
+     */
+    void allocate(long budget, Collection<Client> clients) {
+        List<Client> unallocated = new ArrayList<>(clients);
+        long remaining = budget;
+        boolean capped = true;
+        // cap the clients whose need is below their share, until the share of the others no longer grows
+        while (capped && !unallocated.isEmpty()) {
+            capped = false;
+            long totalWeight = unallocated.stream().mapToLong(client -> client.weight).sum();
+            List<Client> next = new ArrayList<>(unallocated.size());
+            long allocated = 0;
+            for (Client client : unallocated) {
+                long share = remaining * client.weight / totalWeight;
+                if (client.need() <= share) {
+                    client.allowance = client.need();
+                    allocated += client.allowance;
+                    capped = true;
+                } else {
+                    next.add(client);
+                }
+            }
+            remaining -= allocated;
+            unallocated = next;
+        }
+        if (unallocated.isEmpty()) {
+            // nobody needs more, spread what is left over all the clients
+            long totalWeight = clients.stream().mapToLong(client -> client.weight).sum();
+            for (Client client : clients) {
+                client.allowance += remaining * client.weight / Math.max(1, totalWeight);
+            }
+        } else {
+            long totalWeight = unallocated.stream().mapToLong(client -> client.weight).sum();
+            for (Client client : unallocated) {
+                client.allowance = remaining * client.weight / totalWeight;
+            }
+        }
+        for (Client client : clients) {
+            client.allowance = Math.max(client.allowance, client.connections);
+        }
+    }
+
+    /**
+     * The connections of a client id in a window.
+     */
+    @Getter
+    static class Client {
+        private final String clientId;
+        private final int weight;
+        private int connections;
+        private long used;
+        private long lastAllowance;
+        private long allowance;
+
+        Client(String clientId, int weight) {
+            this.clientId = clientId;
+            this.weight = weight;
+        }
+
+        void add(long accepted, long allowed) {
+            connections++;
+            used += accepted;
+            lastAllowance += allowed;
+        }
+
+        /**
+         * Unbounded when the last allowance was used up, the real need is unknown.
+         */
+        long need() {
+            return used >= lastAllowance ? Long.MAX_VALUE : Math.max(connections, used * 2);
+        }
+    }
+}
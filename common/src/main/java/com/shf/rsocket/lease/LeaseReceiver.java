@@ -27,17 +27,31 @@ import reactor.core.publisher.Flux;
 public class LeaseReceiver implements Consumer<Flux<Lease>> {
 
     private final ServerRoleEnum serverRole;
+    private final Consumer<Lease> onLease;
 
     public LeaseReceiver(ServerRoleEnum serverRole) {
+        this(serverRole, lease -> {
+        });
+    }
+
+    /**
+     * @param serverRole serverRole
+     * @param onLease    receives every lease, the same instance as the one used by the requester, so its remaining requests are up to date
+     */
+    public LeaseReceiver(ServerRoleEnum serverRole, Consumer<Lease> onLease) {
         this.serverRole = serverRole;
+        this.onLease = onLease;
     }
 
     @Override
     public void accept(Flux<Lease> receivedLeases) {
         receivedLeases.subscribe(
-                lease -> log.debug("{} : requester receives leases - ttl: {}, requests: {}, availability: {}",
-                        serverRole, lease.getTimeToLiveMillis(), lease.getAllowedRequests(), lease.availability()
-                )
+                lease -> {
+                    log.debug("{} : requester receives leases - ttl: {}, requests: {}, availability: {}",
+                            serverRole, lease.getTimeToLiveMillis(), lease.getAllowedRequests(), lease.availability()
+                    );
+                    onLease.accept(lease);
+                }
         );
 
 
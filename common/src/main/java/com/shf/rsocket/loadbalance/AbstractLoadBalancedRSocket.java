@@ -0,0 +1,167 @@
+package com.shf.rsocket.loadbalance;
+
+import io.rsocket.Payload;
+import io.rsocket.RSocket;
+import lombok.NonNull;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoProcessor;
+import reactor.core.publisher.SignalType;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * description :
+ * An {@link RSocket} over several connections, each request goes to the {@link LoadBalancedTarget} chosen by {@link #select(long)}.
+ * The targets count the pending requests and sample the latency of request/response for the choice.
+ * <p>
+ * Disconnected targets leave the rotation and reconnect by themselves. Wrap it by
+ * {@code RSocketRequester.wrap(rSocket, dataMimeType, metadataMimeType, strategies)} for the messaging API.
+ *
+ * @author songhaifeng
+ * @date 2026/10/19 18:40
+ */
+public abstract class AbstractLoadBalancedRSocket implements RSocket {
+    private final List<LoadBalancedTarget> targets;
+    private final MonoProcessor<Void> connected = MonoProcessor.create();
+    private final MonoProcessor<Void> onClose = MonoProcessor.create();
+
+    protected AbstractLoadBalancedRSocket(@NonNull List<LoadBalancedTarget> targets) {
+        if (targets.isEmpty()) {
+            throw new IllegalArgumentException("At least one target is required.");
+        }
+        this.targets = Collections.unmodifiableList(new ArrayList<>(targets));
+        this.targets.forEach(target -> target.start(connected::onComplete));
+    }
+
+    public List<LoadBalancedTarget> getTargets() {
+        return targets;
+    }
+
+    /**
+     * @return completes once a target is connected
+     */
+    public Mono<Void> connected() {
+        return connected;
+    }
+
+    @Override
+    public Mono<Void> fireAndForget(Payload payload) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            LoadBalancedTarget target = select(start);
+            RSocket rSocket = null == target ? null : target.rSocket();
+            if (null == rSocket) {
+                return noTarget(payload);
+            }
+            target.onStart();
+            return rSocket.fireAndForget(payload)
+                    .doFinally(signal -> target.onEnd());
+        });
+    }
+
+    @Override
+    public Mono<Payload> requestResponse(Payload payload) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            LoadBalancedTarget target = select(start);
+            RSocket rSocket = null == target ? null : target.rSocket();
+            if (null == rSocket) {
+                return noTarget(payload);
+            }
+            target.onStart();
+            return rSocket.requestResponse(payload)
+                    .doOnError(error -> target.onError(start, error))
+                    .doFinally(signal -> onFinally(target, start, signal));
+        });
+    }
+
+    @Override
+    public Flux<Payload> requestStream(Payload payload) {
+        return Flux.defer(() -> {
+            long start = System.nanoTime();
+            LoadBalancedTarget target = select(start);
+            RSocket rSocket = null == target ? null : target.rSocket();
+            if (null == rSocket) {
+                return this.<Payload>noTarget(payload).flux();
+            }
+            target.onStart();
+            return rSocket.requestStream(payload)
+                    .doFinally(signal -> target.onEnd());
+        });
+    }
+
+    @Override
+    public Flux<Payload> requestChannel(Publisher<Payload> payloads) {
+        return Flux.defer(() -> {
+            long start = System.nanoTime();
+            LoadBalancedTarget target = select(start);
+            RSocket rSocket = null == target ? null : target.rSocket();
+            if (null == rSocket) {
+                return Flux.error(noTargetError());
+            }
+            target.onStart();
+            return rSocket.requestChannel(payloads)
+                    .doFinally(signal -> target.onEnd());
+        });
+    }
+
+    @Override
+    public Mono<Void> metadataPush(Payload payload) {
+        return Mono.defer(() -> {
+            long start = System.nanoTime();
+            LoadBalancedTarget target = select(start);
+            RSocket rSocket = null == target ? null : target.rSocket();
+            return null == rSocket ? noTarget(payload) : rSocket.metadataPush(payload);
+        });
+    }
+
+    @Override
+    public double availability() {
+        return targets.stream().mapToDouble(LoadBalancedTarget::availability).max().orElse(0);
+    }
+
+    @Override
+    public Mono<Void> onClose() {
+        return onClose;
+    }
+
+    @Override
+    public void dispose() {
+        targets.forEach(LoadBalancedTarget::dispose);
+        onClose.onComplete();
+    }
+
+    @Override
+    public boolean isDisposed() {
+        return onClose.isTerminated();
+    }
+
+    /**
+     * Choose the target of a request.
+     *
+     * @param now {@link System#nanoTime()}
+     * @return a connected target, null if none is connected
+     */
+    protected abstract LoadBalancedTarget select(long now);
+
+    private static void onFinally(LoadBalancedTarget target, long start, SignalType signal) {
+        if (signal == SignalType.ON_COMPLETE) {
+            target.onComplete(start);
+        } else if (signal == SignalType.CANCEL) {
+            target.onEnd();
+        }
+    }
+
+    private <T> Mono<T> noTarget(Payload payload) {
+        payload.release();
+        return Mono.error(noTargetError());
+    }
+
+    private IllegalStateException noTargetError() {
+        return new IllegalStateException("No target is connected: " + targets);
+    }
+}
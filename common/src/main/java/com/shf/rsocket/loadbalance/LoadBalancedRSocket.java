@@ -0,0 +1,73 @@
+package com.shf.rsocket.loadbalance;
+
+import io.rsocket.RSocket;
+import lombok.NonNull;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * description :
+ * An {@link RSocket} over the connections to several server instances, each request goes to one of them.
+ * <p>
+ * A request picks two targets at random and goes to the cheaper one(power of two choices), see {@link LoadBalancedTarget#cost(long)}:
+ * the latency(peak EWMA) times the pending requests, divided by the availability which includes the lease of the connection.
+ * So a slow or busy instance receives less, an instance without lease or connection receives nothing.
+ * Comparing two random targets rather than all of them keeps the choice cheap, and avoids sending every request
+ * to the same best target between two updates of its cost.
+ *
+ * @author songhaifeng
+ * @date 2026/10/19 17:30
+ */
+public class LoadBalancedRSocket extends AbstractLoadBalancedRSocket {
+
+    public LoadBalancedRSocket(@NonNull List<LoadBalancedTarget> targets) {
+        super(targets);
+    }
+
+    /**
+     * Power of two choices. If neither pick is available, the cheapest target, or a connected one without lease
+     * which will reject the request like a single connection does. Null if no target is connected.
+     *
+     * @param now {@link System#nanoTime()}
+     * @return target
+     */
+    @Override
+    protected LoadBalancedTarget select(long now) {
+        List<LoadBalancedTarget> targets = getTargets();
+        int size = targets.size();
+        LoadBalancedTarget selected;
+        double lowest;
+        if (size == 1) {
+            selected = targets.get(0);
+            lowest = selected.cost(now);
+        } else {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            int first = random.nextInt(size);
+            int second = random.nextInt(size - 1);
+            if (second >= first) {
+                second++;
+            }
+            LoadBalancedTarget a = targets.get(first);
+            LoadBalancedTarget b = targets.get(second);
+            double costA = a.cost(now);
+            double costB = b.cost(now);
+            selected = costA <= costB ? a : b;
+            lowest = Math.min(costA, costB);
+        }
+        if (lowest < Double.POSITIVE_INFINITY) {
+            return selected;
+        }
+        LoadBalancedTarget connected = null;
+        for (LoadBalancedTarget target : targets) {
+            double cost = target.cost(now);
+            if (cost < lowest) {
+                lowest = cost;
+                selected = target;
+            } else if (null == connected && target.isConnected()) {
+                connected = target;
+            }
+        }
+        return lowest < Double.POSITIVE_INFINITY ? selected : connected;
+    }
+}
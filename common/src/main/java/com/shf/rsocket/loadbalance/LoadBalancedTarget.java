@@ -0,0 +1,200 @@
+package com.shf.rsocket.loadbalance;
+
+import io.rsocket.RSocket;
+import io.rsocket.exceptions.ApplicationErrorException;
+import io.rsocket.lease.Lease;
+import io.rsocket.lease.MissingLeaseException;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * description :
+ * A server instance of {@link LoadBalancedRSocket}: its connection, the last lease it sent, the pending requests and the latency.
+ * <p>
+ * The target connects as soon as it starts, and reconnects with an exponential backoff each time its connection
+ * fails or is closed. Meanwhile it is unavailable, so it receives no request.
+ *
+ * @author songhaifeng
+ * @date 2026/10/19 17:10
+ */
+@Slf4j
+public final class LoadBalancedTarget {
+    /**
+     * The latency counted for a failed request, so a target doesn't look fast by failing fast.
+     */
+    private static final long ERROR_PENALTY_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final String name;
+    private final Mono<RSocket> connection;
+    private final PeakEwma latency;
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Duration minBackoff;
+    private final Duration maxBackoff;
+
+    private volatile RSocket rSocket;
+    private volatile Lease lease;
+    private volatile Disposable connecting;
+    private volatile boolean disposed;
+
+    /**
+     * @param name              name of the target, such as its address
+     * @param connectionFactory creates the connection, each subscription to the returned {@link Mono} connects again.
+     *                          The argument receives the leases of the connection, see {@link com.shf.rsocket.lease.LeaseReceiver}
+     * @param latencyDecay      how fast the past latency is forgotten
+     * @param minBackoff        first delay before reconnecting
+     * @param maxBackoff        max delay before reconnecting
+     */
+    public LoadBalancedTarget(@NonNull String name, @NonNull Function<Consumer<Lease>, Mono<RSocket>> connectionFactory,
+                              @NonNull Duration latencyDecay, @NonNull Duration minBackoff, @NonNull Duration maxBackoff) {
+        this.name = name;
+        this.connection = connectionFactory.apply(received -> this.lease = received);
+        this.latency = new PeakEwma(latencyDecay.toNanos());
+        this.minBackoff = minBackoff;
+        this.maxBackoff = maxBackoff;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public boolean isConnected() {
+        RSocket current = rSocket;
+        return null != current && !current.isDisposed();
+    }
+
+    /**
+     * @return the connection and the lease availability in [0, 1], 0 if not connected
+     */
+    public double availability() {
+        RSocket current = rSocket;
+        return null == current || current.isDisposed() ? 0 : current.availability();
+    }
+
+    /**
+     * @return requests allowed by the remaining lease, -1 without a lease
+     */
+    public int getRemainingRequests() {
+        Lease current = lease;
+        return null == current || !current.isValid() ? -1 : current.getAllowedRequests();
+    }
+
+    public int getPending() {
+        return pending.get();
+    }
+
+    public double getLatencyNanos() {
+        return latency.value(System.nanoTime());
+    }
+
+    /**
+     * The expected wait of one more request, lower is better: the latency times the queue of pending requests,
+     * divided by the availability so a target running out of lease is avoided before it rejects requests.
+     *
+     * @param now {@link System#nanoTime()}
+     * @return cost
+     */
+    double cost(long now) {
+        double availability = availability();
+        if (availability <= 0) {
+            return Double.POSITIVE_INFINITY;
+        }
+        return (latency.value(now) + 1) * (pending.get() + 1) / availability;
+    }
+
+    RSocket rSocket() {
+        return rSocket;
+    }
+
+    void onStart() {
+        pending.incrementAndGet();
+    }
+
+    void onComplete(long start) {
+        pending.decrementAndGet();
+        long now = System.nanoTime();
+        latency.observe(now - start, now);
+    }
+
+    void onError(long start, Throwable error) {
+        pending.decrementAndGet();
+        if (error instanceof MissingLeaseException) {
+            // rejected before being sent, the availability already accounts for the lease
+            return;
+        }
+        long now = System.nanoTime();
+        long elapsed = now - start;
+        // an application error was handled by the server, as fast as a response
+        latency.observe(error instanceof ApplicationErrorException ? elapsed : Math.max(elapsed, ERROR_PENALTY_NANOS), now);
+    }
+
+    /**
+     * A request ended without a latency sample, such as a stream or a cancelled request.
+     */
+    void onEnd() {
+        pending.decrementAndGet();
+    }
+
+    void start(Runnable onConnected) {
+        if (disposed) {
+            return;
+        }
+        connecting = connection
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, minBackoff)
+                        .maxBackoff(maxBackoff)
+                        .filter(error -> !disposed)
+                        .doBeforeRetry(signal -> log.warn("Connect to {} failed {} times: {}", name, signal.totalRetries() + 1,
+                                signal.failure().getMessage())))
+                .subscribe(connected -> {
+                    if (disposed) {
+                        connected.dispose();
+                        return;
+                    }
+                    log.info("Connected to {}", name);
+                    rSocket = connected;
+                    connected.onClose()
+                            .doFinally(signal -> onDisconnected(connected, onConnected))
+                            .subscribe(null, error -> {
+                            });
+                    onConnected.run();
+                }, error -> log.error("Stop connecting to {}: {}", name, error.getMessage()));
+    }
+
+    private void onDisconnected(RSocket closed, Runnable onConnected) {
+        if (rSocket != closed) {
+            return;
+        }
+        rSocket = null;
+        lease = null;
+        if (!disposed) {
+            log.warn("Disconnected from {}, reconnecting", name);
+            start(onConnected);
+        }
+    }
+
+    void dispose() {
+        disposed = true;
+        Disposable current = connecting;
+        if (null != current) {
+            current.dispose();
+        }
+        RSocket connected = rSocket;
+        if (null != connected) {
+            connected.dispose();
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "LoadBalancedTarget{name=" + name + ", connected=" + isConnected() + ", pending=" + pending.get()
+                + ", latencyNanos=" + (long) getLatencyNanos() + ", remainingRequests=" + getRemainingRequests() + "}";
+    }
+}
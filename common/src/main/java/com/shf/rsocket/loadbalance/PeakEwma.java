@@ -0,0 +1,30 @@
+package com.shf.rsocket.loadbalance;
+
+/**
+ * description :
+ * The latency of a target as a peak-sensitive moving average: a sample above the average replaces it at once,
+ * a lower one is averaged in with a weight decaying by the time since the previous sample.
+ * The value decays towards zero while nothing is observed, so an idle target gets a request again.
+ *
+ * @author songhaifeng
+ * @date 2026/10/19 17:00
+ */
+final class PeakEwma {
+    private final double decayNanos;
+    private long stamp = System.nanoTime();
+    private double value;
+
+    PeakEwma(long decayNanos) {
+        this.decayNanos = decayNanos;
+    }
+
+    synchronized void observe(double latencyNanos, long now) {
+        double weight = Math.exp(-Math.max(0, now - stamp) / decayNanos);
+        value = latencyNanos > value ? latencyNanos : value * weight + latencyNanos * (1 - weight);
+        stamp = now;
+    }
+
+    synchronized double value(long now) {
+        return value * Math.exp(-Math.max(0, now - stamp) / decayNanos);
+    }
+}
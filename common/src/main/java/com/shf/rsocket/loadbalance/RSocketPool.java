@@ -0,0 +1,80 @@
+package com.shf.rsocket.loadbalance;
+
+import io.rsocket.RSocket;
+import lombok.NonNull;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * description :
+ * Several connections to the same server, used as one {@link RSocket}. A connection is served by one event loop and one socket,
+ * so the pool spreads the requests, and their encoding and decoding, over `size` event loops.
+ * <p>
+ * A request goes to the connected connection with the least outstanding requests, streams and channels included until they end.
+ * The scan starts at a rotating index, so the connections with the same count take turns.
+ * Each connection reconnects on its own, the others keep serving meanwhile.
+ *
+ * @author songhaifeng
+ * @date 2026/10/19 18:50
+ */
+public class RSocketPool extends AbstractLoadBalancedRSocket {
+    private final AtomicInteger next = new AtomicInteger();
+
+    public RSocketPool(@NonNull List<LoadBalancedTarget> connections) {
+        super(connections);
+    }
+
+    /**
+     * @param name       name of the server, such as its address
+     * @param size       number of connections
+     * @param connection creates a new connection, called for every connection attempt
+     * @param minBackoff first delay before reconnecting
+     * @param maxBackoff max delay before reconnecting
+     * @return RSocketPool
+     */
+    public static RSocketPool create(@NonNull String name, int size, @NonNull Supplier<Mono<RSocket>> connection,
+                                     @NonNull Duration minBackoff, @NonNull Duration maxBackoff) {
+        if (size < 1) {
+            throw new IllegalArgumentException("The size of the pool must be at least 1");
+        }
+        List<LoadBalancedTarget> connections = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            // the latency is not compared between connections to the same server
+            connections.add(new LoadBalancedTarget(name + "#" + i, onLease -> Mono.defer(connection),
+                    Duration.ofSeconds(10), minBackoff, maxBackoff));
+        }
+        return new RSocketPool(connections);
+    }
+
+    @Override
+    protected LoadBalancedTarget select(long now) {
+        List<LoadBalancedTarget> connections = getTargets();
+        int size = connections.size();
+        int start = Math.floorMod(next.getAndIncrement(), size);
+        LoadBalancedTarget selected = null;
+        LoadBalancedTarget connected = null;
+        int least = Integer.MAX_VALUE;
+        for (int i = 0; i < size; i++) {
+            LoadBalancedTarget target = connections.get((start + i) % size);
+            if (target.availability() > 0) {
+                int pending = target.getPending();
+                if (pending < least) {
+                    least = pending;
+                    selected = target;
+                    if (pending == 0) {
+                        break;
+                    }
+                }
+            } else if (null == connected && target.isConnected()) {
+                connected = target;
+            }
+        }
+        // a connection without lease rejects the request like a single connection does
+        return null != selected ? selected : connected;
+    }
+}
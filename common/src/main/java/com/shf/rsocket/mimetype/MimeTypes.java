@@ -20,6 +20,10 @@ public interface MimeTypes {
     MimeType MAP_MIME_TYPE = MimeType.valueOf("application/vnd.map.metadata+json");
     MimeType FOO_MIME_TYPE = MimeType.valueOf("application/vnd.foo.metadata+json");
     MimeType PARAMETERIZED_TYPE_MIME_TYPE = MimeType.valueOf("application/vnd.foo.2.map.metadata+json");
+    /**
+     * cursor/limit of a listing, see {@link com.shf.entity.PageRequest}
+     */
+    MimeType PAGE_MIME_TYPE = MimeType.valueOf("application/vnd.page.metadata+json");
     /**
      * mock trace
      */
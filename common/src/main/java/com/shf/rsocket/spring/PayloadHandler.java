@@ -2,6 +2,7 @@ package com.shf.rsocket.spring;
 
 import com.shf.rsocket.entity.PayloadInfo;
 import com.shf.rsocket.interceptor.PayloadExtractFunction;
+import com.shf.rsocket.spring.metadata.LazyMetadataExtractor;
 import io.rsocket.metadata.WellKnownMimeType;
 import org.springframework.messaging.rsocket.MetadataExtractor;
 import org.springframework.util.MimeType;
@@ -21,12 +22,14 @@ public class PayloadHandler {
             WellKnownMimeType.MESSAGE_RSOCKET_COMPOSITE_METADATA.getString());
 
     /**
-     * Define a function for extracting {@link io.rsocket.Payload} with {@link MetadataExtractor}
+     * Define a function for extracting {@link io.rsocket.Payload} with {@link MetadataExtractor}.
+     * The composite metadata is extracted as a {@link com.shf.rsocket.spring.metadata.LazyMetadataMap}.
      *
      * @param metadataExtractor metadataExtractor
      * @return PayloadExtractFunction
      */
     public static PayloadExtractFunction payloadExtractFunction(MetadataExtractor metadataExtractor) {
+        MetadataExtractor lazyMetadataExtractor = LazyMetadataExtractor.of(metadataExtractor);
         return (payload, extractData, extractMetadata) -> {
             PayloadInfo payloadInfo = new PayloadInfo();
             if (extractData) {
@@ -35,7 +38,7 @@ public class PayloadHandler {
 
             if (extractMetadata) {
                 if (payload.hasMetadata()) {
-                    Map<String, Object> metadata = metadataExtractor.extract(payload, MESSAGE_RSOCKET_COMPOSITE_METADATA);
+                    Map<String, Object> metadata = lazyMetadataExtractor.extract(payload, MESSAGE_RSOCKET_COMPOSITE_METADATA);
                     payloadInfo.withMetadata(metadata);
                 }
             }
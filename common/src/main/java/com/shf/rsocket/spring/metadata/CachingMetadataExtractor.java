@@ -0,0 +1,38 @@
+package com.shf.rsocket.spring.metadata;
+
+import io.rsocket.Payload;
+import lombok.NonNull;
+import org.springframework.messaging.rsocket.MetadataExtractor;
+import org.springframework.util.MimeType;
+
+import java.util.Map;
+
+/**
+ * description :
+ * Return the metadata decoded before for a {@link MetadataCachedPayload}, otherwise decode with the delegate.
+ * Be used by the interceptors through {@link com.shf.rsocket.spring.PayloadHandler} and by the handler argument resolution
+ * of `MessagingRSocket`, while the payloads are wrapped by {@link com.shf.rsocket.interceptor.metadata.MetadataCacheInterceptor}.
+ * The cached composite metadata is a {@link LazyMetadataMap}, so each entry is still decoded on demand.
+ *
+ * @author songhaifeng
+ * @date 2026/10/18 14:12
+ */
+public class CachingMetadataExtractor implements MetadataExtractor {
+    private final MetadataExtractor delegate;
+
+    public CachingMetadataExtractor(@NonNull MetadataExtractor delegate) {
+        this.delegate = LazyMetadataExtractor.of(delegate);
+    }
+
+    public MetadataExtractor getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public Map<String, Object> extract(Payload payload, MimeType metadataMimeType) {
+        if (payload instanceof MetadataCachedPayload) {
+            return ((MetadataCachedPayload) payload).metadata(metadataMimeType, delegate);
+        }
+        return delegate.extract(payload, metadataMimeType);
+    }
+}
@@ -0,0 +1,177 @@
+package com.shf.rsocket.spring.metadata;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import io.rsocket.Payload;
+import io.rsocket.metadata.WellKnownMimeType;
+import io.rsocket.util.ByteBufPayload;
+import lombok.NonNull;
+import org.springframework.messaging.rsocket.MetadataExtractor;
+import org.springframework.util.MimeType;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * description :
+ * Extract the composite metadata as a {@link LazyMetadataMap}, each entry is decoded by the delegate
+ * only when one of its keys is read at the first time. Other metadata mime types are extracted by the delegate directly.
+ * <p>
+ * The delegate has no api to tell which mime type a key is registered for, so the mapping is learned
+ * from the entries decoded before, and shared by all the maps of this extractor. Only the mime types whose entries
+ * always produced the same keys are learned, like the trace id, not one copying a map of the client, as its keys depend
+ * on the payload. The client chooses the mime types and the keys, so at most {@value #MAX_LEARNED_MIME_TYPES} mime types
+ * of at most {@value #MAX_LEARNED_KEYS} keys are learned, the others are always decoded.
+ *
+ * @author songhaifeng
+ * @date 2026/10/18 15:02
+ */
+public class LazyMetadataExtractor implements MetadataExtractor {
+    private static final String COMPOSITE_METADATA = WellKnownMimeType.MESSAGE_RSOCKET_COMPOSITE_METADATA.getString();
+    private static final MimeType COMPOSITE_METADATA_MIME_TYPE = MimeType.valueOf(COMPOSITE_METADATA);
+
+    private static final int MAX_LEARNED_MIME_TYPES = 64;
+    private static final int MAX_LEARNED_KEYS = 32;
+    private static final Set<String> VARIABLE = Collections.emptySet();
+
+    private final MetadataExtractor delegate;
+    private final Map<String, String> keyToMimeType = new ConcurrentHashMap<>();
+    /**
+     * The keys of each mime type decoded so far, {@link #VARIABLE} once two entries produced different keys.
+     */
+    private final Map<String, Set<String>> learnedMimeTypes = new ConcurrentHashMap<>();
+    private final Map<String, MimeType> mimeTypes = new ConcurrentHashMap<>();
+
+    public LazyMetadataExtractor(@NonNull MetadataExtractor delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Wrap the extractor if it is not lazy yet.
+     *
+     * @param metadataExtractor metadataExtractor
+     * @return MetadataExtractor
+     */
+    public static MetadataExtractor of(MetadataExtractor metadataExtractor) {
+        if (metadataExtractor instanceof LazyMetadataExtractor || metadataExtractor instanceof CachingMetadataExtractor) {
+            return metadataExtractor;
+        }
+        return new LazyMetadataExtractor(metadataExtractor);
+    }
+
+    @Override
+    public Map<String, Object> extract(Payload payload, MimeType metadataMimeType) {
+        if (COMPOSITE_METADATA.equals(metadataMimeType.toString())) {
+            // copy once, so the map can still be read after the payload is released.
+            return new LazyMetadataMap(this, ByteBufUtil.getBytes(payload.sliceMetadata()));
+        }
+        return delegate.extract(payload, metadataMimeType);
+    }
+
+    /**
+     * Decode a single entry of the composite metadata, and learn the keys it produces.
+     *
+     * @param mimeType mimeType of the entry
+     * @param content  content of the entry
+     * @return decoded values
+     */
+    Map<String, Object> decode(String mimeType, ByteBuf content) {
+        Payload entry = ByteBufPayload.create(Unpooled.EMPTY_BUFFER, content.retainedDuplicate());
+        try {
+            Map<String, Object> values = delegate.extract(entry, mimeType(mimeType));
+            learn(mimeType, values.keySet());
+            return values;
+        } finally {
+            entry.release();
+        }
+    }
+
+    private MimeType mimeType(String mimeType) {
+        MimeType parsed = mimeTypes.get(mimeType);
+        if (parsed == null) {
+            parsed = MimeType.valueOf(mimeType);
+            if (mimeTypes.size() < MAX_LEARNED_MIME_TYPES) {
+                mimeTypes.putIfAbsent(mimeType, parsed);
+            }
+        }
+        return parsed;
+    }
+
+    /**
+     * The keys are mapped before the mime type is learned, and the mime type is no longer learned before they are unmapped,
+     * so a map never skips an entry which may produce the key it reads.
+     */
+    private void learn(String mimeType, Set<String> keys) {
+        Set<String> learned = learnedMimeTypes.get(mimeType);
+        if (learned == VARIABLE || keys.equals(learned)) {
+            return;
+        }
+        if (learned != null) {
+            // the keys depend on the payload
+            if (learnedMimeTypes.replace(mimeType, learned, VARIABLE)) {
+                learned.forEach(key -> keyToMimeType.remove(key, mimeType));
+            }
+            return;
+        }
+        if (keys.isEmpty() || keys.size() > MAX_LEARNED_KEYS || learnedMimeTypes.size() >= MAX_LEARNED_MIME_TYPES) {
+            return;
+        }
+        Set<String> fixed = new HashSet<>(keys);
+        boolean shared = false;
+        for (String key : fixed) {
+            String owner = keyToMimeType.putIfAbsent(key, mimeType);
+            shared |= owner != null && !owner.equals(mimeType);
+        }
+        // a key produced by another mime type too, the entries of both may carry it
+        Set<String> previous = learnedMimeTypes.putIfAbsent(mimeType, shared ? VARIABLE : fixed);
+        if (shared || previous == VARIABLE) {
+            fixed.forEach(key -> keyToMimeType.remove(key, mimeType));
+        } else if (previous != null && !previous.equals(fixed)) {
+            learn(mimeType, fixed);
+        }
+    }
+
+    /**
+     * Decode all the entries of the composite metadata by the delegate.
+     *
+     * @param metadata composite metadata
+     * @return decoded values
+     */
+    Map<String, Object> decodeAll(ByteBuf metadata) {
+        Payload payload = ByteBufPayload.create(Unpooled.EMPTY_BUFFER, metadata.retainedDuplicate());
+        try {
+            return delegate.extract(payload, COMPOSITE_METADATA_MIME_TYPE);
+        } finally {
+            payload.release();
+        }
+    }
+
+    /**
+     * @param key metadata name
+     * @return the mime type which the key was decoded from before, or null.
+     */
+    String mimeTypeOf(Object key) {
+        return keyToMimeType.get(key);
+    }
+
+    /**
+     * @param mimeType mime type of an entry
+     * @return true if the entries of the mime type decoded before always produced the same keys, so its keys are known.
+     */
+    boolean isLearned(String mimeType) {
+        Set<String> learned = learnedMimeTypes.get(mimeType);
+        return learned != null && learned != VARIABLE;
+    }
+
+    /**
+     * @param mimeType mime type of an entry
+     * @return true if the mime type is learned, or its keys are known to depend on the payload.
+     */
+    boolean isKnown(String mimeType) {
+        return learnedMimeTypes.containsKey(mimeType);
+    }
+}
@@ -0,0 +1,142 @@
+package com.shf.rsocket.spring.metadata;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.rsocket.metadata.CompositeMetadata;
+
+import java.util.AbstractMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * description :
+ * A lazy view over the composite metadata. The entries are indexed by mime type at the first read without decoding,
+ * {@link #get(Object)} only decodes the entry which the key comes from, e.g. reading `traceId` will not decode
+ * the json entries. A key missing from the payload, like an optional `page`, only decodes the entries of the mime types
+ * not learned once its own is learned, see {@link LazyMetadataExtractor}. An unknown key, and any method that needs all
+ * the entries, like {@link #entrySet()} or {@link #put(Object, Object)}, decodes the rest of them, then it behaves like a {@link HashMap}.
+ *
+ * @author songhaifeng
+ * @date 2026/10/18 15:10
+ */
+public class LazyMetadataMap extends AbstractMap<String, Object> {
+    private final LazyMetadataExtractor extractor;
+    private final ByteBuf metadata;
+    private final Map<String, Object> decoded = new HashMap<>(8);
+    /**
+     * Entries not decoded yet, indexed at the first {@link #get(Object)}.
+     */
+    private List<PendingEntry> pending;
+    private boolean decodedAll;
+
+    LazyMetadataMap(LazyMetadataExtractor extractor, byte[] metadata) {
+        this.extractor = extractor;
+        this.metadata = Unpooled.wrappedBuffer(metadata);
+    }
+
+    @Override
+    public synchronized Object get(Object key) {
+        if (decodedAll) {
+            return decoded.get(key);
+        }
+        index();
+        // a learned key comes from the entries of its own mime type, absent if the payload doesn't carry it,
+        // the other learned mime types never produce it, any entry of a mime type not learned may.
+        // Any entry may produce an unknown key, decoded one by one to learn their keys.
+        String mimeType = extractor.mimeTypeOf(key);
+        if (mimeType == null && pending.stream().allMatch(entry -> extractor.isKnown(entry.mimeType))) {
+            // nothing to learn from the entries
+            decodeAll();
+            return decoded.get(key);
+        }
+        Iterator<PendingEntry> iterator = pending.iterator();
+        while (iterator.hasNext()) {
+            PendingEntry entry = iterator.next();
+            if (mimeType == null || entry.mimeType.equals(mimeType) || !extractor.isLearned(entry.mimeType)) {
+                // in the order of the payload, a later entry overrides the key as it does when decoding all
+                decode(entry);
+                iterator.remove();
+            }
+        }
+        return decoded.get(key);
+    }
+
+    @Override
+    public synchronized boolean containsKey(Object key) {
+        get(key);
+        return decoded.containsKey(key);
+    }
+
+    @Override
+    public synchronized Object put(String key, Object value) {
+        decodeAll();
+        return decoded.put(key, value);
+    }
+
+    @Override
+    public synchronized Object remove(Object key) {
+        decodeAll();
+        return decoded.remove(key);
+    }
+
+    @Override
+    public synchronized Set<Entry<String, Object>> entrySet() {
+        decodeAll();
+        return decoded.entrySet();
+    }
+
+    private void index() {
+        if (pending != null) {
+            return;
+        }
+        pending = new LinkedList<>();
+        for (CompositeMetadata.Entry entry : new CompositeMetadata(metadata, false)) {
+            if (entry.getMimeType() != null && entry.getContent().readableBytes() > 0) {
+                pending.add(new PendingEntry(entry.getMimeType(), entry.getContent()));
+            }
+        }
+    }
+
+    private void decode(String mimeType) {
+        Iterator<PendingEntry> iterator = pending.iterator();
+        while (iterator.hasNext()) {
+            PendingEntry entry = iterator.next();
+            if (entry.mimeType.equals(mimeType)) {
+                decode(entry);
+                iterator.remove();
+            }
+        }
+    }
+
+    private void decodeAll() {
+        if (decodedAll) {
+            return;
+        }
+        if (pending == null || decoded.isEmpty()) {
+            // nothing decoded yet, decode all the entries in one pass.
+            decoded.putAll(extractor.decodeAll(metadata));
+        } else {
+            pending.forEach(this::decode);
+            pending.clear();
+        }
+        decodedAll = true;
+    }
+
+    private void decode(PendingEntry entry) {
+        decoded.putAll(extractor.decode(entry.mimeType, entry.content));
+    }
+
+    private static class PendingEntry {
+        private final String mimeType;
+        private final ByteBuf content;
+
+        PendingEntry(String mimeType, ByteBuf content) {
+            this.mimeType = mimeType;
+            this.content = content;
+        }
+    }
+}
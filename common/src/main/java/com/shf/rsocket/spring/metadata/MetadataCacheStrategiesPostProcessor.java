@@ -0,0 +1,31 @@
+package com.shf.rsocket.spring.metadata;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.messaging.rsocket.RSocketStrategies;
+
+/**
+ * description :
+ * Replace the {@link org.springframework.messaging.rsocket.MetadataExtractor} of every {@link RSocketStrategies} bean
+ * with a {@link CachingMetadataExtractor}, after all the `RSocketStrategiesCustomizer` registered their metadata.
+ * Must be registered by a static `@Bean` method.
+ *
+ * @author songhaifeng
+ * @date 2026/10/18 14:20
+ */
+public class MetadataCacheStrategiesPostProcessor implements BeanPostProcessor {
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+        if (bean instanceof RSocketStrategies) {
+            RSocketStrategies strategies = (RSocketStrategies) bean;
+            if (strategies.metadataExtractor() instanceof CachingMetadataExtractor) {
+                return bean;
+            }
+            return strategies.mutate()
+                    .metadataExtractor(new CachingMetadataExtractor(strategies.metadataExtractor()))
+                    .build();
+        }
+        return bean;
+    }
+}
@@ -0,0 +1,127 @@
+package com.shf.rsocket.spring.metadata;
+
+import io.netty.buffer.ByteBuf;
+import io.rsocket.Payload;
+import org.springframework.messaging.rsocket.MetadataExtractor;
+import org.springframework.util.MimeType;
+
+import java.util.Map;
+
+/**
+ * description :
+ * Wrap a {@link Payload} with its decoded metadata, so the metadata of a request is decoded only once,
+ * no matter how many interceptors and handlers read it. All {@link Payload} methods delegate to the original one.
+ *
+ * @author songhaifeng
+ * @date 2026/10/18 14:05
+ */
+public class MetadataCachedPayload implements Payload {
+    private final Payload delegate;
+
+    private volatile MimeType metadataMimeType;
+    private volatile Map<String, Object> metadata;
+
+    private MetadataCachedPayload(Payload delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * Wrap the payload if it is not wrapped yet.
+     *
+     * @param payload payload
+     * @return MetadataCachedPayload
+     */
+    public static Payload wrap(Payload payload) {
+        if (payload instanceof MetadataCachedPayload) {
+            return payload;
+        }
+        return new MetadataCachedPayload(payload);
+    }
+
+    /**
+     * Decode the metadata with the extractor at the first time, then return the same map.
+     * The map is shared by all readers of this payload, callers must not remove entries from it.
+     *
+     * @param metadataMimeType  metadataMimeType
+     * @param metadataExtractor the real extractor
+     * @return decoded metadata
+     */
+    Map<String, Object> metadata(MimeType metadataMimeType, MetadataExtractor metadataExtractor) {
+        Map<String, Object> cached = this.metadata;
+        if (cached != null && metadataMimeType.equals(this.metadataMimeType)) {
+            return cached;
+        }
+        cached = metadataExtractor.extract(delegate, metadataMimeType);
+        this.metadataMimeType = metadataMimeType;
+        this.metadata = cached;
+        return cached;
+    }
+
+    public Payload getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public boolean hasMetadata() {
+        return delegate.hasMetadata();
+    }
+
+    @Override
+    public ByteBuf sliceMetadata() {
+        return delegate.sliceMetadata();
+    }
+
+    @Override
+    public ByteBuf sliceData() {
+        return delegate.sliceData();
+    }
+
+    @Override
+    public ByteBuf data() {
+        return delegate.data();
+    }
+
+    @Override
+    public ByteBuf metadata() {
+        return delegate.metadata();
+    }
+
+    @Override
+    public int refCnt() {
+        return delegate.refCnt();
+    }
+
+    @Override
+    public MetadataCachedPayload retain() {
+        delegate.retain();
+        return this;
+    }
+
+    @Override
+    public MetadataCachedPayload retain(int increment) {
+        delegate.retain(increment);
+        return this;
+    }
+
+    @Override
+    public MetadataCachedPayload touch() {
+        delegate.touch();
+        return this;
+    }
+
+    @Override
+    public MetadataCachedPayload touch(Object hint) {
+        delegate.touch(hint);
+        return this;
+    }
+
+    @Override
+    public boolean release() {
+        return delegate.release();
+    }
+
+    @Override
+    public boolean release(int decrement) {
+        return delegate.release(decrement);
+    }
+}
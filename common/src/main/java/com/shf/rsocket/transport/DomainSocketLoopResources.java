@@ -0,0 +1,60 @@
+package com.shf.rsocket.transport;
+
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.epoll.EpollDomainSocketChannel;
+import io.netty.channel.epoll.EpollServerDomainSocketChannel;
+import reactor.netty.resources.LoopResources;
+
+/**
+ * description :
+ * The native event loops of the delegate, with the unix domain socket channels rather than the TCP ones.
+ * reactor-netty picks the channel class by {@link LoopResources} only, it can't be replaced later on the bootstrap.
+ * Disposing it leaves the delegate, which may be shared, running.
+ *
+ * @author songhaifeng
+ * @date 2026/10/19 19:50
+ */
+final class DomainSocketLoopResources implements LoopResources {
+    private final LoopResources delegate;
+
+    DomainSocketLoopResources(LoopResources delegate) {
+        this.delegate = delegate;
+    }
+
+    @Override
+    public EventLoopGroup onServer(boolean useNative) {
+        return delegate.onServer(true);
+    }
+
+    @Override
+    public EventLoopGroup onServerSelect(boolean useNative) {
+        return delegate.onServerSelect(true);
+    }
+
+    @Override
+    public EventLoopGroup onClient(boolean useNative) {
+        return delegate.onClient(true);
+    }
+
+    @Override
+    public Class<? extends ServerChannel> onServerChannel(EventLoopGroup group) {
+        return EpollServerDomainSocketChannel.class;
+    }
+
+    @Override
+    public Class<? extends Channel> onChannel(EventLoopGroup group) {
+        return EpollDomainSocketChannel.class;
+    }
+
+    @Override
+    public boolean preferNative() {
+        return true;
+    }
+
+    @Override
+    public boolean daemon() {
+        return delegate.daemon();
+    }
+}
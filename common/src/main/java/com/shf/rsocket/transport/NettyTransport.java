@@ -0,0 +1,28 @@
+package com.shf.rsocket.transport;
+
+/**
+ * description :
+ * The netty channels carrying the RSocket connections, see {@link NettyTransports}.
+ *
+ * @author songhaifeng
+ * @date 2026/10/19 19:30
+ */
+public enum NettyTransport {
+    /**
+     * TCP on the native epoll event loops when they are available, otherwise NIO. The default of reactor-netty.
+     */
+    AUTO,
+    /**
+     * TCP on the JDK NIO event loops.
+     */
+    NIO,
+    /**
+     * TCP on the native epoll event loops, fails if epoll is not available(linux only).
+     */
+    EPOLL,
+    /**
+     * Unix domain socket on the native epoll event loops, for the services on the same host.
+     * The endpoint is the path of the socket file, no TCP/IP stack in between.
+     */
+    UDS
+}
@@ -0,0 +1,135 @@
+package com.shf.rsocket.transport;
+
+import io.netty.channel.ChannelOption;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.unix.DomainSocketAddress;
+import io.rsocket.transport.ClientTransport;
+import io.rsocket.transport.ServerTransport;
+import io.rsocket.transport.netty.client.TcpClientTransport;
+import io.rsocket.transport.netty.server.CloseableChannel;
+import io.rsocket.transport.netty.server.TcpServerTransport;
+import lombok.NonNull;
+import reactor.netty.resources.LoopResources;
+import reactor.netty.tcp.TcpClient;
+import reactor.netty.tcp.TcpResources;
+import reactor.netty.tcp.TcpServer;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+/**
+ * description :
+ * Create the RSocket transports on the {@link NettyTransport} of choice, for both the requesters and the servers.
+ * <p>
+ * An endpoint is `host:port` for TCP, or the path of the socket file for {@link NettyTransport#UDS}.
+ * A unix domain socket skips the TCP/IP stack(checksums, segmentation, the loopback device), so a co-located client,
+ * like a sidecar, gets a lower latency and less CPU per request. Both ends must use the same transport.
+ *
+ * @author songhaifeng
+ * @date 2026/10/19 19:40
+ */
+public final class NettyTransports {
+
+    private NettyTransports() {
+    }
+
+    /**
+     * @param transport transport
+     * @param endpoint  `host:port`, or the socket file of {@link NettyTransport#UDS}
+     * @return ClientTransport, connects again on each {@link ClientTransport#connect(int)}
+     */
+    public static ClientTransport client(@NonNull NettyTransport transport, @NonNull String endpoint) {
+        return TcpClientTransport.create(tcpClient(transport, endpoint, TcpResources.get()));
+    }
+
+    /**
+     * @param transport     transport
+     * @param endpoint      `host:port` to bind, or the socket file of {@link NettyTransport#UDS}, replaced if it exists
+     * @param loopResources event loops of the server, such as the ones shared with webFlux
+     * @return ServerTransport
+     */
+    public static ServerTransport<CloseableChannel> server(@NonNull NettyTransport transport, @NonNull String endpoint,
+                                                           @NonNull LoopResources loopResources) {
+        return TcpServerTransport.create(tcpServer(transport, endpoint, loopResources));
+    }
+
+    public static TcpClient tcpClient(@NonNull NettyTransport transport, @NonNull String endpoint, @NonNull LoopResources loopResources) {
+        // not pooled: a pool per address keeps the channel type of its first connection, whatever the transport of the next ones
+        TcpClient client = TcpClient.newConnection();
+        switch (transport) {
+            case UDS:
+                requireEpoll(transport);
+                return client.remoteAddress(() -> new DomainSocketAddress(endpoint))
+                        .runOn(new DomainSocketLoopResources(loopResources))
+                        // TCP only
+                        .bootstrap(bootstrap -> bootstrap.option(ChannelOption.SO_KEEPALIVE, null)
+                                .option(ChannelOption.TCP_NODELAY, null));
+            case EPOLL:
+                requireEpoll(transport);
+                client = client.runOn(loopResources, true);
+                break;
+            case NIO:
+                client = client.runOn(loopResources, false);
+                break;
+            default:
+                client = client.runOn(loopResources);
+        }
+        InetSocketAddress address = address(endpoint);
+        return client.host(address.getHostString()).port(address.getPort());
+    }
+
+    public static TcpServer tcpServer(@NonNull NettyTransport transport, @NonNull String endpoint, @NonNull LoopResources loopResources) {
+        TcpServer server = TcpServer.create();
+        switch (transport) {
+            case UDS:
+                requireEpoll(transport);
+                return server.bindAddress(() -> new DomainSocketAddress(endpoint))
+                        // the file left by a previous process fails the bind
+                        .doOnBind(bootstrap -> deleteIfExists(endpoint))
+                        .runOn(new DomainSocketLoopResources(loopResources))
+                        // TCP only
+                        .bootstrap(bootstrap -> bootstrap.option(ChannelOption.SO_REUSEADDR, null)
+                                .childOption(ChannelOption.TCP_NODELAY, null));
+            case EPOLL:
+                requireEpoll(transport);
+                server = server.runOn(loopResources, true);
+                break;
+            case NIO:
+                server = server.runOn(loopResources, false);
+                break;
+            default:
+                server = server.runOn(loopResources);
+        }
+        InetSocketAddress address = address(endpoint);
+        return server.host(address.getHostString()).port(address.getPort());
+    }
+
+    /**
+     * @param endpoint `host:port`
+     * @return unresolved address
+     */
+    public static InetSocketAddress address(@NonNull String endpoint) {
+        int separator = endpoint.lastIndexOf(':');
+        if (separator <= 0 || separator == endpoint.length() - 1) {
+            throw new IllegalArgumentException("The endpoint must be host:port, but is " + endpoint);
+        }
+        return InetSocketAddress.createUnresolved(endpoint.substring(0, separator).trim(), Integer.parseInt(endpoint.substring(separator + 1).trim()));
+    }
+
+    private static void requireEpoll(NettyTransport transport) {
+        if (!Epoll.isAvailable()) {
+            throw new IllegalStateException("The transport " + transport + " requires the native epoll(linux)", Epoll.unavailabilityCause());
+        }
+    }
+
+    private static void deleteIfExists(String path) {
+        try {
+            Files.deleteIfExists(Paths.get(path));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to delete the socket file " + path, e);
+        }
+    }
+}
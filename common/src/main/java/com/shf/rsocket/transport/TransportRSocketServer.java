@@ -0,0 +1,72 @@
+package com.shf.rsocket.transport;
+
+import io.rsocket.transport.netty.server.CloseableChannel;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.rsocket.server.RSocketServer;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+
+/**
+ * description :
+ * The server created by {@link TransportRSocketServerFactory}, started and stopped by spring boot like the netty one.
+ *
+ * @author songhaifeng
+ * @date 2026/10/19 20:05
+ */
+@Slf4j
+public class TransportRSocketServer implements RSocketServer {
+    private final Mono<CloseableChannel> starter;
+    private final NettyTransport transport;
+    private final String endpoint;
+    private final Duration lifecycleTimeout;
+    private volatile CloseableChannel channel;
+
+    TransportRSocketServer(Mono<CloseableChannel> starter, NettyTransport transport, String endpoint, Duration lifecycleTimeout) {
+        this.starter = starter;
+        this.transport = transport;
+        this.endpoint = endpoint;
+        this.lifecycleTimeout = lifecycleTimeout;
+    }
+
+    @Override
+    public void start() {
+        channel = null != lifecycleTimeout ? starter.block(lifecycleTimeout) : starter.block();
+        log.info("Netty RSocket started on {} {}", transport, transport == NettyTransport.UDS ? endpoint : "port(s): " + address().getPort());
+        startAwaitThread(channel);
+    }
+
+    /**
+     * Keep the JVM alive while the server runs, like the netty server of spring boot.
+     */
+    private void startAwaitThread(CloseableChannel channel) {
+        Thread awaitThread = new Thread(() -> channel.onClose().block(), "rsocket");
+        awaitThread.setContextClassLoader(getClass().getClassLoader());
+        awaitThread.setDaemon(false);
+        awaitThread.start();
+    }
+
+    @Override
+    public void stop() {
+        CloseableChannel current = channel;
+        if (null != current) {
+            current.dispose();
+            channel = null;
+        }
+    }
+
+    /**
+     * A unix domain socket has no port, spring boot publishes the port 0 as `local.rsocket.server.port`.
+     *
+     * @return the bound address, the socket file as an unresolved host for {@link NettyTransport#UDS}, null before the start
+     */
+    @Override
+    public InetSocketAddress address() {
+        CloseableChannel current = channel;
+        if (null == current) {
+            return null;
+        }
+        return transport == NettyTransport.UDS ? InetSocketAddress.createUnresolved(endpoint, 0) : current.address();
+    }
+}
@@ -0,0 +1,123 @@
+package com.shf.rsocket.transport;
+
+import io.rsocket.SocketAcceptor;
+import lombok.NonNull;
+import org.springframework.boot.autoconfigure.rsocket.RSocketProperties;
+import org.springframework.boot.context.properties.PropertyMapper;
+import org.springframework.boot.rsocket.netty.NettyRSocketServerFactory;
+import org.springframework.boot.rsocket.server.ConfigurableRSocketServerFactory;
+import org.springframework.boot.rsocket.server.RSocketServer;
+import org.springframework.boot.rsocket.server.RSocketServerCustomizer;
+import org.springframework.boot.rsocket.server.RSocketServerFactory;
+import org.springframework.http.client.reactive.ReactorResourceFactory;
+import reactor.netty.resources.LoopResources;
+import reactor.netty.tcp.TcpResources;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * description :
+ * Like the {@link NettyRSocketServerFactory} of spring boot, but binding the server on a {@link NettyTransport}: TCP on NIO or native epoll event loops,
+ * or a unix domain socket. Declared as a bean, it replaces the one of spring boot, with the same `spring.rsocket.server.*` settings.
+ * Only the TCP transport of spring boot is supported, not the websocket.
+ *
+ * @author songhaifeng
+ * @date 2026/10/19 20:00
+ */
+public class TransportRSocketServerFactory implements RSocketServerFactory, ConfigurableRSocketServerFactory {
+    private final NettyTransport nettyTransport;
+    private final String domainSocket;
+    private int port = 9898;
+    private InetAddress address;
+    private RSocketServer.Transport transport = RSocketServer.Transport.TCP;
+    private ReactorResourceFactory resourceFactory;
+    private Duration lifecycleTimeout;
+    private final List<RSocketServerCustomizer> rSocketServerCustomizers = new ArrayList<>();
+
+    /**
+     * @param nettyTransport transport
+     * @param domainSocket   path of the socket file, only for {@link NettyTransport#UDS}
+     */
+    public TransportRSocketServerFactory(@NonNull NettyTransport nettyTransport, String domainSocket) {
+        if (nettyTransport == NettyTransport.UDS && (null == domainSocket || domainSocket.isEmpty())) {
+            throw new IllegalArgumentException("The transport UDS requires the path of the socket file");
+        }
+        this.nettyTransport = nettyTransport;
+        this.domainSocket = domainSocket;
+    }
+
+    /**
+     * A factory configured by the `spring.rsocket.server.*` settings, as spring boot configures its own, to be declared as a bean.
+     *
+     * @param properties      properties of `spring.rsocket`
+     * @param nettyTransport  transport, `spring.rsocket.server.netty-transport`
+     * @param domainSocket    path of the socket file, `spring.rsocket.server.domain-socket`
+     * @param resourceFactory resources of reactor netty, null for the global ones
+     * @param customizers     customizers of the server, in order
+     * @return TransportRSocketServerFactory
+     */
+    public static TransportRSocketServerFactory of(@NonNull RSocketProperties properties, @NonNull NettyTransport nettyTransport, String domainSocket,
+                                                   ReactorResourceFactory resourceFactory,
+                                                   @NonNull Collection<? extends RSocketServerCustomizer> customizers) {
+        TransportRSocketServerFactory factory = new TransportRSocketServerFactory(nettyTransport, domainSocket);
+        factory.setResourceFactory(resourceFactory);
+        factory.setTransport(properties.getServer().getTransport());
+        PropertyMapper map = PropertyMapper.get().alwaysApplyingWhenNonNull();
+        map.from(properties.getServer().getAddress()).to(factory::setAddress);
+        map.from(properties.getServer().getPort()).to(factory::setPort);
+        factory.setRSocketServerCustomizers(customizers);
+        return factory;
+    }
+
+    @Override
+    public void setPort(int port) {
+        this.port = port;
+    }
+
+    @Override
+    public void setAddress(InetAddress address) {
+        this.address = address;
+    }
+
+    @Override
+    public void setTransport(RSocketServer.Transport transport) {
+        this.transport = transport;
+    }
+
+    public void setResourceFactory(ReactorResourceFactory resourceFactory) {
+        this.resourceFactory = resourceFactory;
+    }
+
+    public void setLifecycleTimeout(Duration lifecycleTimeout) {
+        this.lifecycleTimeout = lifecycleTimeout;
+    }
+
+    public void setRSocketServerCustomizers(@NonNull Collection<? extends RSocketServerCustomizer> rSocketServerCustomizers) {
+        this.rSocketServerCustomizers.clear();
+        this.rSocketServerCustomizers.addAll(rSocketServerCustomizers);
+    }
+
+    @Override
+    public TransportRSocketServer create(SocketAcceptor socketAcceptor) {
+        if (transport != RSocketServer.Transport.TCP) {
+            throw new IllegalStateException("The transport " + transport + " is not supported, use the NettyRSocketServerFactory of spring boot");
+        }
+        io.rsocket.core.RSocketServer server = io.rsocket.core.RSocketServer.create(socketAcceptor);
+        rSocketServerCustomizers.forEach(customizer -> customizer.customize(server));
+        String endpoint = endpoint();
+        LoopResources loopResources = null != resourceFactory ? resourceFactory.getLoopResources() : TcpResources.get();
+        return new TransportRSocketServer(server.bind(NettyTransports.server(nettyTransport, endpoint, loopResources)),
+                nettyTransport, endpoint, lifecycleTimeout);
+    }
+
+    private String endpoint() {
+        if (nettyTransport == NettyTransport.UDS) {
+            return domainSocket;
+        }
+        return (null != address ? address.getHostAddress() : "0.0.0.0") + ":" + port;
+    }
+}
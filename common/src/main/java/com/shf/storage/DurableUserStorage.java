@@ -0,0 +1,282 @@
+package com.shf.storage;
+
+import com.shf.entity.User;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * description :
+ * {@link UserStorage} persisted in a {@link MappedSegmentLog}, only the id index is in the heap: the users are decoded
+ * from the mapped segments on read, so millions of them don't need a heap of the dataset size. The secondary indexes of
+ * an {@link IndexedUserStorage} over it are in the heap though, and rebuilt by a full scan on every start.
+ * <pre>
+ * record body: | id(int) | age(int) | name length(int, -1 for null) | name(utf-8) |
+ * </pre>
+ * The index maps the id to the position of its record. It is written to a checkpoint file periodically and on close,
+ * together with the log position it covers, so a restart loads the checkpoint and replays only the records after it.
+ * The segments are flushed before the checkpoint, the records after the last flush survive a crash of the process
+ * but not of the OS, see {@link #flush()}.
+ *
+ * @author songhaifeng
+ * @date 2026/10/18 23:20
+ */
+@Slf4j
+public class DurableUserStorage implements UserStorage {
+    private static final String CHECKPOINT_FILE = "index.checkpoint";
+    private static final int CHECKPOINT_MAGIC = 0x55534552;
+    private static final int CHECKPOINT_VERSION = 1;
+    private static final int MAX_NAME_BYTES = 4096;
+    private static final int FIXED_BODY_SIZE = 12;
+
+    private final Path directory;
+    private final MappedSegmentLog segmentLog;
+    private final IntLongHashIndex index;
+    private final ScheduledExecutorService checkpointExecutor;
+    private volatile boolean closed;
+
+    /**
+     * Open the storage and recover the users.
+     *
+     * @param directory          directory of the segments and the checkpoint
+     * @param segmentSize        size of a segment file
+     * @param expectedSize       pre-size the index to avoid resizing
+     * @param checkpointInterval interval of the checkpoints, zero to checkpoint on close only
+     * @throws IOException IOException
+     */
+    public DurableUserStorage(Path directory, int segmentSize, int expectedSize, Duration checkpointInterval) throws IOException {
+        this.directory = directory;
+        this.segmentLog = new MappedSegmentLog(directory, segmentSize, FIXED_BODY_SIZE + MAX_NAME_BYTES);
+        this.index = new IntLongHashIndex(expectedSize);
+        recover();
+        if (checkpointInterval.isZero() || checkpointInterval.isNegative()) {
+            this.checkpointExecutor = null;
+        } else {
+            this.checkpointExecutor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "user-storage-checkpoint");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long millis = checkpointInterval.toMillis();
+            checkpointExecutor.scheduleWithFixedDelay(this::checkpointQuietly, millis, millis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @Override
+    public boolean putIfAbsent(User user) {
+        ByteBuffer body = encode(user);
+        if (!index.reserve(user.getId())) {
+            return false;
+        }
+        segmentLog.append(body, position -> index.publish(user.getId(), position));
+        return true;
+    }
+
+    @Override
+    public User get(int id) {
+        long position = index.get(id);
+        return position == IntLongHashIndex.NO_VALUE ? null : decode(segmentLog.read(position));
+    }
+
+    @Override
+    public Iterator<User> iterator() {
+        return new UserIterator(segmentLog.iterator(0));
+    }
+
+    @Override
+    public Iterator<User> iteratorAfter(int id) {
+        long position = index.get(id);
+        if (position == IntLongHashIndex.NO_VALUE) {
+            throw new IllegalArgumentException("The user " + id + " is absent.");
+        }
+        return new UserIterator(segmentLog.iterator(segmentLog.next(position)));
+    }
+
+    @Override
+    public int size() {
+        return index.size();
+    }
+
+    @Override
+    public void flush() {
+        segmentLog.force();
+    }
+
+    /**
+     * Flush the segments and write the index up to the tail of now, the file is replaced atomically.
+     *
+     * @throws IOException IOException
+     */
+    public synchronized void checkpoint() throws IOException {
+        // every record before the tail has been indexed
+        long position = segmentLog.tail();
+        segmentLog.force();
+        int[][] ids = {new int[Math.max(16, index.size())]};
+        long[][] positions = {new long[ids[0].length]};
+        int[] count = new int[1];
+        index.forEach((id, value) -> {
+            if (value < position) {
+                if (count[0] == ids[0].length) {
+                    ids[0] = Arrays.copyOf(ids[0], count[0] * 2);
+                    positions[0] = Arrays.copyOf(positions[0], count[0] * 2);
+                }
+                ids[0][count[0]] = id;
+                positions[0][count[0]++] = value;
+            }
+        });
+        Path temp = directory.resolve(CHECKPOINT_FILE + ".tmp");
+        CRC32 crc = new CRC32();
+        try (DataOutputStream out = new DataOutputStream(new CheckedOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16), crc))) {
+            out.writeInt(CHECKPOINT_MAGIC);
+            out.writeInt(CHECKPOINT_VERSION);
+            out.writeLong(position);
+            out.writeInt(count[0]);
+            for (int i = 0; i < count[0]; i++) {
+                out.writeInt(ids[0][i]);
+                out.writeLong(positions[0][i]);
+            }
+            out.flush();
+            out.writeLong(crc.getValue());
+        }
+        Files.move(temp, directory.resolve(CHECKPOINT_FILE), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        log.debug("Checkpoint of {} users at the position {}.", count[0], position);
+    }
+
+    @Override
+    public synchronized void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (null != checkpointExecutor) {
+            checkpointExecutor.shutdownNow();
+        }
+        try {
+            checkpoint();
+            segmentLog.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void checkpointQuietly() {
+        if (closed) {
+            return;
+        }
+        try {
+            checkpoint();
+        } catch (Exception e) {
+            log.warn("Failed to checkpoint the user storage in {}.", directory, e);
+        }
+    }
+
+    private void recover() throws IOException {
+        long start = System.nanoTime();
+        long position = loadCheckpoint();
+        int checkpointed = index.size();
+        long replayed = segmentLog.recover(position, (recordPosition, body) -> index.put(body.getInt(0), recordPosition));
+        log.info("Recovered {} users from {}: {} from the checkpoint, {} replayed from the log, in {}ms.", index.size(), directory,
+                checkpointed, replayed, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    /**
+     * @return the position covered by the checkpoint, 0 if absent or broken
+     */
+    private long loadCheckpoint() throws IOException {
+        Path file = directory.resolve(CHECKPOINT_FILE);
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        CRC32 crc = new CRC32();
+        try (DataInputStream in = new DataInputStream(new CheckedInputStream(
+                new BufferedInputStream(Files.newInputStream(file), 1 << 16), crc))) {
+            if (in.readInt() != CHECKPOINT_MAGIC || in.readInt() != CHECKPOINT_VERSION) {
+                throw new IOException("Unknown format.");
+            }
+            long position = in.readLong();
+            int count = in.readInt();
+            int[] ids = new int[count];
+            long[] positions = new long[count];
+            for (int i = 0; i < count; i++) {
+                ids[i] = in.readInt();
+                positions[i] = in.readLong();
+            }
+            long expected = crc.getValue();
+            if (in.readLong() != expected) {
+                throw new IOException("Checksum mismatch.");
+            }
+            for (int i = 0; i < count; i++) {
+                index.put(ids[i], positions[i]);
+            }
+            return position;
+        } catch (IOException e) {
+            log.warn("Ignore the broken checkpoint {}, replay the whole log.", file, e);
+            return 0;
+        }
+    }
+
+    private static ByteBuffer encode(User user) {
+        byte[] name = null == user.getName() ? null : user.getName().getBytes(StandardCharsets.UTF_8);
+        if (null != name && name.length > MAX_NAME_BYTES) {
+            throw new IllegalArgumentException("The name must be less than " + MAX_NAME_BYTES + " bytes.");
+        }
+        ByteBuffer body = ByteBuffer.allocate(FIXED_BODY_SIZE + (null == name ? 0 : name.length));
+        body.putInt(user.getId()).putInt(user.getAge()).putInt(null == name ? -1 : name.length);
+        if (null != name) {
+            body.put(name);
+        }
+        body.flip();
+        return body;
+    }
+
+    private static User decode(ByteBuffer body) {
+        int nameLength = body.getInt(8);
+        String name = null;
+        if (nameLength >= 0) {
+            byte[] bytes = new byte[nameLength];
+            ByteBuffer nameBuffer = body.duplicate();
+            nameBuffer.position(FIXED_BODY_SIZE);
+            nameBuffer.get(bytes);
+            name = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return new User(body.getInt(0), name, body.getInt(4));
+    }
+
+    private static final class UserIterator implements Iterator<User> {
+        private final Iterator<ByteBuffer> records;
+
+        private UserIterator(Iterator<ByteBuffer> records) {
+            this.records = records;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return records.hasNext();
+        }
+
+        @Override
+        public User next() {
+            return decode(records.next());
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package com.shf.storage;
+
+import com.shf.concurrent.MpscRingBuffer;
+import com.shf.entity.User;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * description :
+ * Share one {@link UserStorage#flush()} between the concurrent {@link #commit(User)}s of a {@link UserStorage}.
+ * A commit hands the user over to a committer thread through a bounded {@link MpscRingBuffer}, so the calling thread,
+ * usually an event loop, neither writes the storage nor waits. The committer collects the pending commits for up to
+ * `maxDelay` after the first one, or until `maxBatchSize` of them, writes the users, flushes once and completes them all.
+ * With a zero `maxDelay`, a batch is what arrived during the previous flush.
+ * <p>
+ * When the committer is so far behind that the queue is full, a commit fails fast with a {@link RejectedExecutionException}
+ * instead of blocking the caller. A user is visible to the readers once it's written, before its commit completes.
+ * <p>
+ * Meters: `user.storage.commit.batch.size`, `user.storage.commit.flush`(time of a flush) and
+ * `user.storage.commit.latency`(from the commit to its completion).
+ *
+ * @author songhaifeng
+ * @date 2026/10/18 23:50
+ */
+@Slf4j
+public class GroupCommitUserStorage implements UserStorage {
+    private static final long MAX_IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long WINDOW_PARK_NANOS = TimeUnit.MICROSECONDS.toNanos(50);
+
+    private final UserStorage delegate;
+    private final long maxDelayNanos;
+    private final int maxBatchSize;
+    private final MpscRingBuffer<PendingCommit> queue;
+    private final DistributionSummary batchSize;
+    private final Timer flushTimer;
+    private final Timer commitLatency;
+    private final Thread committer;
+    private volatile boolean running = true;
+    private volatile boolean idle;
+    /**
+     * The committer stopped, guarded by this.
+     */
+    private boolean terminated;
+
+    /**
+     * @param delegate     storage, closed with this one
+     * @param maxDelay     max time waiting for more commits before a flush
+     * @param maxBatchSize max commits of a flush
+     * @param registry     registry of the meters
+     */
+    public GroupCommitUserStorage(UserStorage delegate, Duration maxDelay, int maxBatchSize, MeterRegistry registry) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize must be positive.");
+        }
+        this.delegate = delegate;
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.maxBatchSize = maxBatchSize;
+        // room for the commits arriving during a flush
+        this.queue = new MpscRingBuffer<>(Math.max(2, maxBatchSize) * 4);
+        this.batchSize = DistributionSummary.builder("user.storage.commit.batch.size")
+                .description("Number of the commits sharing a flush")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+        this.flushTimer = Timer.builder("user.storage.commit.flush")
+                .description("Time of a flush")
+                .publishPercentiles(0.5, 0.99)
+                .register(registry);
+        this.commitLatency = Timer.builder("user.storage.commit.latency")
+                .description("Time from a commit to its completion")
+                .publishPercentiles(0.5, 0.99, 0.999)
+                .register(registry);
+        this.committer = new Thread(this::commitLoop, "user-storage-committer");
+        this.committer.setDaemon(true);
+        this.committer.start();
+    }
+
+    /**
+     * @param user user
+     * @return completed with false if the id already exists, exceptionally if the storage is closed or the queue is full
+     */
+    @Override
+    public CompletableFuture<Boolean> commit(User user) {
+        // the common duplicate is answered without a round trip to the committer, which checks again when writing
+        if (null != delegate.get(user.getId())) {
+            return CompletableFuture.completedFuture(false);
+        }
+        PendingCommit pending = new PendingCommit(user, System.nanoTime());
+        if (!running) {
+            pending.completeExceptionally(new IllegalStateException("The storage is closed."));
+        } else if (!queue.offer(pending)) {
+            LockSupport.unpark(committer);
+            pending.completeExceptionally(new RejectedExecutionException("Too many pending commits, the storage is behind."));
+        } else if (!running) {
+            // closed meanwhile, the committer may have stopped before seeing it
+            LockSupport.unpark(committer);
+            failPendingIfTerminated();
+        } else if (idle) {
+            LockSupport.unpark(committer);
+        }
+        return pending;
+    }
+
+    /**
+     * Insert without waiting for the durability, the user is flushed by the next batch.
+     *
+     * @param user user
+     * @return false if the id already exists
+     */
+    @Override
+    public boolean putIfAbsent(User user) {
+        return delegate.putIfAbsent(user);
+    }
+
+    @Override
+    public User get(int id) {
+        return delegate.get(id);
+    }
+
+    @Override
+    public Iterator<User> iterator() {
+        return delegate.iterator();
+    }
+
+    @Override
+    public Iterator<User> iteratorAfter(int id) {
+        return delegate.iteratorAfter(id);
+    }
+
+    @Override
+    public Iterable<User> findByName(String name) {
+        return delegate.findByName(name);
+    }
+
+    @Override
+    public Iterable<User> findByAgeBetween(int minAge, int maxAge) {
+        return delegate.findByAgeBetween(minAge, maxAge);
+    }
+
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+
+    @Override
+    public void flush() {
+        delegate.flush();
+    }
+
+    /**
+     * Stop the committer after the pending commits are completed, the committer closes the delegate once stopped,
+     * so a delegate is never closed under a flush. Wait for it up to 5 seconds.
+     */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(committer);
+        try {
+            committer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (committer.isAlive()) {
+            log.warn("The committer is still writing the users, the storage will be closed once it's done.");
+        }
+    }
+
+    private void commitLoop() {
+        try {
+            commitUntilClosed();
+        } finally {
+            running = false;
+            failPendingAndTerminate();
+            try {
+                delegate.close();
+            } catch (Exception e) {
+                log.error("Failed to close the user storage.", e);
+            }
+        }
+    }
+
+    private void commitUntilClosed() {
+        List<PendingCommit> batch = new ArrayList<>(maxBatchSize);
+        long idleNanos = 0;
+        while (running || !queue.isEmpty()) {
+            PendingCommit first = queue.poll();
+            if (null == first) {
+                // back off when idle, a commit unparks the committer
+                idleNanos = Math.min(MAX_IDLE_NANOS, Math.max(1_000, idleNanos << 1));
+                idle = true;
+                if (queue.isEmpty() && running) {
+                    LockSupport.parkNanos(idleNanos);
+                }
+                idle = false;
+                continue;
+            }
+            idleNanos = 0;
+            batch.add(first);
+            long deadline = first.committedNanos + maxDelayNanos;
+            while (batch.size() < maxBatchSize) {
+                if (queue.drain(batch::add, maxBatchSize - batch.size()) == 0) {
+                    long remaining = deadline - System.nanoTime();
+                    if (remaining <= 0 || !running) {
+                        break;
+                    }
+                    LockSupport.parkNanos(Math.min(remaining, WINDOW_PARK_NANOS));
+                }
+            }
+            write(batch);
+            flush(batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * Fail the commits queued after the committer saw the queue empty, the last time the committer polls the queue.
+     */
+    private synchronized void failPendingAndTerminate() {
+        failPending();
+        terminated = true;
+    }
+
+    /**
+     * Fail the commits queued after the committer stopped, the queue is polled by one thread at a time under this lock.
+     */
+    private synchronized void failPendingIfTerminated() {
+        if (terminated) {
+            failPending();
+        }
+    }
+
+    private void failPending() {
+        PendingCommit pending;
+        while (null != (pending = queue.poll())) {
+            pending.completeExceptionally(new IllegalStateException("The storage is closed."));
+        }
+    }
+
+    /**
+     * Write the users of the batch, the ones failed or already existing are completed and removed from the batch.
+     */
+    private void write(List<PendingCommit> batch) {
+        batch.removeIf(pending -> {
+            try {
+                if (delegate.putIfAbsent(pending.user)) {
+                    return false;
+                }
+                pending.complete(false);
+            } catch (Exception e) {
+                log.error("Failed to write the user {}.", pending.user.getId(), e);
+                pending.completeExceptionally(e);
+            }
+            return true;
+        });
+    }
+
+    private void flush(List<PendingCommit> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        Exception error = null;
+        try {
+            delegate.flush();
+        } catch (Exception e) {
+            log.error("Failed to flush {} commits of the users.", batch.size(), e);
+            error = e;
+        }
+        long end = System.nanoTime();
+        batchSize.record(batch.size());
+        flushTimer.record(end - start, TimeUnit.NANOSECONDS);
+        for (PendingCommit pending : batch) {
+            commitLatency.record(end - pending.committedNanos, TimeUnit.NANOSECONDS);
+            if (null == error) {
+                pending.complete(true);
+            } else {
+                pending.completeExceptionally(error);
+            }
+        }
+    }
+
+    private static final class PendingCommit extends CompletableFuture<Boolean> {
+        private final User user;
+        private final long committedNanos;
+
+        private PendingCommit(User user, long committedNanos) {
+            this.user = user;
+            this.committedNanos = committedNanos;
+        }
+    }
+}
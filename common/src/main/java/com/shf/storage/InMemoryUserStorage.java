@@ -0,0 +1,124 @@
+package com.shf.storage;
+
+import com.shf.entity.User;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * description :
+ * Lock-free {@link UserStorage} in the heap.
+ * The users are appended to slots of chunked arrays in insertion order, and an {@link IntLongHashIndex} maps the id to the slot.
+ * An insertion reserves the id first, so a duplicated id never takes a slot.
+ * The iterators walk the slots up to the last one taken when they were created, skipping the slots not written yet.
+ *
+ * @author songhaifeng
+ * @date 2026/10/18 21:50
+ */
+public class InMemoryUserStorage implements UserStorage {
+    private static final int CHUNK_SHIFT = 14;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    /**
+     * Enough chunks for all the non-negative int slots.
+     */
+    private static final int MAX_CHUNKS = 1 << (31 - CHUNK_SHIFT);
+
+    private final IntLongHashIndex index;
+    private final AtomicReferenceArray<AtomicReferenceArray<User>> chunks = new AtomicReferenceArray<>(MAX_CHUNKS);
+    private final AtomicInteger nextSlot = new AtomicInteger();
+
+    public InMemoryUserStorage() {
+        this(1024);
+    }
+
+    public InMemoryUserStorage(int expectedSize) {
+        this.index = new IntLongHashIndex(expectedSize);
+    }
+
+    @Override
+    public boolean putIfAbsent(User user) {
+        if (!index.reserve(user.getId())) {
+            return false;
+        }
+        int slot = nextSlot.getAndIncrement();
+        if (slot < 0) {
+            throw new IllegalStateException("The storage is full.");
+        }
+        chunk(slot).set(slot & CHUNK_MASK, user);
+        index.publish(user.getId(), slot);
+        return true;
+    }
+
+    @Override
+    public User get(int id) {
+        long slot = index.get(id);
+        return slot == IntLongHashIndex.NO_VALUE ? null : read((int) slot);
+    }
+
+    @Override
+    public Iterator<User> iterator() {
+        return new SlotIterator(0, nextSlot.get());
+    }
+
+    @Override
+    public Iterator<User> iteratorAfter(int id) {
+        long slot = index.get(id);
+        if (slot == IntLongHashIndex.NO_VALUE) {
+            throw new IllegalArgumentException("The user " + id + " is absent.");
+        }
+        return new SlotIterator((int) slot + 1, nextSlot.get());
+    }
+
+    @Override
+    public int size() {
+        return index.size();
+    }
+
+    private AtomicReferenceArray<User> chunk(int slot) {
+        int chunkIndex = slot >>> CHUNK_SHIFT;
+        AtomicReferenceArray<User> chunk = chunks.get(chunkIndex);
+        if (null == chunk) {
+            chunks.compareAndSet(chunkIndex, null, new AtomicReferenceArray<>(CHUNK_SIZE));
+            chunk = chunks.get(chunkIndex);
+        }
+        return chunk;
+    }
+
+    private User read(int slot) {
+        AtomicReferenceArray<User> chunk = chunks.get(slot >>> CHUNK_SHIFT);
+        return null == chunk ? null : chunk.get(slot & CHUNK_MASK);
+    }
+
+    private class SlotIterator implements Iterator<User> {
+        private final int end;
+        private int slot;
+        private User next;
+
+        SlotIterator(int start, int end) {
+            this.slot = start;
+            this.end = end;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (null == next && slot < end) {
+                // null if the slot is taken but the user is not written yet
+                next = read(slot++);
+            }
+            return null != next;
+        }
+
+        @Override
+        public User next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            User user = next;
+            next = null;
+            return user;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package com.shf.storage;
+
+import com.shf.entity.User;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NavigableSet;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * description :
+ * Maintain the secondary indexes of a {@link UserStorage}: a hash index on the name and a sorted index on the age.
+ * <ul>
+ * <li>name: the ids of a name in a lock-free queue, in insertion order, an insertion appends in constant time
+ * however many users share the name.</li>
+ * <li>age: a skip list of `age << 32 | id`, so a range of ages is a sub set sorted by age then id.</li>
+ * </ul>
+ * A user is indexed right after it's inserted and before {@link #putIfAbsent(User)} returns, so an id found by an index
+ * always refers to a stored user. The insertion and the indexing are not atomic: a query running while a user is being
+ * inserted may miss it even though {@link #get(int)} already finds it, but a query started after
+ * {@link #putIfAbsent(User)}(or a commit) returned always finds it.
+ * Since the users are never updated nor removed, the indexes never hold a stale entry.
+ * The existing users of the delegate(like a recovered {@link DurableUserStorage}) are indexed on construction.
+ * <p>
+ * The indexes are in the heap, about 100 bytes per user, and they are not checkpointed: over a durable storage, every
+ * start decodes all the users from the segments to rebuild them, in about 1.5s per million users, however recent the
+ * checkpoint of the id index is.
+ *
+ * @author songhaifeng
+ * @date 2026/10/19 1:10
+ */
+public class IndexedUserStorage implements UserStorage {
+    private static final long ID_MASK = 0xFFFFFFFFL;
+
+    private final UserStorage delegate;
+    private final ConcurrentHashMap<String, Queue<Integer>> nameIndex = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<Long> ageIndex = new ConcurrentSkipListSet<>();
+
+    /**
+     * @param delegate storage, closed with this one
+     */
+    public IndexedUserStorage(UserStorage delegate) {
+        this.delegate = delegate;
+        for (User user : delegate) {
+            index(user);
+        }
+    }
+
+    @Override
+    public boolean putIfAbsent(User user) {
+        if (!delegate.putIfAbsent(user)) {
+            return false;
+        }
+        index(user);
+        return true;
+    }
+
+    @Override
+    public User get(int id) {
+        return delegate.get(id);
+    }
+
+    @Override
+    public Iterator<User> iterator() {
+        return delegate.iterator();
+    }
+
+    @Override
+    public Iterator<User> iteratorAfter(int id) {
+        return delegate.iteratorAfter(id);
+    }
+
+    @Override
+    public Iterable<User> findByName(String name) {
+        Queue<Integer> ids = nameIndex.get(name);
+        if (null == ids) {
+            return Collections.emptyList();
+        }
+        return () -> new Iterator<User>() {
+            private final Iterator<Integer> next = ids.iterator();
+
+            @Override
+            public boolean hasNext() {
+                return next.hasNext();
+            }
+
+            @Override
+            public User next() {
+                return delegate.get(next.next());
+            }
+        };
+    }
+
+    @Override
+    public Iterable<User> findByAgeBetween(int minAge, int maxAge) {
+        if (minAge > maxAge) {
+            return Collections.emptyList();
+        }
+        NavigableSet<Long> range = ageIndex.subSet(ageKey(minAge, 0), true, ageKey(maxAge, -1), true);
+        return () -> new Iterator<User>() {
+            private final Iterator<Long> keys = range.iterator();
+
+            @Override
+            public boolean hasNext() {
+                return keys.hasNext();
+            }
+
+            @Override
+            public User next() {
+                return delegate.get((int) (keys.next() & ID_MASK));
+            }
+        };
+    }
+
+    @Override
+    public int size() {
+        return delegate.size();
+    }
+
+    @Override
+    public void flush() {
+        delegate.flush();
+    }
+
+    @Override
+    public void close() {
+        delegate.close();
+    }
+
+    private void index(User user) {
+        if (null != user.getName()) {
+            // the lock of the bin is only held to create the queue of a new name
+            Queue<Integer> ids = nameIndex.get(user.getName());
+            if (null == ids) {
+                ids = nameIndex.computeIfAbsent(user.getName(), name -> new ConcurrentLinkedQueue<>());
+            }
+            ids.add(user.getId());
+        }
+        ageIndex.add(ageKey(user.getAge(), user.getId()));
+    }
+
+    /**
+     * Sorted by the age then by the id as unsigned, `-1` is the greatest id of an age.
+     */
+    private static long ageKey(int age, int id) {
+        return (long) age << 32 | (id & ID_MASK);
+    }
+}
@@ -0,0 +1,303 @@
+package com.shf.storage;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * description :
+ * Open addressing hash index from a primitive int key to a non-negative long value(like a slot or a file offset),
+ * no boxing and no entry object.
+ * <ul>
+ * <li>Keys are claimed by a CAS on the key array with linear probing, so the writers don't block each other.</li>
+ * <li>A key can be reserved first and published later, the readers see it as absent in between.
+ * It makes an insertion unique before the record is written.</li>
+ * <li>The table is doubled under the write lock of a {@link StampedLock}, the writers hold the read lock,
+ * and the readers don't lock at all unless a resize happened meanwhile.</li>
+ * </ul>
+ * Keys can't be removed, {@link Integer#MIN_VALUE} is not supported as a key.
+ *
+ * @author songhaifeng
+ * @date 2026/10/18 21:20
+ */
+public class IntLongHashIndex {
+    public static final long NO_VALUE = -1L;
+
+    private static final int EMPTY_KEY = Integer.MIN_VALUE;
+    /**
+     * The values are stored plus 1, so 0(the initial value) means reserved but not published.
+     */
+    private static final long RESERVED = 0L;
+    private static final float LOAD_FACTOR = 0.6f;
+
+    private static final int INSERTED = 0;
+    private static final int EXISTS = 1;
+    private static final int FULL = 2;
+
+    private final StampedLock lock = new StampedLock();
+    private final AtomicInteger size = new AtomicInteger();
+    private volatile Table table;
+
+    public IntLongHashIndex(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        this.table = new Table(capacity);
+    }
+
+    /**
+     * @param key key
+     * @return the value, or {@link #NO_VALUE} if absent or not published
+     */
+    public long get(int key) {
+        long value = find(key);
+        return value <= RESERVED ? NO_VALUE : value - 1;
+    }
+
+    /**
+     * @param key key
+     * @return true if the key is reserved or published
+     */
+    public boolean contains(int key) {
+        return find(key) != NO_VALUE;
+    }
+
+    /**
+     * Reserve a key, the value must be {@link #publish(int, long)}ed later.
+     *
+     * @param key key
+     * @return false if the key exists
+     */
+    public boolean reserve(int key) {
+        return insert(key, RESERVED);
+    }
+
+    /**
+     * Publish the value of a reserved key.
+     *
+     * @param key   key
+     * @param value value, not negative
+     */
+    public void publish(int key, long value) {
+        checkValue(value);
+        long stamp = lock.tryOptimisticRead();
+        boolean published = table.set(key, value + 1);
+        if (!lock.validate(stamp)) {
+            // resized meanwhile, the value may not be copied into the new table
+            stamp = lock.readLock();
+            try {
+                published = table.set(key, value + 1);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        if (!published) {
+            throw new IllegalStateException("The key " + key + " is not reserved.");
+        }
+    }
+
+    /**
+     * Insert and publish the value at once.
+     *
+     * @param key   key
+     * @param value value, not negative
+     * @return false if the key exists
+     */
+    public boolean putIfAbsent(int key, long value) {
+        checkValue(value);
+        return insert(key, value + 1);
+    }
+
+    /**
+     * Overwrite the value of an existing key, or insert it.
+     *
+     * @param key   key
+     * @param value value, not negative
+     */
+    public void put(int key, long value) {
+        checkValue(value);
+        if (!insert(key, value + 1)) {
+            publish(key, value);
+        }
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * Visit the published entries, weakly consistent.
+     *
+     * @param consumer consumer
+     */
+    public void forEach(IntLongConsumer consumer) {
+        Table current = table;
+        for (int i = 0; i < current.keys.length(); i++) {
+            int key = current.keys.get(i);
+            long value = current.values.get(i);
+            if (key != EMPTY_KEY && value > RESERVED) {
+                consumer.accept(key, value - 1);
+            }
+        }
+    }
+
+    private long find(int key) {
+        long stamp = lock.tryOptimisticRead();
+        long value = table.find(key);
+        if (!lock.validate(stamp)) {
+            // resized meanwhile, read the new table
+            stamp = lock.readLock();
+            try {
+                value = table.find(key);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+        }
+        return value;
+    }
+
+    private boolean insert(int key, long storedValue) {
+        if (key == EMPTY_KEY) {
+            throw new IllegalArgumentException("Integer.MIN_VALUE is not supported as a key.");
+        }
+        while (true) {
+            int result;
+            long stamp = lock.readLock();
+            try {
+                result = table.insert(key, storedValue);
+            } finally {
+                lock.unlockRead(stamp);
+            }
+            if (result == EXISTS) {
+                return false;
+            }
+            if (result == INSERTED) {
+                if (size.incrementAndGet() > table.threshold) {
+                    grow();
+                }
+                return true;
+            }
+            // FULL: too many concurrent inserts before the resize, grow then retry.
+            grow();
+        }
+    }
+
+    private void grow() {
+        long stamp = lock.writeLock();
+        try {
+            Table current = table;
+            if (size.get() <= current.threshold && current.hasFreeSlot()) {
+                // resized by another thread
+                return;
+            }
+            Table bigger = new Table(current.keys.length() << 1);
+            for (int i = 0; i < current.keys.length(); i++) {
+                int key = current.keys.get(i);
+                if (key != EMPTY_KEY) {
+                    bigger.insert(key, current.values.get(i));
+                }
+            }
+            table = bigger;
+        } finally {
+            lock.unlockWrite(stamp);
+        }
+    }
+
+    private static void checkValue(long value) {
+        if (value < 0 || value == Long.MAX_VALUE) {
+            throw new IllegalArgumentException("The value must be in [0, Long.MAX_VALUE), but is " + value);
+        }
+    }
+
+    /**
+     * murmur3 finalizer, spread the sequential ids over the table.
+     */
+    private static int hash(int key) {
+        int h = key;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    @FunctionalInterface
+    public interface IntLongConsumer {
+        void accept(int key, long value);
+    }
+
+    private static final class Table {
+        private final AtomicIntegerArray keys;
+        private final AtomicLongArray values;
+        private final int mask;
+        private final int threshold;
+        private final AtomicInteger used = new AtomicInteger();
+
+        Table(int capacity) {
+            this.keys = new AtomicIntegerArray(capacity);
+            this.values = new AtomicLongArray(capacity);
+            this.mask = capacity - 1;
+            this.threshold = (int) (capacity * LOAD_FACTOR);
+            for (int i = 0; i < capacity; i++) {
+                keys.set(i, EMPTY_KEY);
+            }
+        }
+
+        boolean hasFreeSlot() {
+            return used.get() < keys.length();
+        }
+
+        int insert(int key, long storedValue) {
+            int index = hash(key) & mask;
+            for (int probes = 0; probes <= mask; probes++, index = (index + 1) & mask) {
+                int current = keys.get(index);
+                if (current == EMPTY_KEY) {
+                    if (keys.compareAndSet(index, EMPTY_KEY, key)) {
+                        used.incrementAndGet();
+                        if (storedValue != RESERVED) {
+                            values.set(index, storedValue);
+                        }
+                        return INSERTED;
+                    }
+                    current = keys.get(index);
+                }
+                if (current == key) {
+                    return EXISTS;
+                }
+            }
+            return FULL;
+        }
+
+        /**
+         * @return the stored value, or {@link #NO_VALUE} if absent
+         */
+        long find(int key) {
+            int index = hash(key) & mask;
+            for (int probes = 0; probes <= mask; probes++, index = (index + 1) & mask) {
+                int current = keys.get(index);
+                if (current == key) {
+                    return values.get(index);
+                }
+                if (current == EMPTY_KEY) {
+                    return NO_VALUE;
+                }
+            }
+            return NO_VALUE;
+        }
+
+        boolean set(int key, long storedValue) {
+            int index = hash(key) & mask;
+            for (int probes = 0; probes <= mask; probes++, index = (index + 1) & mask) {
+                int current = keys.get(index);
+                if (current == key) {
+                    values.set(index, storedValue);
+                    return true;
+                }
+                if (current == EMPTY_KEY) {
+                    return false;
+                }
+            }
+            return false;
+        }
+    }
+}
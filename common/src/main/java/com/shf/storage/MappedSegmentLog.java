@@ -0,0 +1,334 @@
+package com.shf.storage;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongConsumer;
+import java.util.zip.CRC32;
+
+/**
+ * description :
+ * Append-only log of binary records in memory-mapped segment files of a fixed size, the data lives in the page cache
+ * rather than in the heap. A record is addressed by its position: segment index * segment size + offset.
+ * <pre>
+ * record: | length(int) | crc32 of body(int) | body(length bytes) |
+ * </pre>
+ * The length is written last, so a record with a valid length and crc is complete. A length of 0 means the end of the log,
+ * {@link #END_OF_SEGMENT} means the rest of the segment is skipped because the next record didn't fit.
+ * <p>
+ * Appends are serialized by a lock, reads and iterations are lock-free: the records before {@link #tail()} are immutable.
+ * {@link #force()} flushes the mapped segments to the disk.
+ *
+ * @author songhaifeng
+ * @date 2026/10/18 22:50
+ */
+@Slf4j
+public class MappedSegmentLog implements Closeable {
+    static final int HEADER_SIZE = 8;
+    static final int END_OF_SEGMENT = -1;
+    private static final int MAX_SEGMENTS = 1 << 16;
+    private static final String SEGMENT_FILE_FORMAT = "segment-%08d.log";
+    private static final String LOCK_FILE = "lock";
+
+    private final Path directory;
+    private final int segmentSize;
+    private final int maxRecordSize;
+    private final AtomicReferenceArray<MappedByteBuffer> segments = new AtomicReferenceArray<>(MAX_SEGMENTS);
+    private final AtomicReferenceArray<FileChannel> channels = new AtomicReferenceArray<>(MAX_SEGMENTS);
+    private final FileChannel lockChannel;
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final CRC32 appendCrc = new CRC32();
+    private volatile long tail;
+    /**
+     * The segments after it have no write since the last {@link #force()}.
+     */
+    private volatile int firstDirtySegment;
+
+    /**
+     * Open the log, the existing segment files are mapped but not read, see {@link #recover(long, RecordVisitor)}.
+     *
+     * @param directory     directory of the segment files
+     * @param segmentSize   size of a segment file, the size of the existing files wins
+     * @param maxRecordSize max size of a record body
+     * @throws IOException           IOException
+     * @throws IllegalStateException if the directory is used by another log
+     */
+    public MappedSegmentLog(Path directory, int segmentSize, int maxRecordSize) throws IOException {
+        Files.createDirectories(directory);
+        this.directory = directory;
+        this.lockChannel = FileChannel.open(directory.resolve(LOCK_FILE), StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        try {
+            if (null == lockChannel.tryLock()) {
+                throw new OverlappingFileLockException();
+            }
+        } catch (OverlappingFileLockException e) {
+            lockChannel.close();
+            throw new IllegalStateException("The directory " + directory + " is used by another log.");
+        }
+        Path first = segmentPath(0);
+        if (Files.exists(first) && Files.size(first) != segmentSize) {
+            log.warn("The segment size {} differs from the existing segments, use {}.", segmentSize, Files.size(first));
+            segmentSize = (int) Files.size(first);
+        }
+        if (maxRecordSize + HEADER_SIZE > segmentSize) {
+            throw new IllegalArgumentException("maxRecordSize must be less than the segment size " + segmentSize);
+        }
+        this.segmentSize = segmentSize;
+        this.maxRecordSize = maxRecordSize;
+        for (int i = 0; Files.exists(segmentPath(i)); i++) {
+            segment(i);
+        }
+    }
+
+    /**
+     * Scan the records from a position, stop at the end of the log or at the first broken record(a torn write),
+     * which becomes the tail. The bytes of a torn record are zeroed, so they won't be read as a record again.
+     *
+     * @param from    position of a record, usually from a checkpoint
+     * @param visitor visitor of the valid records
+     * @return number of the records visited
+     */
+    public long recover(long from, RecordVisitor visitor) {
+        appendLock.lock();
+        try {
+            long position = from;
+            long count = 0;
+            CRC32 crc = new CRC32();
+            while (true) {
+                position = skipSegmentEnd(position);
+                if (!isMapped(segmentIndex(position))) {
+                    break;
+                }
+                MappedByteBuffer segment = segment(segmentIndex(position));
+                int offset = offset(position);
+                int length = segment.getInt(offset);
+                if (length == END_OF_SEGMENT) {
+                    position = nextSegment(position);
+                    continue;
+                }
+                if (length <= 0 || length > maxRecordSize || offset + HEADER_SIZE + length > segmentSize) {
+                    break;
+                }
+                ByteBuffer body = body(segment, offset, length);
+                crc.reset();
+                crc.update(body.duplicate());
+                if ((int) crc.getValue() != segment.getInt(offset + 4)) {
+                    break;
+                }
+                visitor.visit(position, body);
+                count++;
+                position += HEADER_SIZE + length;
+            }
+            tail = position;
+            firstDirtySegment = segmentIndex(position);
+            zeroTornRecord(position);
+            return count;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * Append a record.
+     *
+     * @param body       body, not consumed
+     * @param onAppended called with the position before the tail moves, so the record is visible(like being indexed)
+     *                   before any reader of the tail can see it
+     * @return position
+     */
+    public long append(ByteBuffer body, LongConsumer onAppended) {
+        int length = body.remaining();
+        if (length == 0 || length > maxRecordSize) {
+            throw new IllegalArgumentException("The record size must be in (0, " + maxRecordSize + "], but is " + length);
+        }
+        appendLock.lock();
+        try {
+            long position = tail;
+            int offset = offset(position);
+            if (offset + HEADER_SIZE + length > segmentSize) {
+                if (offset + 4 <= segmentSize) {
+                    segment(segmentIndex(position)).putInt(offset, END_OF_SEGMENT);
+                }
+                position = nextSegment(position);
+                offset = 0;
+            }
+            MappedByteBuffer segment = segment(segmentIndex(position));
+            ByteBuffer target = segment.duplicate();
+            target.position(offset + HEADER_SIZE);
+            target.put(body.duplicate());
+            appendCrc.reset();
+            appendCrc.update(body.duplicate());
+            segment.putInt(offset + 4, (int) appendCrc.getValue());
+            segment.putInt(offset, length);
+            onAppended.accept(position);
+            tail = position + HEADER_SIZE + length;
+            return position;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    /**
+     * @param position position of a record before the tail
+     * @return a read-only view of the body
+     */
+    public ByteBuffer read(long position) {
+        MappedByteBuffer segment = segments.get(segmentIndex(position));
+        int offset = offset(position);
+        return body(segment, offset, segment.getInt(offset)).asReadOnlyBuffer();
+    }
+
+    /**
+     * @param position position of a record before the tail
+     * @return position of the next record
+     */
+    public long next(long position) {
+        return position + HEADER_SIZE + segments.get(segmentIndex(position)).getInt(offset(position));
+    }
+
+    /**
+     * Iterate the bodies from a position up to the tail of now.
+     *
+     * @param from position of a record, or the tail
+     * @return Iterator
+     */
+    public Iterator<ByteBuffer> iterator(long from) {
+        long end = tail;
+        return new Iterator<ByteBuffer>() {
+            private long position = from;
+
+            @Override
+            public boolean hasNext() {
+                position = skipSegmentEnd(position);
+                if (position < end && segments.get(segmentIndex(position)).getInt(offset(position)) == END_OF_SEGMENT) {
+                    position = nextSegment(position);
+                }
+                return position < end;
+            }
+
+            @Override
+            public ByteBuffer next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                ByteBuffer body = read(position);
+                position += HEADER_SIZE + body.remaining();
+                return body;
+            }
+        };
+    }
+
+    public long tail() {
+        return tail;
+    }
+
+    /**
+     * Flush the segments written since the last call.
+     */
+    public void force() {
+        int last = segmentIndex(tail);
+        for (int i = firstDirtySegment; i <= last; i++) {
+            MappedByteBuffer segment = segments.get(i);
+            if (null != segment) {
+                segment.force();
+            }
+        }
+        firstDirtySegment = last;
+    }
+
+    @Override
+    public void close() throws IOException {
+        force();
+        for (int i = 0; i < MAX_SEGMENTS; i++) {
+            FileChannel channel = channels.get(i);
+            if (null == channel) {
+                break;
+            }
+            channel.close();
+        }
+        lockChannel.close();
+    }
+
+    private long skipSegmentEnd(long position) {
+        // no room for a length in the rest of the segment
+        return offset(position) + 4 > segmentSize ? nextSegment(position) : position;
+    }
+
+    private void zeroTornRecord(long position) throws IOException {
+        if (!isMapped(segmentIndex(position))) {
+            return;
+        }
+        MappedByteBuffer segment = segment(segmentIndex(position));
+        int end = Math.min(segmentSize, offset(position) + HEADER_SIZE + maxRecordSize);
+        for (int i = offset(position); i < end; i++) {
+            segment.put(i, (byte) 0);
+        }
+    }
+
+    /**
+     * The existing segment files are all mapped by the constructor, no need to look at the file system.
+     */
+    private boolean isMapped(int index) {
+        return index < MAX_SEGMENTS && null != segments.get(index);
+    }
+
+    private MappedByteBuffer segment(int index) throws IOException {
+        MappedByteBuffer segment = segments.get(index);
+        if (null != segment) {
+            return segment;
+        }
+        if (index >= MAX_SEGMENTS) {
+            throw new IllegalStateException("The log is full.");
+        }
+        // only called by the constructor or under the append lock
+        FileChannel channel = FileChannel.open(segmentPath(index), StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        segment = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        channels.set(index, channel);
+        segments.set(index, segment);
+        return segment;
+    }
+
+    private static ByteBuffer body(MappedByteBuffer segment, int offset, int length) {
+        ByteBuffer body = segment.duplicate();
+        body.position(offset + HEADER_SIZE).limit(offset + HEADER_SIZE + length);
+        return body.slice();
+    }
+
+    private Path segmentPath(int index) {
+        return directory.resolve(String.format(SEGMENT_FILE_FORMAT, index));
+    }
+
+    private int segmentIndex(long position) {
+        return (int) (position / segmentSize);
+    }
+
+    private int offset(long position) {
+        return (int) (position % segmentSize);
+    }
+
+    private long nextSegment(long position) {
+        return (position / segmentSize + 1) * segmentSize;
+    }
+
+    @FunctionalInterface
+    public interface RecordVisitor {
+        void visit(long position, ByteBuffer body);
+    }
+}
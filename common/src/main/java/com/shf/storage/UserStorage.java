@@ -0,0 +1,97 @@
+package com.shf.storage;
+
+import com.shf.entity.User;
+import org.apache.commons.collections4.IteratorUtils;
+
+import java.io.Closeable;
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * description :
+ * Storage engine of the users, keyed by the primitive id.
+ * All the operations are thread-safe. The iterators are weakly consistent: they never throw
+ * {@link java.util.ConcurrentModificationException}, return the users in insertion order, and may or may not
+ * see the users inserted after they were created.
+ * <p>
+ * The users are stored as given, they must not be modified after {@link #putIfAbsent(User)}.
+ *
+ * @author songhaifeng
+ * @date 2026/10/18 21:10
+ */
+public interface UserStorage extends Iterable<User>, Closeable {
+
+    /**
+     * Insert the user if its id is absent.
+     *
+     * @param user user
+     * @return false if the id already exists
+     */
+    boolean putIfAbsent(User user);
+
+    /**
+     * Insert the user if its id is absent, complete when it's durable.
+     * By default, the storage is flushed for every inserted user, see {@link GroupCommitUserStorage} to share the flushes.
+     *
+     * @param user user
+     * @return completed with false if the id already exists
+     */
+    default CompletableFuture<Boolean> commit(User user) {
+        boolean inserted = putIfAbsent(user);
+        if (inserted) {
+            flush();
+        }
+        return CompletableFuture.completedFuture(inserted);
+    }
+
+    /**
+     * @param id id
+     * @return the user, or null if absent
+     */
+    User get(int id);
+
+    /**
+     * Iterate the users after the given one in insertion order, for resuming an iteration.
+     *
+     * @param id id of the last user had been read
+     * @return Iterator
+     * @throws IllegalArgumentException if the id is absent
+     */
+    Iterator<User> iteratorAfter(int id);
+
+    /**
+     * Find the users of a name, a full scan by default, see {@link IndexedUserStorage}.
+     *
+     * @param name name, not null
+     * @return the users in insertion order, read lazily
+     */
+    default Iterable<User> findByName(String name) {
+        return () -> IteratorUtils.filteredIterator(iterator(), user -> name.equals(user.getName()));
+    }
+
+    /**
+     * Find the users of an age range, a full scan by default, see {@link IndexedUserStorage}.
+     *
+     * @param minAge min age, inclusive
+     * @param maxAge max age, inclusive
+     * @return the users in insertion order(by age then id if indexed), read lazily
+     */
+    default Iterable<User> findByAgeBetween(int minAge, int maxAge) {
+        return () -> IteratorUtils.filteredIterator(iterator(), user -> user.getAge() >= minAge && user.getAge() <= maxAge);
+    }
+
+    /**
+     * @return number of the users, approximate while inserting
+     */
+    int size();
+
+    /**
+     * Make the inserted users durable, a no-op if the storage isn't persisted.
+     */
+    default void flush() {
+    }
+
+    @Override
+    default void close() {
+    }
+}
@@ -0,0 +1,216 @@
+package com.shf.storage;
+
+import com.shf.entity.User;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Description:
+ * Recovery of {@link DurableUserStorage}: after a close, after a crash(the files copied while the storage is open, without
+ * the checkpoint of the close), with a torn last record, and with a broken checkpoint.
+ * The small segments make the users span several segment files.
+ *
+ * @author songhaifeng
+ * @date 2026/10/19 23:40
+ */
+class DurableUserStorageTest {
+    private static final int SEGMENT_SIZE = 64 * 1024;
+    private static final int USERS = 10000;
+    /**
+     * The record of the last user is found by its name in the segment files.
+     */
+    private static final String LAST_NAME = "the-last-user-of-the-log";
+
+    @TempDir
+    Path dir;
+
+    private final List<DurableUserStorage> storages = new ArrayList<>();
+
+    @AfterEach
+    void close() {
+        storages.forEach(DurableUserStorage::close);
+    }
+
+    @Test
+    void reopenAfterClose() throws IOException {
+        Path directory = dir.resolve("storage");
+        DurableUserStorage storage = open(directory);
+        List<User> users = addUsers(storage, 1, USERS);
+        storage.close();
+
+        storage = open(directory);
+        assertUsers(storage, users);
+        assertThat(storage.putIfAbsent(user(1))).isFalse();
+        users.addAll(addUsers(storage, USERS + 1, 100));
+        storage.close();
+
+        assertUsers(open(directory), users);
+    }
+
+    @Test
+    void recoverWithoutClose() throws IOException {
+        DurableUserStorage storage = open(dir.resolve("storage"));
+        List<User> users = addUsers(storage, 1, USERS / 2);
+        storage.checkpoint();
+        users.addAll(addUsers(storage, USERS / 2 + 1, USERS / 2));
+
+        // the checkpoint covers the first half, the second half is replayed
+        assertUsers(open(crash(dir.resolve("storage"))), users);
+    }
+
+    @Test
+    void recoverGarbledLastRecord() throws IOException {
+        assertTornLastRecordDropped((segment, offset) -> segment[offset + MappedSegmentLog.HEADER_SIZE + 1] ^= 0x7f);
+    }
+
+    @Test
+    void recoverTruncatedLastRecord() throws IOException {
+        // the length was written, but not the end of the body
+        assertTornLastRecordDropped((segment, offset) -> {
+            int length = readInt(segment, offset);
+            for (int i = offset + MappedSegmentLog.HEADER_SIZE + length / 2; i < offset + MappedSegmentLog.HEADER_SIZE + length; i++) {
+                segment[i] = 0;
+            }
+        });
+    }
+
+    @Test
+    void replayAllWithBrokenCheckpoint() throws IOException {
+        Path directory = dir.resolve("storage");
+        DurableUserStorage storage = open(directory);
+        List<User> users = addUsers(storage, 1, USERS);
+        storage.close();
+        Path checkpoint = directory.resolve("index.checkpoint");
+        byte[] bytes = Files.readAllBytes(checkpoint);
+        bytes[bytes.length / 2] ^= 0x7f;
+        Files.write(checkpoint, bytes);
+        assertUsers(open(directory), users);
+
+        // and with a checkpoint cut short
+        storages.get(storages.size() - 1).close();
+        bytes = Files.readAllBytes(checkpoint);
+        Files.write(checkpoint, Arrays.copyOf(bytes, bytes.length / 2));
+        assertUsers(open(directory), users);
+    }
+
+    private void assertTornLastRecordDropped(Tear tear) throws IOException {
+        DurableUserStorage storage = open(dir.resolve("storage"));
+        List<User> users = addUsers(storage, 1, USERS);
+        User last = User.builder().id(USERS + 1).name(LAST_NAME).age(18).build();
+        assertThat(storage.putIfAbsent(last)).isTrue();
+        Path crashed = crash(dir.resolve("storage"));
+        Path segmentFile = lastSegment(crashed);
+        byte[] segment = Files.readAllBytes(segmentFile);
+        int offset = lastRecordOffset(segment);
+        int length = readInt(segment, offset);
+        tear.tear(segment, offset);
+        Files.write(segmentFile, segment);
+
+        storage = open(crashed);
+        assertUsers(storage, users);
+        assertThat(storage.get(last.getId())).isNull();
+        // zeroed, so the torn record won't be read as a record again
+        segment = Files.readAllBytes(segmentFile);
+        for (int i = offset; i < offset + MappedSegmentLog.HEADER_SIZE + length; i++) {
+            assertThat(segment[i]).as("byte %s of the torn record", i).isZero();
+        }
+        // appended in place of the torn record
+        users.add(last);
+        assertThat(storage.putIfAbsent(last)).isTrue();
+        storage.close();
+        assertUsers(open(crashed), users);
+    }
+
+    private DurableUserStorage open(Path directory) throws IOException {
+        DurableUserStorage storage = new DurableUserStorage(directory, SEGMENT_SIZE, 16, Duration.ZERO);
+        storages.add(storage);
+        return storage;
+    }
+
+    /**
+     * Copy the segment files and the checkpoint of an open storage, like they are after a crash of the process.
+     */
+    private Path crash(Path directory) throws IOException {
+        Path crashed = Files.createDirectory(dir.resolve("crashed"));
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.filter(file -> !file.getFileName().toString().equals("lock")).collect(Collectors.toList())) {
+                Files.copy(file, crashed.resolve(file.getFileName()));
+            }
+        }
+        return crashed;
+    }
+
+    private static List<User> addUsers(UserStorage storage, int firstId, int count) {
+        List<User> users = new ArrayList<>(count);
+        for (int id = firstId; id < firstId + count; id++) {
+            User user = user(id);
+            assertThat(storage.putIfAbsent(user)).isTrue();
+            users.add(user);
+        }
+        return users;
+    }
+
+    private static User user(int id) {
+        // every fifth user without a name
+        return User.builder().id(id).name(id % 5 == 0 ? null : "user" + id).age(id % 100).build();
+    }
+
+    private static void assertUsers(UserStorage storage, List<User> users) {
+        assertThat(storage.size()).isEqualTo(users.size());
+        for (User user : users) {
+            assertThat(storage.get(user.getId())).isEqualTo(user);
+        }
+        List<User> iterated = new ArrayList<>(users.size());
+        storage.forEach(iterated::add);
+        assertThat(iterated).isEqualTo(users);
+    }
+
+    private static Path lastSegment(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().startsWith("segment-"))
+                    .max(Path::compareTo)
+                    .orElseThrow(IllegalStateException::new);
+        }
+    }
+
+    /**
+     * @return offset of the record of the last user, from the offset of its name
+     */
+    private static int lastRecordOffset(byte[] segment) {
+        byte[] name = LAST_NAME.getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i + name.length <= segment.length; i++) {
+            int j = 0;
+            while (j < name.length && segment[i + j] == name[j]) {
+                j++;
+            }
+            if (j == name.length) {
+                // | length | crc | id | age | name length | name |
+                return i - 12 - MappedSegmentLog.HEADER_SIZE;
+            }
+        }
+        throw new IllegalStateException("The last user is not found.");
+    }
+
+    private static int readInt(byte[] bytes, int offset) {
+        return (bytes[offset] & 0xff) << 24 | (bytes[offset + 1] & 0xff) << 16 | (bytes[offset + 2] & 0xff) << 8 | bytes[offset + 3] & 0xff;
+    }
+
+    @FunctionalInterface
+    private interface Tear {
+        void tear(byte[] segment, int offset);
+    }
+}
@@ -0,0 +1,201 @@
+package com.shf.pingpong;
+
+import com.shf.rsocket.transport.NettyTransports;
+import io.rsocket.Payload;
+import io.rsocket.RSocket;
+import io.rsocket.core.RSocketConnector;
+import io.rsocket.metadata.WellKnownMimeType;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.reactivestreams.Publisher;
+import org.springframework.util.MimeTypeUtils;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Description:
+ * Open-loop load generator, the latency is corrected for coordinated omission like `wrk2`:
+ * with a target rate, every request has an intended start time on a fixed schedule, and its latency
+ * is measured from that time rather than from the moment it was actually sent. When the target stalls,
+ * the requests which should have been sent meanwhile are charged the time they waited.
+ * The uncorrected latency(from the actual send time) is recorded as well for comparison.
+ *
+ * @author songhaifeng
+ * @date 2026/10/18 11:25
+ */
+@Slf4j
+class LoadGenerator {
+    private static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(10);
+    private static final Duration DRAIN_TIMEOUT = Duration.ofSeconds(30);
+
+    private final PingPongProperties.Load load;
+    private final LoadPayloads payloads;
+
+    private final Recorder corrected = new Recorder(3);
+    private final Recorder uncorrected = new Recorder(3);
+    private final LongAdder completed = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder elements = new LongAdder();
+
+    LoadGenerator(PingPongProperties properties) {
+        this.load = properties.getLoad();
+        this.payloads = new LoadPayloads(properties);
+    }
+
+    void run() {
+        List<RSocket> sockets = connect();
+        try {
+            long sent = dispatch(sockets);
+            report(sent);
+        } finally {
+            sockets.forEach(RSocket::dispose);
+        }
+    }
+
+    private List<RSocket> connect() {
+        List<RSocket> sockets = new ArrayList<>(load.getConnections());
+        for (int i = 0; i < load.getConnections(); i++) {
+            RSocketConnector connector = RSocketConnector.create()
+                    .setupPayload(payloads.setup("pingpong-" + i));
+            if (load.getTarget() == PingPongProperties.Target.SERVER) {
+                connector.metadataMimeType(WellKnownMimeType.MESSAGE_RSOCKET_COMPOSITE_METADATA.getString())
+                        .dataMimeType(MimeTypeUtils.APPLICATION_JSON_VALUE);
+            }
+            sockets.add(connector.connect(NettyTransports.client(load.getTransport(), load.endpoint())).block(CONNECT_TIMEOUT));
+        }
+        return sockets;
+    }
+
+    /**
+     * Send requests on the schedule until the end of the duration, the in-flight requests are limited by `concurrency`.
+     *
+     * @param sockets connections, used in turn
+     * @return number of requests sent after the warmup
+     */
+    private long dispatch(List<RSocket> sockets) {
+        Semaphore inFlight = new Semaphore(load.getConcurrency());
+        long intervalNanos = load.getRate() > 0 ? TimeUnit.SECONDS.toNanos(1) / load.getRate() : 0;
+        long start = System.nanoTime();
+        long warmupEnd = start + load.getWarmup().toNanos();
+        long end = warmupEnd + load.getDuration().toNanos();
+        long intendedStart = start;
+        boolean warmedUp = load.getWarmup().isZero();
+        long sent = 0;
+
+        log.info("Start load, target:{}({}:{}), mode:{}, warmup:{}, duration:{}", load.getTarget(), load.getHost(), load.getPort(),
+                load.getMode(), load.getWarmup(), load.getDuration());
+        for (int i = 0; ; i++) {
+            if (intervalNanos > 0) {
+                intendedStart += intervalNanos;
+                parkUntil(intendedStart);
+            }
+            long now = System.nanoTime();
+            if (!warmedUp && now - warmupEnd >= 0) {
+                // discard the samples of the warmup
+                corrected.reset();
+                uncorrected.reset();
+                completed.reset();
+                errors.reset();
+                elements.reset();
+                warmedUp = true;
+            }
+            if (now - end >= 0) {
+                break;
+            }
+            try {
+                if (!inFlight.tryAcquire(end - now, TimeUnit.NANOSECONDS)) {
+                    break;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            long sendTime = System.nanoTime();
+            send(sockets.get(i % sockets.size()), intervalNanos > 0 ? intendedStart : sendTime, sendTime, inFlight);
+            if (warmedUp) {
+                sent++;
+            }
+        }
+
+        try {
+            if (!inFlight.tryAcquire(load.getConcurrency(), DRAIN_TIMEOUT.toNanos(), TimeUnit.NANOSECONDS)) {
+                log.warn("{} requests are still in flight after {}", load.getConcurrency() - inFlight.availablePermits(), DRAIN_TIMEOUT);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return sent;
+    }
+
+    private void send(RSocket socket, long intendedStart, long sendTime, Semaphore inFlight) {
+        Flux.from(request(socket))
+                .doOnNext(payload -> {
+                    elements.increment();
+                    payload.release();
+                })
+                .subscribe(null,
+                        error -> {
+                            errors.increment();
+                            inFlight.release();
+                        },
+                        () -> {
+                            long now = System.nanoTime();
+                            corrected.recordValue(TimeUnit.NANOSECONDS.toMicros(now - intendedStart));
+                            uncorrected.recordValue(TimeUnit.NANOSECONDS.toMicros(now - sendTime));
+                            completed.increment();
+                            inFlight.release();
+                        });
+    }
+
+    private Publisher<Payload> request(RSocket socket) {
+        switch (load.getMode()) {
+            case FIRE_AND_FORGET:
+                return socket.fireAndForget(payloads.request()).cast(Payload.class);
+            case REQUEST_STREAM:
+                return socket.requestStream(payloads.request());
+            case REQUEST_CHANNEL:
+                return socket.requestChannel(Flux.range(0, load.getChannelSize()).map(i -> payloads.request()));
+            case REQUEST_RESPONSE:
+            default:
+                return socket.requestResponse(payloads.request());
+        }
+    }
+
+    private void report(long sent) {
+        Histogram correctedHistogram = corrected.getIntervalHistogram();
+        Histogram uncorrectedHistogram = uncorrected.getIntervalHistogram();
+        double seconds = load.getDuration().toMillis() / 1000.0;
+
+        log.info("===== pingpong load summary =====");
+        log.info("target:{}({}:{}), mode:{}, connections:{}, concurrency:{}, rate:{}/s, payloadSize:{}B, duration:{}",
+                load.getTarget(), load.getHost(), load.getPort(), load.getMode(), load.getConnections(), load.getConcurrency(),
+                load.getRate() > 0 ? load.getRate() : "unlimited", load.getPayloadSize(), load.getDuration());
+        log.info("requests sent:{}, completed:{}, errors:{}, elements received:{}", sent, completed.sum(), errors.sum(), elements.sum());
+        log.info("throughput:{} req/s", String.format("%.1f", completed.sum() / seconds));
+        log.info(String.format("%-24s%10s%10s%10s%10s%10s%10s%10s", "latency(us)", "p50", "p90", "p99", "p99.9", "p99.99", "max", "mean"));
+        log.info(percentiles("corrected", correctedHistogram));
+        log.info(percentiles("uncorrected", uncorrectedHistogram));
+    }
+
+    private static String percentiles(String name, Histogram histogram) {
+        return String.format("%-24s%10d%10d%10d%10d%10d%10d%10.1f", name,
+                histogram.getValueAtPercentile(50), histogram.getValueAtPercentile(90), histogram.getValueAtPercentile(99),
+                histogram.getValueAtPercentile(99.9), histogram.getValueAtPercentile(99.99), histogram.getMaxValue(),
+                histogram.getMean());
+    }
+
+    private static void parkUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(remaining);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.shf.pingpong;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.CompositeByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.util.CharsetUtil;
+import io.rsocket.Payload;
+import io.rsocket.metadata.CompositeMetadataCodec;
+import io.rsocket.metadata.TaggingMetadataCodec;
+import io.rsocket.metadata.WellKnownMimeType;
+import io.rsocket.util.DefaultPayload;
+import org.apache.commons.lang3.StringUtils;
+
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.shf.rsocket.mimetype.MimeTypes.TRACE_ID_MIME_TYPE;
+
+/**
+ * Description:
+ * Pre-encoded payloads of the load generator, a request only allocates the {@link Payload} wrapper.
+ * <p>
+ * The data is the json of a `User` padded to `payloadSize`, so both targets receive the same bytes.
+ * Only {@link PingPongProperties.Target#SERVER} gets the composite metadata(route and traceId) it needs for routing.
+ * With `uniqueIds`, the data is encoded per request around a new id.
+ *
+ * @author songhaifeng
+ * @date 2026/10/18 11:10
+ */
+class LoadPayloads {
+    private static final String TRACE_ID = "pingpong";
+
+    private static final String ID_PREFIX = "{\"id\":";
+    private static final String DEFAULT_ID = "1";
+
+    private final boolean server;
+    private final byte[] data;
+    private final byte[] metadata;
+    private final AtomicInteger nextId;
+
+    LoadPayloads(PingPongProperties properties) {
+        this.server = properties.getLoad().getTarget() == PingPongProperties.Target.SERVER;
+        this.data = userJson(properties.getLoad().getPayloadSize()).getBytes(CharsetUtil.UTF_8);
+        this.metadata = server ? toBytes(requestMetadata(properties.getLoad().resolveRoute())) : null;
+        // start after the ids of a previous run
+        this.nextId = properties.getLoad().isUniqueIds() ? new AtomicInteger((int) (System.currentTimeMillis() / 1000 % 100_000) * 10_000) : null;
+    }
+
+    Payload request() {
+        byte[] requestData = null == nextId ? data : uniqueData(nextId.incrementAndGet());
+        return server ? DefaultPayload.create(requestData, metadata) : DefaultPayload.create(requestData);
+    }
+
+    private byte[] uniqueData(int id) {
+        byte[] idBytes = Integer.toString(id).getBytes(CharsetUtil.UTF_8);
+        int tailOffset = ID_PREFIX.length() + DEFAULT_ID.length();
+        byte[] requestData = new byte[data.length - DEFAULT_ID.length() + idBytes.length];
+        System.arraycopy(data, 0, requestData, 0, ID_PREFIX.length());
+        System.arraycopy(idBytes, 0, requestData, ID_PREFIX.length(), idBytes.length);
+        System.arraycopy(data, tailOffset, requestData, ID_PREFIX.length() + idBytes.length, data.length - tailOffset);
+        return requestData;
+    }
+
+    /**
+     * The `server` module requires the client id as data and the `connect-metadata` with the setup frame.
+     *
+     * @param clientId clientId
+     * @return Payload
+     */
+    Payload setup(String clientId) {
+        if (!server) {
+            return DefaultPayload.create(clientId);
+        }
+        CompositeByteBuf setupMetadata = ByteBufAllocator.DEFAULT.compositeBuffer();
+        CompositeMetadataCodec.encodeAndAddMetadata(setupMetadata, ByteBufAllocator.DEFAULT, WellKnownMimeType.APPLICATION_JSON,
+                Unpooled.copiedBuffer("[\"pingpong\"]", CharsetUtil.UTF_8));
+        return DefaultPayload.create(clientId.getBytes(CharsetUtil.UTF_8), toBytes(setupMetadata));
+    }
+
+    private static ByteBuf requestMetadata(String route) {
+        CompositeByteBuf requestMetadata = ByteBufAllocator.DEFAULT.compositeBuffer();
+        CompositeMetadataCodec.encodeAndAddMetadata(requestMetadata, ByteBufAllocator.DEFAULT, WellKnownMimeType.MESSAGE_RSOCKET_ROUTING,
+                TaggingMetadataCodec.createRoutingMetadata(ByteBufAllocator.DEFAULT, Collections.singletonList(route)).getContent());
+        CompositeMetadataCodec.encodeAndAddMetadata(requestMetadata, ByteBufAllocator.DEFAULT, TRACE_ID_MIME_TYPE.toString(),
+                Unpooled.copiedBuffer(TRACE_ID, CharsetUtil.UTF_8));
+        return requestMetadata;
+    }
+
+    private static String userJson(int payloadSize) {
+        String prefix = ID_PREFIX + DEFAULT_ID + ",\"age\":18,\"name\":\"";
+        String suffix = "\"}";
+        int padding = Math.max(1, payloadSize - prefix.length() - suffix.length());
+        return prefix + StringUtils.repeat('x', padding) + suffix;
+    }
+
+    private static byte[] toBytes(ByteBuf byteBuf) {
+        try {
+            return ByteBufUtil.getBytes(byteBuf);
+        } finally {
+            byteBuf.release();
+        }
+    }
+}
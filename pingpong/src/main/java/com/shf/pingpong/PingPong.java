@@ -1,46 +1,39 @@
 package com.shf.pingpong;
 
+import com.shf.rsocket.transport.NettyTransports;
+import io.netty.buffer.ByteBufUtil;
 import io.rsocket.ConnectionSetupPayload;
 import io.rsocket.Payload;
 import io.rsocket.RSocket;
 import io.rsocket.SocketAcceptor;
-import io.rsocket.core.RSocketConnector;
 import io.rsocket.core.RSocketServer;
-import io.rsocket.transport.netty.client.TcpClientTransport;
-import io.rsocket.transport.netty.server.TcpServerTransport;
 import io.rsocket.util.DefaultPayload;
 import lombok.extern.slf4j.Slf4j;
 import org.reactivestreams.Publisher;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.ApplicationListener;
 import org.springframework.core.Ordered;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-
-import java.time.Duration;
+import reactor.netty.tcp.TcpResources;
 
 /**
  * Description:
+ * {@link Pong} is a raw RSocket acceptor, {@link Ping} is a load generator for {@link Pong} or the `server` module.
+ * Comparing both targets shows the framework overhead against raw RSocket, see {@link PingPongProperties}.
  *
  * @author: songhaifeng
  * @date: 2019/11/19 16:41
  */
 @SpringBootApplication
+@EnableConfigurationProperties(PingPongProperties.class)
 public class PingPong {
 
-    static String reply(String in) {
-        if (in.equalsIgnoreCase("ping")) {
-            return "pong";
-        }
-        if (in.equalsIgnoreCase("pong")) {
-            return "ping";
-        }
-        throw new IllegalArgumentException("incoming value must be either 'ping' or 'pong'! ");
-    }
-
     public static void main(String[] args) {
         SpringApplication.run(PingPong.class, args);
     }
@@ -52,25 +45,16 @@ public class PingPong {
 @Slf4j
 @Component
 class Ping implements ApplicationListener<ApplicationReadyEvent>, Ordered {
+    @Autowired
+    private PingPongProperties properties;
 
     @Override
     public void onApplicationEvent(ApplicationReadyEvent applicationReadyEvent) {
-
+        if (!properties.getLoad().isEnabled()) {
+            return;
+        }
         log.info("starting " + this.getClass().getName());
-
-        Mono<RSocket> start = RSocketConnector.create()
-                .connect(TcpClientTransport.create(7000));
-
-        start.flatMapMany(socket ->
-                // send a requestChannel type request, it's the bi-directional streams mode.
-                socket.requestChannel(
-                        Flux.interval(Duration.ofSeconds(1)).map(i -> DefaultPayload.create("ping")))
-                        .map(Payload::getDataUtf8)
-                        .doOnNext(str -> log.info("Client side received " + str + " in " + getClass()))
-                        // send 10 messages then close
-                        .take(10)
-                        .doFinally(signal -> socket.dispose())
-        ).then().block();
+        new LoadGenerator(properties).run();
     }
 
     @Override
@@ -85,12 +69,17 @@ class Ping implements ApplicationListener<ApplicationReadyEvent>, Ordered {
 @Slf4j
 @Component
 class Pong implements SocketAcceptor, Ordered, ApplicationListener<ApplicationReadyEvent> {
+    @Autowired
+    private PingPongProperties properties;
 
     @Override
     public void onApplicationEvent(ApplicationReadyEvent applicationReadyEvent) {
+        if (!properties.getPong().isEnabled()) {
+            return;
+        }
         RSocketServer.create()
                 .acceptor(this)
-                .bind(TcpServerTransport.create(7000))
+                .bind(NettyTransports.server(properties.getPong().getTransport(), properties.getPong().endpoint(), TcpResources.get()))
                 .block();
     }
 
@@ -99,21 +88,49 @@ class Pong implements SocketAcceptor, Ordered, ApplicationListener<ApplicationRe
         return Ordered.HIGHEST_PRECEDENCE;
     }
 
+    /**
+     * Reply the request data for all interaction models, without any logging, routing or decoding.
+     */
     @Override
     public Mono<RSocket> accept(ConnectionSetupPayload connectionSetupPayload, RSocket rSocket) {
+        int streamSize = properties.getPong().getStreamSize();
 
         RSocket rs = new RSocket() {
+            @Override
+            public Mono<Void> fireAndForget(Payload payload) {
+                payload.release();
+                return Mono.empty();
+            }
+
+            @Override
+            public Mono<Payload> requestResponse(Payload payload) {
+                return Mono.just(reply(payload));
+            }
+
+            @Override
+            public Flux<Payload> requestStream(Payload payload) {
+                byte[] data = ByteBufUtil.getBytes(payload.sliceData());
+                payload.release();
+                return Flux.range(0, streamSize)
+                        .map(i -> DefaultPayload.create(data));
+            }
+
             @Override
             public Flux<Payload> requestChannel(Publisher<Payload> payloads) {
                 return Flux
                         .from(payloads)
-                        .map(Payload::getDataUtf8)
-                        .doOnNext(str -> log.info("Server side received " + str + " in " + getClass()))
-                        .map(PingPong::reply)
-                        .map(DefaultPayload::create);
+                        .map(this::reply);
+            }
+
+            private Payload reply(Payload payload) {
+                try {
+                    return DefaultPayload.create(ByteBufUtil.getBytes(payload.sliceData()));
+                } finally {
+                    payload.release();
+                }
             }
         };
 
         return Mono.just(rs);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,123 @@
+package com.shf.pingpong;
+
+import com.shf.rsocket.transport.NettyTransport;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Description:
+ * Settings of the load generator({@link Ping}) and the raw acceptor({@link Pong}).
+ *
+ * @author songhaifeng
+ * @date 2026/10/18 11:02
+ */
+@Data
+@ConfigurationProperties(prefix = "pingpong")
+public class PingPongProperties {
+    private Load load = new Load();
+    private Pong pong = new Pong();
+
+    public enum Target {
+        /**
+         * The raw {@link com.shf.pingpong.Pong} acceptor, no framework at all.
+         */
+        PONG,
+        /**
+         * The `server` module, requests are routed by `@MessageMapping`.
+         */
+        SERVER
+    }
+
+    public enum InteractionModel {
+        FIRE_AND_FORGET("add.user"),
+        REQUEST_RESPONSE("user"),
+        REQUEST_STREAM("list"),
+        REQUEST_CHANNEL("request.channel");
+
+        /**
+         * The route of the `server` module for this interaction model.
+         */
+        private final String serverRoute;
+
+        InteractionModel(String serverRoute) {
+            this.serverRoute = serverRoute;
+        }
+
+        public String getServerRoute() {
+            return serverRoute;
+        }
+    }
+
+    @Data
+    public static class Load {
+        private boolean enabled = true;
+        private Target target = Target.PONG;
+        private InteractionModel mode = InteractionModel.REQUEST_RESPONSE;
+        private NettyTransport transport = NettyTransport.AUTO;
+        private String host = "127.0.0.1";
+        private int port = 7000;
+        /**
+         * The socket file of the target, only for {@link NettyTransport#UDS}.
+         */
+        private String domainSocket;
+        /**
+         * Overwrite the default route of the `server` module, ignored by {@link Target#PONG}.
+         */
+        private String route;
+        private int connections = 1;
+        /**
+         * Max in-flight requests over all connections.
+         */
+        private int concurrency = 16;
+        /**
+         * Target requests per second over all connections, 0 means closed-loop: send as fast as the in-flight limit allows.
+         */
+        private int rate = 1000;
+        /**
+         * Size of the data in bytes.
+         */
+        private int payloadSize = 64;
+        /**
+         * Number of payloads sent by a request/channel.
+         */
+        private int channelSize = 10;
+        /**
+         * Give every request a new user id instead of `1`, so `add.user` inserts a user per request.
+         */
+        private boolean uniqueIds = false;
+        private Duration warmup = Duration.ofSeconds(5);
+        private Duration duration = Duration.ofSeconds(30);
+
+        public String endpoint() {
+            return transport == NettyTransport.UDS ? domainSocket : host + ":" + port;
+        }
+
+        public String resolveRoute() {
+            if (route != null && !route.isEmpty()) {
+                return route;
+            }
+            return mode.getServerRoute();
+        }
+    }
+
+    @Data
+    public static class Pong {
+        private boolean enabled = true;
+        private NettyTransport transport = NettyTransport.AUTO;
+        private int port = 7000;
+        /**
+         * The socket file to bind, only for {@link NettyTransport#UDS}.
+         */
+        private String domainSocket;
+        /**
+         * Number of payloads replied for a request/stream.
+         */
+        private int streamSize = 10;
+
+        public String endpoint() {
+            return transport == NettyTransport.UDS ? domainSocket : "0.0.0.0:" + port;
+        }
+    }
+}
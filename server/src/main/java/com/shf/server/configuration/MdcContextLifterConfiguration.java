@@ -1,22 +1,33 @@
 package com.shf.server.configuration;
 
 import com.shf.reactive.mdc.MdcContextLifterHook;
+import com.shf.reactive.mdc.MdcPropagationMode;
 import com.shf.rsocket.interceptor.trace.TraceConstant;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 
 import java.util.Collections;
 
 /**
  * description :
+ * Propagate the MDC by the global hook unless `mdc.propagation-mode=BOUNDARY`, see {@link MdcPropagationMode}.
  *
  * @author songhaifeng
  * @date 2020/6/3 18:49
  */
 @Configuration
+@ConditionalOnProperty(name = MdcPropagationMode.PROPERTY, havingValue = "HOOK", matchIfMissing = true)
 public class MdcContextLifterConfiguration {
 
+    /**
+     * Installed at startup, see {@link MdcPropagationMode#HOOK}.
+     *
+     * @return MdcContextLifterHook
+     */
     @Bean(initMethod = "contextOperatorHook", destroyMethod = "cleanupHook")
+    @Lazy(false)
     public MdcContextLifterHook mdcContextLifterHook() {
         return new MdcContextLifterHook(Collections.singleton(TraceConstant.TRACE_ID));
     }
@@ -1,25 +1,43 @@
 package com.shf.server.configuration;
 
 import com.shf.entity.Foo;
+import com.shf.entity.PageRequest;
+import com.shf.rsocket.broadcast.BroadcastService;
+import com.shf.rsocket.broadcast.DropPolicy;
+import com.shf.rsocket.broadcast.PushFlowControl;
 import com.shf.rsocket.entity.RSocketRole;
 import com.shf.rsocket.interceptor.PayloadExtractFunction;
 import com.shf.rsocket.interceptor.context.DefaultResponderContextInterceptor;
 import com.shf.rsocket.interceptor.log.DefaultConnectionSetUpLogInterceptor;
 import com.shf.rsocket.interceptor.log.DefaultRequesterLogInterceptor;
 import com.shf.rsocket.interceptor.log.DefaultResponderLogInterceptor;
+import com.shf.rsocket.interceptor.log.policy.LogPolicy;
+import com.shf.rsocket.interceptor.log.sink.AsyncLogSink;
+import com.shf.rsocket.interceptor.log.sink.LogSink;
 import com.shf.rsocket.interceptor.metadata.DefaultMetadataPushReceiveInterceptor;
+import com.shf.rsocket.interceptor.metadata.MetadataCacheInterceptor;
 import com.shf.rsocket.interceptor.trace.TraceConstant;
 import com.shf.rsocket.spring.PayloadHandler;
+import com.shf.rsocket.spring.metadata.MetadataCacheStrategiesPostProcessor;
+import com.shf.rsocket.transport.NettyTransport;
+import com.shf.rsocket.transport.TransportRSocketServerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
 import io.rsocket.core.Resume;
 import io.rsocket.frame.decoder.PayloadDecoder;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.rsocket.RSocketProperties;
 import org.springframework.boot.autoconfigure.rsocket.RSocketStrategiesAutoConfiguration;
 import org.springframework.boot.rsocket.messaging.RSocketStrategiesCustomizer;
 import org.springframework.boot.rsocket.server.RSocketServerCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
 import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.client.reactive.ReactorResourceFactory;
 import org.springframework.messaging.rsocket.RSocketStrategies;
 import org.springframework.util.MimeTypeUtils;
 import reactor.util.retry.Retry;
@@ -27,10 +45,12 @@ import reactor.util.retry.Retry;
 import java.time.Duration;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
 import static com.shf.rsocket.interceptor.OrderRSocketInterceptor.DEFAULT_INTERCEPTOR_SORT;
 import static com.shf.rsocket.mimetype.MimeTypes.FOO_MIME_TYPE;
 import static com.shf.rsocket.mimetype.MimeTypes.MAP_MIME_TYPE;
+import static com.shf.rsocket.mimetype.MimeTypes.PAGE_MIME_TYPE;
 import static com.shf.rsocket.mimetype.MimeTypes.PARAMETERIZED_TYPE_MIME_TYPE;
 import static com.shf.rsocket.mimetype.MimeTypes.REFRESH_TOKEN_MIME_TYPE;
 import static com.shf.rsocket.mimetype.MimeTypes.SECURITY_TOKEN_MIME_TYPE;
@@ -65,6 +85,7 @@ public class RSocketServerConfiguration {
                 register.metadataToExtract(REFRESH_TOKEN_MIME_TYPE, String.class, "refreshToken");
                 register.metadataToExtract(TRACE_ID_MIME_TYPE, String.class, TraceConstant.TRACE_ID);
                 register.metadataToExtract(FOO_MIME_TYPE, Foo.class, "foo");
+                register.metadataToExtract(PAGE_MIME_TYPE, PageRequest.class, "page");
                 // registry with ParameterizedTypeReference for the special type.
                 register.metadataToExtract(MAP_MIME_TYPE, new ParameterizedTypeReference<Map<String, Object>>() {
                 }, "properties");
@@ -91,6 +112,33 @@ public class RSocketServerConfiguration {
         };
     }
 
+    /**
+     * Decode the metadata of a request only once, shared by the interceptors and the `@Header` resolution.
+     * Works with {@link MetadataCacheInterceptor}.
+     *
+     * @return MetadataCacheStrategiesPostProcessor
+     */
+    @Bean
+    public static MetadataCacheStrategiesPostProcessor metadataCacheStrategiesPostProcessor() {
+        return new MetadataCacheStrategiesPostProcessor();
+    }
+
+    /**
+     * Bind the rsocket server on `spring.rsocket.server.netty-transport`, TCP or a unix domain socket for the co-located clients,
+     * see {@link NettyTransport}. Replaces the server factory of spring boot, with the same `spring.rsocket.server.*` settings.
+     *
+     * @return TransportRSocketServerFactory
+     */
+    @Bean
+    TransportRSocketServerFactory transportRSocketServerFactory(RSocketProperties properties,
+                                                                ObjectProvider<ReactorResourceFactory> resourceFactory,
+                                                                ObjectProvider<RSocketServerCustomizer> customizers,
+                                                                @Value("${spring.rsocket.server.netty-transport:AUTO}") NettyTransport nettyTransport,
+                                                                @Value("${spring.rsocket.server.domain-socket:}") String domainSocket) {
+        return TransportRSocketServerFactory.of(properties, nettyTransport, domainSocket, resourceFactory.getIfAvailable(),
+                customizers.orderedStream().collect(Collectors.toList()));
+    }
+
     /**
      * Add resume ability for RSocketServer
      *
@@ -109,18 +157,91 @@ public class RSocketServerConfiguration {
                 );
     }
 
+    /**
+     * Decide which requests are logged by {@link DefaultResponderLogInterceptor}, log all by default.
+     * eg: {@code rsocket.log.route-sample-rates={'user':0.01,'list':1.0}}
+     *
+     * @return LogPolicy
+     */
+    @Bean
+    LogPolicy logPolicy(@Value("${rsocket.log.sample-rate:1.0}") double sampleRate,
+                        @Value("#{${rsocket.log.route-sample-rates:{:}}}") Map<String, Double> routeSampleRates,
+                        @Value("${rsocket.log.max-logs-per-second:0}") int maxLogsPerSecond,
+                        @Value("${rsocket.log.max-body-bytes:0}") int maxBodyBytes,
+                        @Value("${rsocket.log.slow-threshold-millis:0}") long slowThresholdMillis,
+                        @Value("${rsocket.log.always-log-errors:true}") boolean alwaysLogErrors,
+                        @Value("${rsocket.log.capture:STRING}") LogPolicy.Capture capture) {
+        return LogPolicy.builder()
+                .sampleRate(sampleRate)
+                .routeSampleRates(routeSampleRates)
+                .maxLogsPerSecond(maxLogsPerSecond)
+                .maxBodyBytes(maxBodyBytes)
+                .slowThresholdMillis(slowThresholdMillis)
+                .alwaysLogErrors(alwaysLogErrors)
+                .capture(capture)
+                .build();
+    }
+
+    /**
+     * Write the payload logs off the event loop by default, {@code rsocket.log.sink=sync} writes them in the calling thread.
+     * With {@link AsyncLogSink.OverflowPolicy#DROP}, the records are dropped and counted when the queue is full.
+     * The {@link AsyncLogSink} is closed(drained) with the context, as an {@link AutoCloseable}.
+     *
+     * @return LogSink
+     */
+    @Bean
+    LogSink logSink(@Value("${rsocket.log.sink:async}") String sink,
+                    @Value("${rsocket.log.queue-capacity:8192}") int queueCapacity,
+                    @Value("${rsocket.log.overflow-policy:DROP}") AsyncLogSink.OverflowPolicy overflowPolicy) {
+        if ("sync".equalsIgnoreCase(sink)) {
+            return LogSink.SYNC;
+        }
+        return new AsyncLogSink(queueCapacity, overflowPolicy);
+    }
+
+    /**
+     * The registry of the connected clients, and the fan-out of the server-initiated metadata_push to them.
+     * Closed with the context, as a {@link java.io.Closeable}.
+     *
+     * @return BroadcastService
+     */
+    @Bean
+    BroadcastService broadcastService(@Value("${rsocket.broadcast.queue-capacity:1024}") int queueCapacity,
+                                      @Value("${rsocket.broadcast.max-in-flight:128}") int maxInFlight,
+                                      @Value("${rsocket.broadcast.drop-policy:DROP_NEWEST}") DropPolicy dropPolicy,
+                                      @Value("${rsocket.broadcast.parallelism:#{T(java.lang.Runtime).getRuntime().availableProcessors()}}") int parallelism,
+                                      ObjectProvider<MeterRegistry> registry) {
+        return new BroadcastService(queueCapacity, maxInFlight, dropPolicy, parallelism, registry.getIfAvailable(() -> Metrics.globalRegistry));
+    }
+
+    /**
+     * Count the metadata_push frames written by the transport of each connection, for the `max-in-flight` of {@link BroadcastService}.
+     * Runs after the other customizers, its acceptor interceptor must be the outermost one.
+     *
+     * @return RSocketServerCustomizer
+     */
+    @Bean
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    RSocketServerCustomizer pushFlowControlCustomizer() {
+        PushFlowControl pushFlowControl = new PushFlowControl();
+        return (rSocketServer) ->
+                rSocketServer.interceptors(interceptorRegistry -> interceptorRegistry.forConnection(pushFlowControl.connectionInterceptor()))
+                        .interceptors(interceptorRegistry -> interceptorRegistry.forSocketAcceptor(pushFlowControl.socketAcceptorInterceptor()));
+    }
+
     /**
      * customize RSocketServer
      *
      * @return RSocketServerCustomizer
      */
     @Bean
-    RSocketServerCustomizer rSocketServerCustomizer(RSocketStrategies rSocketStrategies) {
+    RSocketServerCustomizer rSocketServerCustomizer(RSocketStrategies rSocketStrategies, LogPolicy logPolicy, LogSink logSink) {
         PayloadExtractFunction payloadExtractFunction = PayloadHandler.payloadExtractFunction(rSocketStrategies.metadataExtractor());
         return (rSocketServer) ->
                 rSocketServer.payloadDecoder(PayloadDecoder.ZERO_COPY)
+                        .interceptors(interceptorRegistry -> interceptorRegistry.forResponder(new MetadataCacheInterceptor()))
                         .interceptors(interceptorRegistry ->
-                                interceptorRegistry.forResponder(new DefaultResponderLogInterceptor(appName, payloadExtractFunction)))
+                                interceptorRegistry.forResponder(new DefaultResponderLogInterceptor(appName, payloadExtractFunction, logPolicy, logSink)))
                         .interceptors(interceptorRegistry ->
                                 interceptorRegistry.forResponder(new DefaultResponderContextInterceptor(payloadExtractFunction)))
                         .interceptors(interceptorRegistry -> interceptorRegistry.forResponder(new DefaultMetadataPushReceiveInterceptor()))
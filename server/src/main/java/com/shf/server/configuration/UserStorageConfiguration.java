@@ -0,0 +1,68 @@
+package com.shf.server.configuration;
+
+import com.shf.storage.DurableUserStorage;
+import com.shf.storage.GroupCommitUserStorage;
+import com.shf.storage.InMemoryUserStorage;
+import com.shf.storage.IndexedUserStorage;
+import com.shf.storage.UserStorage;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Duration;
+
+/**
+ * Description:
+ * The {@link UserStorage} engine behind {@code UserRepository}, selected by {@code user.storage.type}.
+ *
+ * @author songhaifeng
+ * @date 2026/10/18 22:10
+ */
+@Configuration
+public class UserStorageConfiguration {
+
+    /**
+     * memory: lock-free in the heap, the users are lost on restart.
+     * durable: appended to memory-mapped segments in {@code user.storage.dir}, recovered from the last checkpoint of the
+     * index and the log after it. Closed(checkpointed) with the context, as an {@link AutoCloseable}.
+     * The inserts of a durable storage are flushed in groups by default, otherwise one by one.
+     * The name and age indexes are maintained by default, otherwise the queries scan all the users. They are in the heap,
+     * and rebuilt from all the users of a durable storage on start.
+     *
+     * @param type         memory or durable
+     * @param expectedSize pre-size the index to avoid resizing
+     * @param registry     registry of the group commit meters, the global one if absent
+     * @return UserStorage
+     * @throws IOException if the durable storage can't be opened
+     */
+    @Bean
+    public UserStorage userStorage(@Value("${user.storage.type:memory}") String type,
+                                   @Value("${user.storage.expected-size:1024}") int expectedSize,
+                                   @Value("${user.storage.dir:data/users}") String dir,
+                                   @Value("${user.storage.segment-size:64MB}") DataSize segmentSize,
+                                   @Value("${user.storage.checkpoint-interval:60s}") Duration checkpointInterval,
+                                   @Value("${user.storage.group-commit.enabled:true}") boolean groupCommit,
+                                   @Value("${user.storage.group-commit.max-delay:0ms}") Duration maxDelay,
+                                   @Value("${user.storage.group-commit.max-batch-size:256}") int maxBatchSize,
+                                   @Value("${user.storage.indexes.enabled:true}") boolean indexes,
+                                   ObjectProvider<MeterRegistry> registry) throws IOException {
+        boolean durable = "durable".equalsIgnoreCase(type);
+        UserStorage storage = durable
+                ? new DurableUserStorage(Paths.get(dir), (int) segmentSize.toBytes(), expectedSize, checkpointInterval)
+                : new InMemoryUserStorage(expectedSize);
+        if (indexes) {
+            storage = new IndexedUserStorage(storage);
+        }
+        // outermost, the users are indexed before they are flushed
+        if (durable && groupCommit) {
+            storage = new GroupCommitUserStorage(storage, maxDelay, maxBatchSize, registry.getIfAvailable(() -> Metrics.globalRegistry));
+        }
+        return storage;
+    }
+}
@@ -1,12 +1,18 @@
 package com.shf.server.controller;
 
 import com.shf.entity.Foo;
+import com.shf.entity.PageRequest;
 import com.shf.entity.User;
+import com.shf.entity.UserChunk;
+import com.shf.entity.UserQuery;
 import com.shf.entity.UserRequest;
-import com.shf.reactive.mdc.MdcContextLifterHook;
+import com.shf.rsocket.broadcast.BroadcastService;
 import com.shf.rsocket.interceptor.trace.TraceConstant;
 import com.shf.rsocket.interceptor.trace.TraceContextHolder;
+import com.shf.rsocket.invalidation.InvalidationMessage;
 import com.shf.server.repository.UserRepository;
+import com.shf.server.service.UserService;
+import io.netty.buffer.ByteBufAllocator;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.collections4.MapUtils;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -24,7 +30,7 @@ import reactor.core.publisher.Mono;
 
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 import static com.shf.rsocket.mimetype.MimeTypes.SECURITY_TOKEN_MIME_TYPE;
 import static com.shf.rsocket.mimetype.MimeTypes.TRACE_ID_MIME_TYPE;
@@ -43,7 +49,10 @@ public class UserController {
     private UserRepository userRepository;
 
     @Autowired
-    private MdcContextLifterHook mdcContextLifterHook;
+    private UserService userService;
+
+    @Autowired
+    private BroadcastService broadcastService;
 
     /***********************************request/response******************************/
     @MessageMapping("user")
@@ -51,17 +60,59 @@ public class UserController {
                            @Header(value = TraceConstant.TRACE_ID, required = false, defaultValue = TraceConstant.UNKNOWN) String traceIdFromHeader) {
         return TraceContextHolder.getTraceId().flatMap(traceId -> {
             log.info("traceId from context is {}, traceId from header is {}", traceId, traceIdFromHeader);
-            return userRepository.getOne(userRequest.getId());
+            return userService.getOne(userRequest.getId());
         });
     }
 
+    /**
+     * Look up several users in one request, the users not found are skipped.
+     *
+     * @param userRequests ids
+     * @return Flux<User>
+     */
+    @MessageMapping("users")
+    public Flux<User> users(List<UserRequest> userRequests) {
+        return userService.getAll(userRequests.stream().map(UserRequest::getId).distinct().collect(Collectors.toList()));
+    }
+
+    /**
+     * Find the users by the name index.
+     *
+     * @param query name
+     * @return Flux<User>
+     */
+    @MessageMapping("user.by.name")
+    public Flux<User> userByName(UserQuery query) {
+        if (null == query.getName()) {
+            return Flux.error(new IllegalArgumentException("The name is required."));
+        }
+        return userRepository.findByName(query.getName());
+    }
+
+    /**
+     * Scan the age index, the users are read on demand.
+     *
+     * @param query minAge and maxAge
+     * @return Flux<User>
+     */
+    @MessageMapping("user.by.age.range")
+    public Flux<User> userByAgeRange(UserQuery query) {
+        return userRepository.findByAgeBetween(null == query.getMinAge() ? Integer.MIN_VALUE : query.getMinAge(),
+                null == query.getMaxAge() ? Integer.MAX_VALUE : query.getMaxAge());
+    }
+
     /***********************************Fire And Forget******************************/
     @MessageMapping("add.user")
     public Mono<Void> add(User user, @Header(TraceConstant.TRACE_ID) String traceIdFromHeader) {
         return TraceContextHolder.getTraceId().flatMap(traceId -> {
             log.info("traceId from context is {}, traceId from header is {}", traceId, traceIdFromHeader);
-            userRepository.add(user);
-            return Mono.empty();
+            return userService.add(user)
+                    .doOnSuccess(inserted -> {
+                        if (Boolean.TRUE.equals(inserted)) {
+                            broadcast(InvalidationMessage.key(USER_ENTITY, user.getId()));
+                        }
+                    })
+                    .then();
         });
     }
 
@@ -73,14 +124,32 @@ public class UserController {
      * @return
      */
     @MessageMapping("list")
-    public Flux<User> list(@Header(TraceConstant.TRACE_ID) String traceIdFromHeader) {
-        return Flux.from(TraceContextHolder.getTraceId()).flatMap(traceId -> {
+    public Flux<User> list(@Header(TraceConstant.TRACE_ID) String traceIdFromHeader,
+                           @Header(value = "page", required = false) PageRequest page) {
+        // flatMapMany passes the requestN of the client through, a flatMap would prefetch 32 users or chunks
+        return TraceContextHolder.getTraceId().flatMapMany(traceId -> {
             log.info("traceId from context is {}, traceId from header is {}", traceId, traceIdFromHeader);
-            return userRepository.list();
+            return userRepository.list(page);
         });
 
     }
 
+    /**
+     * Like `list`, with a batch of users per payload. The chunk size is `page.chunkSize` or `user.list.chunk-size`.
+     *
+     * @param page cursor, limit and chunk size, optional
+     * @return Flux<UserChunk>
+     */
+    @MessageMapping("list.chunk")
+    public Flux<UserChunk> listChunk(@Header(TraceConstant.TRACE_ID) String traceIdFromHeader,
+                                     @Header(value = "page", required = false) PageRequest page) {
+        // flatMapMany passes the requestN of the client through, a flatMap would prefetch 32 users or chunks
+        return TraceContextHolder.getTraceId().flatMapMany(traceId -> {
+            log.info("traceId from context is {}, traceId from header is {}", traceId, traceIdFromHeader);
+            return userRepository.listChunks(page);
+        });
+    }
+
     /***********************************Request Channel******************************/
     @MessageMapping("request.channel")
     public Flux<User> requestChannel(Flux<User> users, @Header(TraceConstant.TRACE_ID) String traceIdFromHeader) {
@@ -172,11 +241,22 @@ public class UserController {
      */
     @MessageMapping("user.{id}")
     public Mono<User> destinationVariable(@DestinationVariable(value = "id") int id) {
-        return userRepository.getOne(id);
+        return userService.getOne(id);
     }
 
     /***********************************ConnectMapping******************************/
-    private static final Map<String, RSocketRequester> REQUESTER_MAP = new ConcurrentHashMap<>();
+    private static final String USER_ENTITY = "user";
+
+    /**
+     * Push the invalidation to every connected client by metadata_push, the message is encoded once and shared by all.
+     *
+     * @param message message
+     */
+    private void broadcast(InvalidationMessage message) {
+        if (broadcastService.getConnectionCount() > 0) {
+            broadcastService.broadcast(message.encode(ByteBufAllocator.DEFAULT));
+        }
+    }
 
     /**
      * Matches all connects without route.
@@ -205,14 +285,13 @@ public class UserController {
                         log.warn("Reject client({}), disconnect.", clientId);
                         rSocketRequester.rsocket().dispose();
                     } else {
-                        REQUESTER_MAP.put(clientId, rSocketRequester);
+                        broadcastService.register(clientId, rSocketRequester.rsocket());
                     }
                 })
                 .doOnError(error -> {
                     log.warn("Channel to client {} CLOSED", clientId);
                 })
                 .doFinally(consumer -> {
-                    REQUESTER_MAP.remove(clientId, rSocketRequester);
                     log.info("Client {} DISCONNECTED", clientId);
                 })
                 .subscribe();
@@ -251,7 +330,7 @@ public class UserController {
                                         @Header(TraceConstant.TRACE_ID) String traceIdFromHeader) {
         return TraceContextHolder.getTraceId().flatMap(traceId -> {
             log.info("traceId from context is {}, traceId from header is {}", traceId, traceIdFromHeader);
-            return userRepository.getOne(userRequest.getId()).flatMap(user -> {
+            return userService.getOne(userRequest.getId()).flatMap(user -> {
                 log.info("Your(" + user.getName() + ") securityToken is '" + securityToken + "'");
                 return rSocketRequester.route("client.responder.user")
                         .metadata(securityToken, SECURITY_TOKEN_MIME_TYPE)
@@ -1,19 +1,18 @@
 package com.shf.server.repository;
 
+import com.shf.entity.PageRequest;
 import com.shf.entity.User;
-
+import com.shf.entity.UserChunk;
+import com.shf.storage.UserStorage;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
-
-import java.time.Duration;
-import java.util.HashMap;
-import java.util.Map;
-
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 /**
  * Description:
+ * Users in a thread-safe {@link UserStorage}, `add` may run on any netty thread while `list` is iterating.
  *
  * @author: songhaifeng
  * @date: 2019/11/18 14:57
@@ -21,29 +20,88 @@ import reactor.core.publisher.Mono;
 @Repository
 @Slf4j
 public class UserRepository {
-    private static final Map<Integer, User> USERS = new HashMap<>(3);
+    private final UserStorage userStorage;
+    private final int defaultChunkSize;
 
-    static {
-        USERS.put(1, User.builder().id(1).age(18).name("foo").build());
-        USERS.put(2, User.builder().id(2).age(20).name("bar").build());
-        USERS.put(3, User.builder().id(3).age(25).name("car").build());
+    public UserRepository(UserStorage userStorage, @Value("${user.list.chunk-size:100}") int defaultChunkSize) {
+        this.userStorage = userStorage;
+        this.defaultChunkSize = defaultChunkSize;
+        userStorage.putIfAbsent(User.builder().id(1).age(18).name("foo").build());
+        userStorage.putIfAbsent(User.builder().id(2).age(20).name("bar").build());
+        userStorage.putIfAbsent(User.builder().id(3).age(25).name("car").build());
     }
 
+    /**
+     * @param id id
+     * @return the user read on subscription, so it's read on the scheduler of a `subscribeOn`
+     */
     public Mono<User> getOne(int id) {
-        return Mono.justOrEmpty(USERS.get(id));
+        return Mono.fromCallable(() -> userStorage.get(id));
     }
 
+    /**
+     * @param ids ids
+     * @return the users found, in the order of the ids
+     */
+    public Flux<User> getAll(Iterable<Integer> ids) {
+        return Flux.fromIterable(ids).handle((id, sink) -> {
+            User user = userStorage.get(id);
+            if (null != user) {
+                sink.next(user);
+            }
+        });
+    }
+
+    /**
+     * @param user user
+     * @return completed with false if the id already exists, once the user is durable
+     */
     public Mono<Boolean> add(User user) {
         log.info("add a user : {}", user.toString());
-        if (USERS.containsKey(user.getId())) {
-            return Mono.just(Boolean.FALSE);
-        }
-        USERS.put(user.getId(), user);
-        return Mono.just(Boolean.TRUE);
+        return Mono.fromFuture(userStorage.commit(user));
+    }
+
+    /**
+     * @param name name
+     * @return the users of the name, by the name index
+     */
+    public Flux<User> findByName(String name) {
+        return Flux.fromIterable(userStorage.findByName(name));
+    }
+
+    /**
+     * Scan the age index on demand, sorted by age then id.
+     *
+     * @param minAge inclusive
+     * @param maxAge inclusive
+     * @return Flux
+     */
+    public Flux<User> findByAgeBetween(int minAge, int maxAge) {
+        return Flux.fromIterable(userStorage.findByAgeBetween(minAge, maxAge));
+    }
+
+    /**
+     * Read the users from the storage on demand, a `requestN` reads N more users.
+     *
+     * @param page cursor and limit, nullable
+     * @return Flux
+     * @throws IllegalArgumentException(as an error) if the cursor is absent
+     */
+    public Flux<User> list(PageRequest page) {
+        Integer after = null == page ? null : page.getAfter();
+        Flux<User> users = Flux.fromIterable(() -> null == after ? userStorage.iterator() : userStorage.iteratorAfter(after));
+        return null == page || page.getLimit() <= 0 ? users : users.limitRequest(page.getLimit());
     }
 
-    public Flux<User> list() {
-        return Flux.fromStream(USERS.values().stream())
-                .delayElements(Duration.ofSeconds(3)).log();
+    /**
+     * Read the users in chunks, a `requestN` reads N more chunks.
+     *
+     * @param page cursor, limit and chunk size, nullable
+     * @return Flux
+     */
+    public Flux<UserChunk> listChunks(PageRequest page) {
+        int chunkSize = null == page || page.getChunkSize() <= 0 ? defaultChunkSize : page.getChunkSize();
+        return list(page).buffer(chunkSize)
+                .map(users -> UserChunk.builder().users(users).cursor(users.get(users.size() - 1).getId()).build());
     }
 }
@@ -0,0 +1,154 @@
+package com.shf.server.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.shf.entity.User;
+import com.shf.reactive.coalesce.SingleFlight;
+import com.shf.server.repository.UserRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Description:
+ * Look up the users for the `user`, `user.{id}`, `users` and `requester.responder` routes through a read-through cache:
+ * a Caffeine(W-TinyLFU admission) cache bounded by the estimated bytes of the users and expired after `user.cache.ttl`.
+ * The misses of the same id share one in-flight lookup by a {@link SingleFlight}(the misses of `users` are looked up
+ * together instead), and an added user is invalidated.
+ * With `user.lookup.offload`, a lookup runs on the bounded elastic scheduler, for a durable storage which may block on
+ * a page fault. It's off by default, a lookup in the heap is cheaper than the hop to another thread.
+ * <p>
+ * Meters: `cache.*{cache=users}`, `user.lookup{result=executed|coalesced}` and `user.lookup.in.flight`.
+ *
+ * @author songhaifeng
+ * @date 2026/10/19 2:40
+ */
+@Service
+@Slf4j
+public class UserService {
+    /**
+     * Estimated bytes of a {@link User} and its entry, besides the chars of the name.
+     */
+    private static final int USER_OVERHEAD_BYTES = 96;
+
+    private final UserRepository userRepository;
+    private final SingleFlight<Integer, User> lookups = new SingleFlight<>();
+    private final Cache<Integer, User> cache;
+    private final boolean offload;
+
+    public UserService(UserRepository userRepository,
+                       @Value("${user.lookup.offload:false}") boolean offload,
+                       @Value("${user.cache.enabled:true}") boolean cacheEnabled,
+                       @Value("${user.cache.max-size:16MB}") DataSize cacheMaxSize,
+                       @Value("${user.cache.ttl:60s}") Duration cacheTtl,
+                       ObjectProvider<MeterRegistry> registry) {
+        this.userRepository = userRepository;
+        this.offload = offload;
+        this.cache = cacheEnabled ? Caffeine.newBuilder()
+                .maximumWeight(cacheMaxSize.toBytes())
+                .weigher(UserService::weigh)
+                .expireAfterWrite(cacheTtl)
+                .recordStats()
+                .build() : null;
+        MeterRegistry meterRegistry = registry.getIfAvailable(() -> Metrics.globalRegistry);
+        if (null != cache) {
+            CaffeineCacheMetrics.monitor(meterRegistry, cache, "users");
+        }
+        FunctionCounter.builder("user.lookup", lookups, SingleFlight::getExecutedCount)
+                .description("Lookups of a user by id")
+                .tag("result", "executed")
+                .register(meterRegistry);
+        FunctionCounter.builder("user.lookup", lookups, SingleFlight::getCoalescedCount)
+                .description("Lookups of a user by id")
+                .tag("result", "coalesced")
+                .register(meterRegistry);
+        Gauge.builder("user.lookup.in.flight", lookups, SingleFlight::getInFlightCount)
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param id id
+     * @return the user, or empty if absent, the absence is not cached
+     */
+    public Mono<User> getOne(int id) {
+        if (null == cache) {
+            return lookup(id);
+        }
+        User cached = cache.getIfPresent(id);
+        if (null != cached) {
+            return Mono.just(cached);
+        }
+        return lookup(id).doOnNext(user -> cache.put(id, user));
+    }
+
+    /**
+     * Look up several users, the cached ones first, then the misses in one lookup of the repository, which are cached.
+     *
+     * @param ids distinct ids
+     * @return the users found, not in the order of the ids
+     */
+    public Flux<User> getAll(List<Integer> ids) {
+        if (null == cache) {
+            return lookupAll(ids);
+        }
+        Map<Integer, User> cached = cache.getAllPresent(ids);
+        if (cached.size() == ids.size()) {
+            return Flux.fromIterable(cached.values());
+        }
+        List<Integer> misses = new ArrayList<>(ids.size() - cached.size());
+        for (Integer id : ids) {
+            if (!cached.containsKey(id)) {
+                misses.add(id);
+            }
+        }
+        return Flux.fromIterable(cached.values())
+                .concatWith(lookupAll(misses).doOnNext(user -> cache.put(user.getId(), user)));
+    }
+
+    /**
+     * Add the user and invalidate its cached entry.
+     *
+     * @param user user
+     * @return completed with false if the id already exists, once the user is durable
+     */
+    public Mono<Boolean> add(User user) {
+        return userRepository.add(user).doOnSuccess(inserted -> invalidate(user.getId()));
+    }
+
+    public void invalidate(int id) {
+        if (null != cache) {
+            cache.invalidate(id);
+        }
+    }
+
+    private Mono<User> lookup(int id) {
+        return lookups.execute(id, () -> offload
+                ? userRepository.getOne(id).subscribeOn(Schedulers.boundedElastic())
+                : userRepository.getOne(id));
+    }
+
+    private Flux<User> lookupAll(List<Integer> ids) {
+        return offload
+                ? userRepository.getAll(ids).subscribeOn(Schedulers.boundedElastic())
+                : userRepository.getAll(ids);
+    }
+
+    private static int weigh(Integer id, User user) {
+        return USER_OVERHEAD_BYTES + (null == user.getName() ? 0 : user.getName().length() << 1);
+    }
+}
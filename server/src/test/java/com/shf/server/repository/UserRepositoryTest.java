@@ -0,0 +1,146 @@
+package com.shf.server.repository;
+
+import com.shf.entity.User;
+import com.shf.storage.DurableUserStorage;
+import com.shf.storage.GroupCommitUserStorage;
+import com.shf.storage.InMemoryUserStorage;
+import com.shf.storage.IndexedUserStorage;
+import com.shf.storage.UserStorage;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Description:
+ * `add.user` and `list` of {@link UserRepository} at the same time, on the storages selected by `user.storage.type`.
+ * A user is never lost nor listed twice, whether it was added before or during a listing.
+ *
+ * @author songhaifeng
+ * @date 2026/10/19 22:10
+ */
+class UserRepositoryTest {
+    private static final int INITIAL_USERS = 3;
+    private static final int WRITERS = 4;
+    private static final int USERS_PER_WRITER = 2000;
+    private static final int READERS = 2;
+
+    @TempDir
+    Path dir;
+
+    private UserStorage storage;
+
+    @AfterEach
+    void close() {
+        if (null != storage) {
+            storage.close();
+        }
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"memory", "durable", "group-commit", "indexed", "server"})
+    void concurrentAddAndList(String type) throws Exception {
+        storage = storage(type);
+        UserRepository repository = new UserRepository(storage, 100);
+        Set<Integer> added = ConcurrentHashMap.newKeySet();
+        for (int id = 1; id <= INITIAL_USERS; id++) {
+            added.add(id);
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(WRITERS + READERS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int w = 0; w < WRITERS; w++) {
+                int first = INITIAL_USERS + 1 + w * USERS_PER_WRITER;
+                writers.add(executor.submit(() -> {
+                    start.await();
+                    for (int id = first; id < first + USERS_PER_WRITER; id++) {
+                        assertThat(repository.add(User.builder().id(id).name("user" + id).age(id % 100).build()).block()).isTrue();
+                        added.add(id);
+                    }
+                    return null;
+                }));
+            }
+            List<Future<Integer>> readers = new ArrayList<>();
+            for (int r = 0; r < READERS; r++) {
+                readers.add(executor.submit(() -> {
+                    start.await();
+                    int listings = 0;
+                    do {
+                        Set<Integer> before = new HashSet<>(added);
+                        Set<Integer> listed = listIds(repository);
+                        assertThat(listed).containsAll(before);
+                        listings++;
+                    } while (writing.get());
+                    return listings;
+                }));
+            }
+            start.countDown();
+            for (Future<?> writer : writers) {
+                writer.get(1, TimeUnit.MINUTES);
+            }
+            writing.set(false);
+            for (Future<Integer> reader : readers) {
+                assertThat(reader.get(1, TimeUnit.MINUTES)).isPositive();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertThat(repository.add(User.builder().id(1).name("foo").age(18).build()).block()).isFalse();
+        Set<Integer> listed = listIds(repository);
+        assertThat(listed).hasSize(INITIAL_USERS + WRITERS * USERS_PER_WRITER).isEqualTo(added);
+        assertThat(storage.size()).isEqualTo(listed.size());
+    }
+
+    /**
+     * @return the listed ids, asserting none is listed twice
+     */
+    private static Set<Integer> listIds(UserRepository repository) {
+        List<User> users = repository.list(null).collectList().block();
+        Set<Integer> ids = new HashSet<>(users.size() << 1);
+        for (User user : users) {
+            assertThat(ids.add(user.getId())).as("user %s listed twice", user.getId()).isTrue();
+        }
+        return ids;
+    }
+
+    private UserStorage storage(String type) throws IOException {
+        switch (type) {
+            case "memory":
+                return new InMemoryUserStorage(16);
+            case "durable":
+                // a small segment to roll over while listing
+                return new DurableUserStorage(dir, 64 * 1024, 16, Duration.ofSeconds(60));
+            case "group-commit":
+                return new GroupCommitUserStorage(new DurableUserStorage(dir, 64 * 1024, 16, Duration.ofSeconds(60)),
+                        Duration.ZERO, 256, new SimpleMeterRegistry());
+            case "indexed":
+                return new IndexedUserStorage(new InMemoryUserStorage(16));
+            case "server":
+                // the server defaults of a durable storage
+                return new GroupCommitUserStorage(new IndexedUserStorage(new DurableUserStorage(dir, 64 * 1024, 16, Duration.ofSeconds(60))),
+                        Duration.ZERO, 256, new SimpleMeterRegistry());
+            default:
+                throw new IllegalArgumentException("Unknown storage type " + type);
+        }
+    }
+}